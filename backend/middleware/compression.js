@@ -0,0 +1,48 @@
+const zlib = require("zlib");
+
+// Bodies smaller than this are not worth the gzip header and CPU
+const MIN_BYTES = 1024;
+
+// Gzips response bodies for clients that send Accept-Encoding: gzip. It hooks
+// res.send, so res.json bodies are covered too. The ETag is computed here from the
+// uncompressed body, the way Express would, so a revalidation that ends in a 304
+// never compresses anything; both variants share that weak ETag and Vary tells
+// caches apart. Compression runs on the zlib thread pool, off the event loop.
+const compression = (req, res, next) => {
+  const send = res.send;
+  res.send = function (body) {
+    const acceptsGzip = /\bgzip\b/.test(req.headers["accept-encoding"] || "");
+    if (!acceptsGzip || res.get("Content-Encoding") || !(typeof body === "string" || Buffer.isBuffer(body))) {
+      return send.call(this, body);
+    }
+
+    res.vary("Accept-Encoding");
+    const raw = typeof body === "string" ? Buffer.from(body, "utf8") : body;
+    if (raw.length < MIN_BYTES) {
+      return send.call(this, body);
+    }
+    const etag = req.app.get("etag fn");
+    if (etag && !res.get("ETag")) {
+      res.set("ETag", etag(raw));
+    }
+    if (req.fresh) {
+      // Express answers 304 from the ETag set above and drops the body
+      return send.call(this, body);
+    }
+    if (!res.get("Content-Type")) {
+      res.type(typeof body === "string" ? "html" : "bin");
+    }
+    zlib.gzip(raw, (err, gzipped) => {
+      if (err) {
+        send.call(this, body);
+        return;
+      }
+      res.set("Content-Encoding", "gzip");
+      send.call(this, gzipped);
+    });
+    return this;
+  };
+  next();
+};
+
+module.exports = { compression };
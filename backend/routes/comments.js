@@ -2,8 +2,31 @@ const express = require("express");
 const router = express.Router();
 const { Comment, User, Guide, Post } = require("../models");
 const { authMiddleware, requiredRole } = require("../middleware/auth");
+const { pageOptions } = require("../utils/pagination");
+const { createdSince } = require("../utils/sync");
+const events = require("../utils/events");
+
+// Paging and polling options shared by the GET routes. Returns { error } for bad
+// params, otherwise the findAll options to spread in.
+const listOptions = (query) => {
+  const page = pageOptions(query);
+  if (page && page.error) {
+    return { error: page.error };
+  }
+  const since = createdSince(query);
+  if (since && since.error) {
+    return { error: since.error };
+  }
+  return {
+    order: [["createdAt", "ASC"]], // Sort by creation date (oldest first)
+    ...page,
+    where: { ...(page && page.where), ...since },
+  };
+};
 
 // GET /comments/guide/:guideId - Get all comments for a guide
+// Optional ?cursor=<last id>&limit=<n> returns a single page ordered by id
+// Optional ?since=<ISO timestamp> returns only comments created since then
 router.get("/guide/:guideId", async (req, res) => {
   const { guideId } = req.params;
 
@@ -11,12 +34,16 @@ router.get("/guide/:guideId", async (req, res) => {
   if (!guideId || isNaN(parseInt(guideId))) {
     return res.status(400).json({ error: "Invalid guideId" });
   }
+  const options = listOptions(req.query);
+  if (options.error) {
+    return res.status(400).json({ error: options.error });
+  }
 
   try {
     const comments = await Comment.findAll({
-      where: { guideId: parseInt(guideId), postId: null },
+      ...options,
+      where: { ...options.where, guideId: parseInt(guideId), postId: null },
       include: [{ model: User, attributes: ["username"] }],
-      order: [["createdAt", "ASC"]], // Sort by creation date (oldest first)
     });
     res.status(200).json(comments);
   } catch (err) {
@@ -25,6 +52,8 @@ router.get("/guide/:guideId", async (req, res) => {
 });
 
 // GET /comments/post/:postId - Get all comments for a post
+// Optional ?cursor=<last id>&limit=<n> returns a single page ordered by id
+// Optional ?since=<ISO timestamp> returns only comments created since then
 router.get("/post/:postId", async (req, res) => {
   const { postId } = req.params;
 
@@ -32,12 +61,16 @@ router.get("/post/:postId", async (req, res) => {
   if (!postId || isNaN(parseInt(postId))) {
     return res.status(400).json({ error: "Invalid postId" });
   }
+  const options = listOptions(req.query);
+  if (options.error) {
+    return res.status(400).json({ error: options.error });
+  }
 
   try {
     const comments = await Comment.findAll({
-      where: { postId: parseInt(postId), guideId: null }, // Fixed the where clause
+      ...options,
+      where: { ...options.where, postId: parseInt(postId), guideId: null }, // Fixed the where clause
       include: [{ model: User, attributes: ["username"] }],
-      order: [["createdAt", "ASC"]], // Sort by creation date (oldest first)
     });
     res.status(200).json(comments);
   } catch (err) {
@@ -79,6 +112,7 @@ router.post("/guide/:guideId", authMiddleware, async (req, res) => {
     });
 
     res.status(201).json(commentWithUser);
+    events.publish("comment", "upsert", comment.id, commentWithUser.toJSON(), `guide:${comment.guideId}`);
   } catch (err) {
     res.status(500).json({ error: "Failed to create comment" });
   }
@@ -118,6 +152,7 @@ router.post("/post/:postId", authMiddleware, async (req, res) => {
     });
 
     res.status(201).json(commentWithUser);
+    events.publish("comment", "upsert", comment.id, commentWithUser.toJSON(), `post:${comment.postId}`);
   } catch (err) {
     res.status(500).json({ error: "Failed to create comment" });
   }
@@ -147,6 +182,8 @@ router.delete("/:id", authMiddleware, async (req, res) => {
 
     await comment.destroy();
     res.status(200).json({ message: "Comment deleted successfully" });
+    events.publish("comment", "delete", comment.id, undefined,
+      comment.guideId ? `guide:${comment.guideId}` : `post:${comment.postId}`);
   } catch (err) {
     res.status(500).json({ error: "Failed to delete comment" });
   }
@@ -2,16 +2,41 @@ const express = require("express");
 const router = express.Router();
 const { Guide, User } = require("../models/index");
 const { authMiddleware, requiredRole } = require("../middleware/auth");
+const { pageOptions } = require("../utils/pagination");
+const { changedSince } = require("../utils/sync");
+const { sendList } = require("../utils/wire");
+const { summaryView } = require("../utils/summary");
+const events = require("../utils/events");
 
 // Get all guides (only published guides for non-admins)
+// Optional ?cursor=<last id>&limit=<n> returns a single page ordered by id
+// Optional ?updatedSince=<ISO timestamp> returns only rows changed since then
+// Optional ?view=summary replaces description with a short summary
+// Sent as MessagePack instead of JSON when Accept prefers application/x-msgpack
 router.get("/", async (req, res) => {
+  const page = pageOptions(req.query);
+  if (page && page.error) {
+    return res.status(400).json({ error: page.error });
+  }
+  const since = changedSince(req.query);
+  if (since && since.error) {
+    return res.status(400).json({ error: since.error });
+  }
+  const view = summaryView(req.query, "Guide", "description");
+  if (view && view.error) {
+    return res.status(400).json({ error: view.error });
+  }
+
   try {
     const user = req.user; // From authMiddleware (optional, if logged in)
     console.log(user);
     const guides = await Guide.findAll({
+      ...page,
+      ...view,
+      where: { ...(page && page.where), ...since },
       include: [{ model: User, attributes: ["username"] }],
     });
-    res.status(200).json(guides);
+    sendList(req, res, guides);
   } catch (err) {
     res.status(500).json({
       error: "Failed to fetch guides",
@@ -21,6 +46,7 @@ router.get("/", async (req, res) => {
 });
 
 //Get guides for for you page according to the level of experience of the user
+// Optional ?view=summary replaces description with a short summary
 router.get("/for-you", async (req, res) => {
   try {
     const userId = req.query.userId;
@@ -28,13 +54,20 @@ router.get("/for-you", async (req, res) => {
       return res.status(400).json({ error: "User ID is required" });
     }
 
+    const view = summaryView(req.query, "Guide", "description");
+    if (view && view.error) {
+      return res.status(400).json({ error: view.error });
+    }
+
     const user = await User.findByPk(userId);
     if (!user) {
       return res.status(404).json({ error: "User not found" });
     }
 
     const guides = await Guide.findAll({
+      ...view,
       where: { level: user.experience_level },
+      include: [{ model: User, attributes: ["username"] }],
     });
 
     res.json(guides);
@@ -99,6 +132,7 @@ router.post(
         userId: req.user.id, // Set userId from the authenticated user
       });
       res.status(201).json({ message: "Guide created successfully", guide });
+      events.publishSummary("guide", Guide, guide.id, "description");
     } catch (err) {
       res.status(500).json({
         error: "Failed to create guide",
@@ -136,6 +170,7 @@ router.put(
 
       await guide.update({ title, description, status });
       res.status(200).json({ message: "Guide updated successfully", guide });
+      events.publishSummary("guide", Guide, guide.id, "description");
     } catch (err) {
       res.status(500).json({
         error: `Failed to update guide with ID ${req.params.id}`,
@@ -175,6 +210,7 @@ router.patch(
       guide.status = status;
       await guide.save();
       res.status(200).json({ message: "Guide status updated", guide });
+      events.publishSummary("guide", Guide, guide.id, "description");
     } catch (err) {
       res.status(500).json({
         error: `Failed to update guide status for ID ${id}`,
@@ -205,6 +241,7 @@ router.delete(
 
       await guide.destroy();
       res.status(200).json({ message: "Guide deleted successfully" });
+      events.publish("guide", "delete", guide.id);
     } catch (err) {
       res.status(500).json({
         error: `Failed to delete guide with ID ${req.params.id}`,
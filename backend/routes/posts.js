@@ -2,17 +2,42 @@ const express = require("express");
 const router = express.Router();
 const { Post, User, Tag, PostTag } = require("../models/index");
 const { authMiddleware, requiredRole } = require("../middleware/auth");
+const { pageOptions } = require("../utils/pagination");
+const { changedSince } = require("../utils/sync");
+const { sendList } = require("../utils/wire");
+const { summaryView, toSummary } = require("../utils/summary");
+const events = require("../utils/events");
 
 // GET /api/posts - Fetch all posts with user and tags
+// Optional ?cursor=<last id>&limit=<n> returns a single page ordered by id
+// Optional ?updatedSince=<ISO timestamp> returns only rows changed since then
+// Optional ?view=summary replaces content with a short summary
+// Sent as MessagePack instead of JSON when Accept prefers application/x-msgpack
 router.get("/", async (req, res) => {
+  const page = pageOptions(req.query);
+  if (page && page.error) {
+    return res.status(400).json({ error: page.error });
+  }
+  const since = changedSince(req.query);
+  if (since && since.error) {
+    return res.status(400).json({ error: since.error });
+  }
+  const view = summaryView(req.query, "Post", "content");
+  if (view && view.error) {
+    return res.status(400).json({ error: view.error });
+  }
+
   try {
     const posts = await Post.findAll({
+      ...page,
+      ...view,
+      where: { ...(page && page.where), ...since },
       include: [
         { model: User, attributes: ["username"] },
         { model: Tag, attributes: ["name"], through: { attributes: [] } },
       ],
     });
-    res.status(200).json(posts);
+    sendList(req, res, posts);
   } catch (err) {
     res.status(500).json({
       error: "Failed to fetch posts",
@@ -89,6 +114,7 @@ router.post("/", authMiddleware, async (req, res) => {
     res
       .status(201)
       .json({ message: "Post created successfully", post: createdPost });
+    events.publish("post", "upsert", createdPost.id, toSummary(createdPost, "content"));
   } catch (err) {
     if (err.name === "SequelizeUniqueConstraintError") {
       res
@@ -157,6 +183,7 @@ router.put("/:id", authMiddleware, async (req, res) => {
     res
       .status(200)
       .json({ message: "Post updated successfully", post: updatedPost });
+    events.publish("post", "upsert", updatedPost.id, toSummary(updatedPost, "content"));
   } catch (err) {
     res.status(500).json({
       error: `Failed to update post with ID ${req.params.id}`,
@@ -186,6 +213,7 @@ router.delete(
 
       await post.destroy();
       res.status(200).json({ message: "Post deleted successfully" });
+      events.publish("post", "delete", post.id);
     } catch (err) {
       res.status(500).json({
         error: `Failed to delete post with ID ${req.params.id}`,
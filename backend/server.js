@@ -14,6 +14,8 @@ const contactRoutes = require("./routes/contact");
 const searchRoutes = require("./routes/search");
 const quizRoutes = require("./routes/quiz");
 const quiz2Router = require("./routes/quiz2");
+const { compression } = require("./middleware/compression");
+const events = require("./utils/events");
 require("dotenv").config();
 
 const logDir = path.join(__dirname, "logs");
@@ -25,9 +27,14 @@ const app = express();
 const PORT = process.env.PORT || 8000;
 const server = require("http").createServer(app);
 const wss = new Server({ server });
+// Keep idle client connections open longer than the clients' own pool timeouts so
+// the server is not the side that closes a socket a client is about to reuse
+server.keepAliveTimeout = 65 * 1000;
+server.headersTimeout = 66 * 1000;
 
 // Middleware
 app.use(express.json());
+app.use(compression);
 app.use(cors({ origin: "*" })); // Allow
 
 app.use("/auth", authRoutes);
@@ -38,6 +45,7 @@ app.use("/contact", contactRoutes);
 app.use("/search", searchRoutes);
 app.use("/quiz", quizRoutes);
 app.use("/quiz2", quiz2Router);
+app.get("/events", events.stream);
 
 wss.on("connection", async (ws) => {
   console.log("New WebSocket connection");
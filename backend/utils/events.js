@@ -0,0 +1,88 @@
+const { User } = require("../models/index");
+const { toSummary } = require("./summary");
+
+// Change feed for clients that keep a local copy of guides, posts and comments,
+// sent as Server-Sent Events on GET /events. Every create, update and delete goes
+// out as one event. The last BUFFER_SIZE events are kept, so a client reconnecting
+// with Last-Event-ID is sent what it missed; one that has fallen further behind, or
+// was connected to an earlier run of this process, is sent a "resync" event and
+// catches up with ?updatedSince= instead. Events live in this process only.
+const BUFFER_SIZE = 1000;
+// Below the clients' 20 s read timeout, so a quiet stream is not taken for a dead one
+const HEARTBEAT_MS = 15 * 1000;
+// Event ids are "<epoch>-<seq>"; the epoch tells ids from an earlier run apart
+const EPOCH = Date.now().toString(36);
+
+let lastSeq = 0;
+const recent = [];
+const clients = new Set();
+
+const frame = (seq, payload) => `id: ${EPOCH}-${seq}\ndata: ${JSON.stringify(payload)}\n\n`;
+
+// kind is "guide", "post" or "comment" and op is "upsert" or "delete". row is the
+// changed row for an upsert. Comments also carry item, "guide:<id>" or "post:<id>".
+const publish = (kind, op, id, row, item) => {
+  lastSeq += 1;
+  const event = { seq: lastSeq, chunk: frame(lastSeq, { kind, op, id, item, row }) };
+  recent.push(event);
+  if (recent.length > BUFFER_SIZE) {
+    recent.shift();
+  }
+  for (const res of clients) {
+    res.write(event.chunk);
+  }
+};
+
+// Guides and posts go out as a ?view=summary list row with the author's username,
+// which is what clients store from a sync. The row is read back after the write;
+// failures are logged rather than failing a request that has already succeeded.
+const publishSummary = async (kind, model, id, textField) => {
+  try {
+    const row = await model.findByPk(id, { include: [{ model: User, attributes: ["username"] }] });
+    if (row) {
+      publish(kind, "upsert", row.id, toSummary(row, textField));
+    }
+  } catch (err) {
+    console.error(`Failed to publish ${kind} ${id}:`, err.message);
+  }
+};
+
+// A new client is only told where the stream starts, so that if it drops before the
+// first event it still resumes from here.
+const replay = (lastEventId, res) => {
+  if (!lastEventId) {
+    res.write(`id: ${EPOCH}-${lastSeq}\n\n`);
+    return;
+  }
+  const [epoch, seq] = lastEventId.split("-");
+  const from = Number(seq);
+  const oldest = recent.length > 0 ? recent[0].seq : lastSeq + 1;
+  if (epoch !== EPOCH || !(from >= oldest - 1 && from <= lastSeq)) {
+    res.write(frame(lastSeq, { kind: "resync" }));
+    return;
+  }
+  for (const event of recent) {
+    if (event.seq > from) {
+      res.write(event.chunk);
+    }
+  }
+};
+
+// GET /events. Written with res.write, so the compression middleware leaves it alone.
+const stream = (req, res) => {
+  res.writeHead(200, {
+    "Content-Type": "text/event-stream; charset=utf-8",
+    "Cache-Control": "no-cache",
+    Connection: "keep-alive",
+    "X-Accel-Buffering": "no",
+  });
+  replay(req.get("Last-Event-ID"), res);
+  clients.add(res);
+  const heartbeat = setInterval(() => res.write(": ping\n\n"), HEARTBEAT_MS);
+  res.on("close", () => {
+    clearInterval(heartbeat);
+    clients.delete(res);
+  });
+};
+
+module.exports = { publish, publishSummary, stream };
@@ -0,0 +1,91 @@
+// Minimal MessagePack encoder for API responses. Values go through toJSON() first,
+// exactly as JSON.stringify would treat them, so Sequelize instances become plain
+// objects and Dates become ISO strings; a binary response decodes to the same data
+// as the JSON one.
+
+const encode = (value) => {
+  const chunks = [];
+  let size = 0;
+  const push = (buffer) => {
+    chunks.push(buffer);
+    size += buffer.length;
+  };
+  write(value, push);
+  return Buffer.concat(chunks, size);
+};
+
+const header = (bytes) => Buffer.from(bytes);
+
+const writeLength = (length, fix, fixMax, codes, push) => {
+  if (fix !== null && length <= fixMax) {
+    push(header([fix | length]));
+  } else if (codes[0] !== null && length <= 0xff) {
+    push(header([codes[0], length]));
+  } else if (length <= 0xffff) {
+    push(header([codes[1], length >> 8, length & 0xff]));
+  } else {
+    const buffer = Buffer.alloc(5);
+    buffer[0] = codes[2];
+    buffer.writeUInt32BE(length, 1);
+    push(buffer);
+  }
+};
+
+const writeInteger = (value, push) => {
+  if (value >= 0 && value <= 0x7f) {
+    push(header([value]));
+  } else if (value < 0 && value >= -32) {
+    push(header([value & 0xff]));
+  } else if (value >= -0x80000000 && value <= 0x7fffffff) {
+    const buffer = Buffer.alloc(5);
+    buffer[0] = 0xd2;
+    buffer.writeInt32BE(value, 1);
+    push(buffer);
+  } else {
+    const buffer = Buffer.alloc(9);
+    buffer[0] = 0xd3;
+    buffer.writeBigInt64BE(BigInt(value), 1);
+    push(buffer);
+  }
+};
+
+const write = (value, push) => {
+  if (value !== null && typeof value === "object" && typeof value.toJSON === "function") {
+    value = value.toJSON();
+  }
+
+  if (value === null || value === undefined) {
+    push(header([0xc0]));
+  } else if (typeof value === "boolean") {
+    push(header([value ? 0xc3 : 0xc2]));
+  } else if (typeof value === "number") {
+    if (Number.isSafeInteger(value)) {
+      writeInteger(value, push);
+    } else {
+      const buffer = Buffer.alloc(9);
+      buffer[0] = 0xcb;
+      buffer.writeDoubleBE(value, 1);
+      push(buffer);
+    }
+  } else if (typeof value === "string") {
+    const bytes = Buffer.from(value, "utf8");
+    writeLength(bytes.length, 0xa0, 31, [0xd9, 0xda, 0xdb], push);
+    push(bytes);
+  } else if (Array.isArray(value)) {
+    writeLength(value.length, 0x90, 15, [null, 0xdc, 0xdd], push);
+    value.forEach((item) => write(item === undefined ? null : item, push));
+  } else if (typeof value === "object") {
+    const keys = Object.keys(value).filter(
+      (key) => value[key] !== undefined && typeof value[key] !== "function",
+    );
+    writeLength(keys.length, 0x80, 15, [null, 0xde, 0xdf], push);
+    keys.forEach((key) => {
+      write(key, push);
+      write(value[key], push);
+    });
+  } else {
+    push(header([0xc0]));
+  }
+};
+
+module.exports = { encode };
@@ -0,0 +1,32 @@
+const { Op } = require("sequelize");
+
+const MAX_PAGE_SIZE = 100;
+
+// Builds keyset pagination options from ?cursor=&limit= query params.
+// cursor is the id of the last item the client already has; pages are
+// ordered by id so the cursor stays valid while rows are inserted.
+// Returns null when neither param is present so existing callers keep
+// getting the full list.
+const pageOptions = (query) => {
+  const { cursor, limit } = query;
+  if (cursor === undefined && limit === undefined) {
+    return null;
+  }
+
+  const parsedCursor = cursor === undefined ? 0 : parseInt(cursor);
+  const parsedLimit = limit === undefined ? MAX_PAGE_SIZE : parseInt(limit);
+  if (isNaN(parsedCursor) || parsedCursor < 0) {
+    return { error: "Invalid cursor" };
+  }
+  if (isNaN(parsedLimit) || parsedLimit < 1) {
+    return { error: "Invalid limit" };
+  }
+
+  return {
+    where: { id: { [Op.gt]: parsedCursor } },
+    order: [["id", "ASC"]],
+    limit: Math.min(parsedLimit, MAX_PAGE_SIZE),
+  };
+};
+
+module.exports = { pageOptions };
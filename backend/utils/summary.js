@@ -0,0 +1,34 @@
+const { fn, col } = require("sequelize");
+
+const SUMMARY_CHARS = 200;
+
+// Builds the attributes for ?view=summary, which swaps the long text column of a
+// list for its first SUMMARY_CHARS characters as `summary`. The full text is then
+// fetched per item from /:id when it is opened. Returns null for the default full
+// view, so existing clients see no change.
+const summaryView = (query, model, textField) => {
+  if (query.view === undefined || query.view === "full") {
+    return null;
+  }
+  if (query.view !== "summary") {
+    return { error: "Invalid view" };
+  }
+
+  return {
+    attributes: {
+      exclude: [textField],
+      include: [[fn("LEFT", col(`${model}.${textField}`), SUMMARY_CHARS), "summary"]],
+    },
+  };
+};
+
+// The same summary for a single row already read in full, as sent on the change feed.
+const toSummary = (row, textField) => {
+  const json = row.toJSON();
+  const text = json[textField];
+  delete json[textField];
+  json.summary = text == null ? null : text.slice(0, SUMMARY_CHARS);
+  return json;
+};
+
+module.exports = { summaryView, toSummary };
@@ -0,0 +1,26 @@
+const { Op } = require("sequelize");
+
+// Builds a where clause from ?updatedSince=<ISO timestamp> so clients can pull
+// only rows changed since their last sync. The comparison is inclusive because
+// several rows can share a timestamp; clients upsert, so repeats are harmless.
+// Returns null when the param is absent.
+const changedSince = (query) => timestampSince(query.updatedSince, "updatedSince", "updatedAt");
+
+// Same for ?since=<ISO timestamp> over createdAt, for append-only rows such as
+// comments that clients poll for new entries.
+const createdSince = (query) => timestampSince(query.since, "since", "createdAt");
+
+const timestampSince = (value, param, field) => {
+  if (value === undefined) {
+    return null;
+  }
+
+  const since = new Date(value);
+  if (isNaN(since.getTime())) {
+    return { error: `Invalid ${param}` };
+  }
+
+  return { [field]: { [Op.gte]: since } };
+};
+
+module.exports = { changedSince, createdSince };
@@ -0,0 +1,15 @@
+const { encode } = require("./msgpack");
+
+const MSGPACK = "application/x-msgpack";
+
+// Sends a list as MessagePack when the client prefers it in Accept, otherwise as
+// JSON. Clients that never ask for MessagePack keep getting exactly what they did.
+const sendList = (req, res, rows) => {
+  res.vary("Accept");
+  if (req.accepts(["application/json", MSGPACK]) === MSGPACK) {
+    return res.status(200).type(MSGPACK).send(encode(rows));
+  }
+  return res.status(200).json(rows);
+};
+
+module.exports = { MSGPACK, sendList };
@@ -0,0 +1,21 @@
+#!/bin/sh
+# Compiles the checks and benchmarks together with the plain-Java part of the app and
+# runs them. Needs a JDK and the Gson jar the app uses:
+#   GSON_JAR=/path/to/gson.jar bench/run.sh [suite...]
+set -e
+here=$(cd "$(dirname "$0")" && pwd)
+app="$here/../mobilefrontend/app/src/main/java/com/example/mobilefrontend"
+out="$here/build/classes"
+: "${GSON_JAR:?set GSON_JAR to the gson jar}"
+
+rm -rf "$out" && mkdir -p "$out"
+# The plain-Java part of the app, the same classes the app ships
+javac -encoding UTF-8 -d "$out" -cp "$GSON_JAR" \
+    "$app/ApiClient.java" "$app/Transport.java" "$app/UrlConnectionTransport.java" "$app/ResponseCache.java" \
+    "$app/JsonCodec.java" "$app/MessagePackCodec.java" "$app/MessagePackReader.java" \
+    "$app/EventStream.java" "$app/LiveEvent.java" "$app/Guide.java" "$app/Post.java" "$app/Comment.java" \
+    "$app/AppLog.java" "$app/Metrics.java" "$app/Histogram.java" "$app/PageWindow.java" "$app/SearchRanking.java" \
+    "$app/QuizBank.java" \
+    $(find "$here/src/main/java" -name '*.java')
+# A fixed heap and the serial collector keep timings steady on small machines
+exec java -Xms512m -Xmx512m -XX:+UseSerialGC -Dbench.repo="$here/.." -cp "$out:$GSON_JAR" com.example.bench.Bench "$@"
@@ -0,0 +1,106 @@
+package com.example.bench;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Checks and benchmarks for the plain-Java part of the app, run on the JVM. Each
+// suite first asserts what the code must do, then times it against the approach it
+// replaced. Inputs are generated from fixed seeds, so counts and sizes are the same
+// on every run and only timings move. Exits 1 when any check fails.
+//
+//   bench/run.sh                # every suite
+//   bench/run.sh lists search   # just these
+public final class Bench {
+    interface Suite {
+        void run(Bench bench) throws Exception;
+    }
+
+    interface Task {
+        void run() throws Exception;
+    }
+
+    private static final long WARMUP_NANOS = 500_000_000L;
+
+    private static final Map<String, Suite> SUITES = new LinkedHashMap<>();
+
+    static {
+        SUITES.put("lists", ListUpdateBench::run);
+        SUITES.put("logging", LoggingBench::run);
+        SUITES.put("wire", WireFormatBench::run);
+        SUITES.put("codec", CodecBench::run);
+        SUITES.put("search", SearchBench::run);
+        SUITES.put("startup", StartupBench::run);
+        SUITES.put("quiz", QuizBench::run);
+    }
+
+    // Results are written here so the JIT cannot drop the work that produced them
+    static volatile Object blackhole;
+
+    private String suite;
+    private int checks;
+    private int failures;
+
+    private Bench() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String[] names = args.length == 0 ? SUITES.keySet().toArray(new String[0]) : args;
+        for (String name : names) {
+            if (!SUITES.containsKey(name)) {
+                System.err.println("Unknown suite " + name + "; have " + SUITES.keySet());
+                System.exit(2);
+            }
+        }
+        Bench bench = new Bench();
+        for (String name : names) {
+            bench.suite = name;
+            System.out.println("== " + name);
+            SUITES.get(name).run(bench);
+        }
+        System.out.printf(Locale.ROOT, "%d checks, %d failed%n", bench.checks, bench.failures);
+        System.exit(bench.failures == 0 ? 0 : 1);
+    }
+
+    void check(boolean ok, String what) {
+        checks++;
+        if (!ok) {
+            failures++;
+            System.out.println("FAIL [" + suite + "] " + what);
+        }
+    }
+
+    void checkEquals(Object expected, Object actual, String what) {
+        check(expected == null ? actual == null : expected.equals(actual),
+                what + ": expected " + expected + ", got " + actual);
+    }
+
+    void report(String format, Object... args) {
+        System.out.printf(Locale.ROOT, "  " + format + "%n", args);
+    }
+
+    // Median nanoseconds per operation over runs timed runs of task, after at least as
+    // many untimed ones, and half a second of them, to let the JIT settle; task
+    // performs ops operations per call.
+    static double nanosPerOp(int runs, int ops, Task task) throws Exception {
+        long warm = System.nanoTime() + WARMUP_NANOS;
+        for (int i = 0; i < runs || System.nanoTime() < warm; i++) {
+            task.run();
+        }
+        long[] times = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            task.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[runs / 2] / (double) ops;
+    }
+
+    // Bytes allocated so far by the calling thread.
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,194 @@
+package com.example.bench;
+
+import com.example.mobilefrontend.Guide;
+import com.example.mobilefrontend.JsonCodec;
+import com.example.mobilefrontend.Post;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// JsonCodec's hand-written adapters: every field of the backend's rows, the nested
+// User flattened to username, nulls and unknown keys, a write and read back, and
+// the pooling of repeated values. Then decode time and allocation per list against
+// reflection, both the new Gson() per load the fragments used to make and a shared
+// reflective Gson, and how many String objects the repeated values end up as.
+final class CodecBench {
+    private static final int ROWS = 200;
+    private static final Type GUIDE_LIST = new TypeToken<List<Guide>>() {
+    }.getType();
+    private static final Type POST_LIST = new TypeToken<List<Post>>() {
+    }.getType();
+
+    private CodecBench() {
+    }
+
+    static void run(Bench bench) throws Exception {
+        checkDecoding(bench);
+        checkRoundTrip(bench);
+        checkPooling(bench);
+        compare(bench);
+        checkPoolBound(bench);
+    }
+
+    private static void checkDecoding(Bench bench) {
+        for (boolean summary : new boolean[] {false, true}) {
+            List<Map<String, Object>> guides = Corpus.guides(ROWS, 1, summary);
+            List<Guide> decodedGuides = decode(JsonCodec.gson(), Corpus.json(guides), GUIDE_LIST);
+            bench.checkEquals(ROWS, decodedGuides.size(), "guides decoded");
+            for (int i = 0; i < guides.size(); i++) {
+                WireFormatBench.checkGuide(bench, guides.get(i), decodedGuides.get(i), "json guide " + i);
+            }
+            List<Map<String, Object>> posts = Corpus.posts(ROWS, 2, summary);
+            List<Post> decodedPosts = decode(JsonCodec.gson(), Corpus.json(posts), POST_LIST);
+            bench.checkEquals(ROWS, decodedPosts.size(), "posts decoded");
+            for (int i = 0; i < posts.size(); i++) {
+                WireFormatBench.checkPost(bench, posts.get(i), decodedPosts.get(i), "json post " + i);
+            }
+        }
+
+        Map<String, Object> odd = new LinkedHashMap<>();
+        odd.put("tags", List.of(Map.of("id", 1, "name", "shell"), "loose", 3));
+        odd.put("id", 9);
+        odd.put("title", null);
+        odd.put("level", "advanced");
+        odd.put("User", new LinkedHashMap<>(Map.of("id", 4, "username", "ada", "roles", List.of("admin"))));
+        odd.put("extra", Map.of("nested", Map.of("deeper", List.of(1, 2))));
+        List<Guide> decoded = decode(JsonCodec.gson(), Corpus.json(Arrays.asList(null, odd)), GUIDE_LIST);
+        bench.checkEquals(2, decoded.size(), "list with a null row");
+        bench.check(decoded.get(0) == null, "null row stays null");
+        WireFormatBench.checkGuide(bench, odd, decoded.get(1), "row with unknown keys");
+    }
+
+    private static void checkRoundTrip(Bench bench) {
+        Gson gson = JsonCodec.gson();
+        List<Guide> guides = decode(gson, Corpus.json(Corpus.guides(ROWS, 1, false)), GUIDE_LIST);
+        guides.add(new Guide(0, null, null, null, null, null, 0, null, null));
+        List<Guide> again = decode(gson, gson.toJson(guides, GUIDE_LIST).getBytes(StandardCharsets.UTF_8), GUIDE_LIST);
+        bench.checkEquals(guides.size(), again.size(), "guides written and read back");
+        for (int i = 0; i < guides.size(); i++) {
+            bench.checkEquals(describe(guides.get(i)), describe(again.get(i)), "guide " + i + " round trip");
+        }
+
+        List<Post> posts = decode(gson, Corpus.json(Corpus.posts(ROWS, 2, true)), POST_LIST);
+        List<Post> postsAgain = decode(gson, gson.toJson(posts, POST_LIST).getBytes(StandardCharsets.UTF_8), POST_LIST);
+        for (int i = 0; i < posts.size(); i++) {
+            bench.checkEquals(describe(posts.get(i)), describe(postsAgain.get(i)), "post " + i + " round trip");
+        }
+    }
+
+    private static void checkPooling(Bench bench) {
+        List<Guide> guides = decode(JsonCodec.gson(), Corpus.json(Corpus.guides(ROWS, 1, true)), GUIDE_LIST);
+        Map<String, String> first = new LinkedHashMap<>();
+        boolean shared = true;
+        for (Guide guide : guides) {
+            for (String value : new String[] {guide.getStatus(), guide.getLevel(), guide.getUsername()}) {
+                shared &= first.computeIfAbsent(value, v -> v) == value;
+            }
+        }
+        bench.check(shared, "equal status, level and username values share one String");
+        bench.check(JsonCodec.intern(new String("published")) == "published", "enum-like values are the literals");
+        String fresh = "pooled-" + System.nanoTime();
+        bench.check(JsonCodec.intern(new String(fresh)) == JsonCodec.intern(new String(fresh)),
+                "other short values are pooled");
+    }
+
+    // Last, because it fills the pool for the rest of the run
+    private static void checkPoolBound(Bench bench) {
+        for (int i = 0; i < 2048; i++) {
+            JsonCodec.intern("filler-" + i);
+        }
+        String late = "late-" + System.nanoTime();
+        bench.check(JsonCodec.intern(new String(late)) != JsonCodec.intern(new String(late)),
+                "a full pool stops growing");
+    }
+
+    private static void compare(Bench bench) throws Exception {
+        bench.report("%-22s %14s %14s %14s", "decode a list (us)", "new Gson()", "shared Gson", "JsonCodec");
+        Gson reflective = new Gson();
+        Object[][] cases = {
+            {"guides", Corpus.json(Corpus.guides(ROWS, 1, false)), GUIDE_LIST},
+            {"guides ?view=summary", Corpus.json(Corpus.guides(ROWS, 1, true)), GUIDE_LIST},
+            {"posts", Corpus.json(Corpus.posts(ROWS, 2, false)), POST_LIST},
+            {"posts ?view=summary", Corpus.json(Corpus.posts(ROWS, 2, true)), POST_LIST},
+        };
+        for (Object[] c : cases) {
+            byte[] json = (byte[]) c[1];
+            Type type = (Type) c[2];
+            double perLoad = Bench.nanosPerOp(200, 1, () -> Bench.blackhole = decode(new Gson(), json, type));
+            double shared = Bench.nanosPerOp(200, 1, () -> Bench.blackhole = decode(reflective, json, type));
+            double codec = Bench.nanosPerOp(200, 1, () -> Bench.blackhole = decode(JsonCodec.gson(), json, type));
+            bench.report("%-22s %14.1f %14.1f %14.1f", c[0], perLoad / 1000, shared / 1000, codec / 1000);
+        }
+
+        byte[] json = Corpus.json(Corpus.guides(ROWS, 1, true));
+        bench.report("%-22s %14s %14s %14s", "per summary list", "new Gson()", "shared Gson", "JsonCodec");
+        bench.report("%-22s %14d %14d %14d", "bytes allocated", allocated(() -> decode(new Gson(), json, GUIDE_LIST)),
+                allocated(() -> decode(reflective, json, GUIDE_LIST)),
+                allocated(() -> decode(JsonCodec.gson(), json, GUIDE_LIST)));
+        List<Guide> reflected = decode(reflective, json, GUIDE_LIST);
+        List<Guide> pooled = decode(JsonCodec.gson(), json, GUIDE_LIST);
+        bench.report("%-22s %14d %14d %14d", "status/level strings", repeatedStrings(reflected),
+                repeatedStrings(reflected), repeatedStrings(pooled));
+        // Reflection has no field for the nested User and skips it, username and all
+        bench.report("%-22s %14d %14d %14d", "usernames kept", usernames(reflected), usernames(reflected),
+                usernames(pooled));
+        bench.checkEquals(2 + Corpus.LEVELS.length, repeatedStrings(pooled), "one String per distinct status and level");
+        bench.checkEquals(ROWS, usernames(pooled), "every username kept");
+    }
+
+    private static <T> List<T> decode(Gson gson, byte[] json, Type type) {
+        return gson.fromJson(new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), type);
+    }
+
+    private static long allocated(Bench.Task task) throws Exception {
+        for (int i = 0; i < 50; i++) {
+            task.run();
+        }
+        long start = Bench.allocatedBytes();
+        task.run();
+        return Bench.allocatedBytes() - start;
+    }
+
+    // Distinct String objects holding the guides' status and level values
+    private static int repeatedStrings(List<Guide> guides) {
+        Set<String> objects = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Guide guide : guides) {
+            objects.add(guide.getStatus());
+            objects.add(guide.getLevel());
+        }
+        return objects.size();
+    }
+
+    private static int usernames(List<Guide> guides) {
+        int kept = 0;
+        for (Guide guide : guides) {
+            kept += guide.getUsername() != null ? 1 : 0;
+        }
+        return kept;
+    }
+
+    private static List<Object> describe(Guide guide) {
+        List<Object> fields = new ArrayList<>();
+        Collections.addAll(fields, guide.getId(), guide.getTitle(), guide.getDescription(), guide.getSummary(),
+                guide.getStatus(), guide.getLevel(), guide.getUserId(), guide.getUsername(), guide.getUpdatedAt());
+        return fields;
+    }
+
+    private static List<Object> describe(Post post) {
+        List<Object> fields = new ArrayList<>();
+        Collections.addAll(fields, post.getId(), post.getTitle(), post.getContent(), post.getSummary(),
+                post.getUserId(), post.getUsername(), post.getUpdatedAt());
+        return fields;
+    }
+}
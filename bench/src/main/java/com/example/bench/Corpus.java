@@ -0,0 +1,128 @@
+package com.example.bench;
+
+import com.google.gson.GsonBuilder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+// Guide and post rows shaped the way the backend's list endpoints send them: the
+// model's columns, timestamps, and the included User with just its username, in
+// full or ?view=summary form. Text is drawn from a Linux vocabulary with a fixed
+// seed, so every run sees the same rows.
+final class Corpus {
+    static final String[] LEVELS = {"beginner", "novice", "advanced"};
+    private static final int SUMMARY_CHARS = 200;
+    private static final String[] WORDS = {
+        "chmod", "chown", "permissions", "file", "directory", "grep", "find", "sed", "awk", "pipe",
+        "shell", "bash", "script", "process", "signal", "kill", "systemd", "service", "journal", "log",
+        "network", "ssh", "key", "firewall", "iptables", "package", "apt", "install", "update", "kernel",
+        "module", "mount", "disk", "partition", "filesystem", "ext4", "user", "group", "sudo", "root",
+        "cron", "schedule", "backup", "tar", "compress", "archive", "environment", "variable", "path", "alias",
+        "the", "a", "to", "and", "of", "with", "for", "your", "how", "use",
+    };
+
+    private Corpus() {
+    }
+
+    static List<Map<String, Object>> guides(int count, long seed, boolean summary) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i + 1);
+            row.put("title", sentence(random, 3 + random.nextInt(5)));
+            String description = markdown(random);
+            if (summary) {
+                row.put("summary", description.substring(0, Math.min(SUMMARY_CHARS, description.length())));
+            } else {
+                row.put("description", description);
+            }
+            row.put("status", random.nextInt(5) == 0 ? "draft" : "published");
+            row.put("level", LEVELS[random.nextInt(LEVELS.length)]);
+            row.put("userId", 1 + random.nextInt(20));
+            row.put("createdAt", timestamp(random));
+            row.put("updatedAt", timestamp(random));
+            row.put("User", user(random));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    static List<Map<String, Object>> posts(int count, long seed, boolean summary) {
+        Random random = new Random(seed);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", i + 1);
+            row.put("title", sentence(random, 4 + random.nextInt(8)));
+            String content = paragraph(random, 20 + random.nextInt(120));
+            if (summary) {
+                row.put("summary", content.substring(0, Math.min(SUMMARY_CHARS, content.length())));
+            } else {
+                row.put("content", content);
+            }
+            row.put("userId", 1 + random.nextInt(20));
+            row.put("createdAt", timestamp(random));
+            row.put("updatedAt", timestamp(random));
+            row.put("User", user(random));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    // What res.json writes for rows: nulls kept, keys in insertion order.
+    static byte[] json(Object rows) {
+        return new GsonBuilder().serializeNulls().create().toJson(rows).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = word(random);
+            text.append(i == 0 ? Character.toUpperCase(word.charAt(0)) + word.substring(1) : " " + word);
+        }
+        return text.toString();
+    }
+
+    private static String paragraph(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        while (words > 0) {
+            int length = Math.min(words, 6 + random.nextInt(10));
+            text.append(text.length() == 0 ? "" : " ").append(sentence(random, length)).append('.');
+            words -= length;
+        }
+        return text.toString();
+    }
+
+    // Headings, prose and a command block, as the guides are written
+    private static String markdown(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int section = 0, sections = 1 + random.nextInt(4); section < sections; section++) {
+            text.append("## ").append(sentence(random, 2 + random.nextInt(3))).append("\n\n");
+            text.append(paragraph(random, 30 + random.nextInt(80))).append("\n\n");
+            text.append("```bash\n").append(word(random)).append(" -").append((char) ('a' + random.nextInt(26)))
+                    .append(' ').append(word(random)).append("\n```\n\n");
+        }
+        return text.toString();
+    }
+
+    private static String timestamp(Random random) {
+        return String.format(Locale.ROOT, "2024-%02d-%02dT%02d:%02d:%02d.%03dZ",
+                1 + random.nextInt(12), 1 + random.nextInt(28), random.nextInt(24), random.nextInt(60),
+                random.nextInt(60), random.nextInt(1000));
+    }
+
+    private static Map<String, Object> user(Random random) {
+        Map<String, Object> user = new LinkedHashMap<>();
+        user.put("username", "user" + (1 + random.nextInt(20)));
+        return user;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.bench;
+
+import com.example.mobilefrontend.Guide;
+import com.example.mobilefrontend.PageWindow;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// PageWindow's paging and live patching, then how many rows a list update rebinds.
+// DiffUtil is an androidx class and does not run here, so the count is what any
+// keyed diff over the adapter's item callback has to rebind: rows newly on screen,
+// plus visible rows whose content changed. Rows that only moved keep their views.
+// notifyDataSetChanged() rebinds every visible row.
+final class ListUpdateBench {
+    private static final int PAGE = 20;
+    private static final int PAGES = 10;
+    // Rows on a phone screen at the list's row height
+    private static final int VISIBLE = 12;
+
+    private ListUpdateBench() {
+    }
+
+    static void run(Bench bench) {
+        checkPaging(bench);
+        checkPatching(bench);
+        bindCounts(bench);
+    }
+
+    private static void checkPaging(Bench bench) {
+        PageWindow<Guide> window = new PageWindow<>(3, Guide::getId);
+        bench.checkEquals(0, window.append(0, page(0), PAGE), "first append drops nothing");
+        window.append(window.nextCursor(), page(1), PAGE);
+        window.append(window.nextCursor(), page(2), PAGE);
+        bench.checkEquals(PAGE, window.append(window.nextCursor(), page(3), PAGE), "fourth page pushes out the head");
+        bench.checkEquals(3 * PAGE, window.size(), "size after a drop");
+        bench.check(window.hasPrevious(), "dropped head can be fetched again");
+        bench.checkEquals(0, window.previousCursor(), "cursor of the dropped head");
+        bench.checkEquals(idAt(4 * PAGE - 1), window.nextCursor(), "next cursor is the last id");
+        bench.check(window.hasNext(), "a full page does not end the list");
+
+        bench.checkEquals(PAGE, window.prepend(page(0)), "prepend pushes out the tail");
+        bench.check(!window.hasPrevious(), "nothing left above after prepending");
+        bench.checkEquals(idAt(3 * PAGE - 1), window.nextCursor(), "next cursor after losing the tail");
+        bench.checkEquals(ids(pages(0, 3)), ids(window.snapshot()), "window holds pages 0-2 in order");
+    }
+
+    private static void checkPatching(Bench bench) {
+        PageWindow<Guide> window = new PageWindow<>(3, Guide::getId);
+        window.append(0, page(0), PAGE);
+        window.append(window.nextCursor(), page(1), PAGE);
+
+        Guide retitled = retitle(guide(5));
+        bench.check(window.upsert(retitled), "upsert of a row in the window");
+        bench.checkEquals(2 * PAGE, window.size(), "replacing a row keeps the size");
+        bench.check(window.snapshot().get(5) == retitled, "replaced row is in place");
+
+        Guide between = new Guide(idAt(7) + 1, "New", null, "new", "draft", "beginner", 1, "u", null);
+        bench.check(window.upsert(between), "upsert of a new row in a gap");
+        bench.checkEquals(2 * PAGE + 1, window.size(), "inserting grows the size");
+        bench.checkEquals(between.getId(), window.snapshot().get(8).getId(), "new row lands in id order");
+        List<Integer> ids = ids(window.snapshot());
+        List<Integer> sorted = new ArrayList<>(ids);
+        sorted.sort(null);
+        bench.checkEquals(sorted, ids, "rows stay in id order");
+
+        Guide pastTail = guide(2 * PAGE + 3);
+        bench.check(!window.upsert(pastTail), "a row past an unfinished tail waits for loadNext");
+        bench.check(window.remove(between.getId()), "remove of a row in the window");
+        bench.check(!window.remove(between.getId()), "second remove finds nothing");
+        bench.checkEquals(2 * PAGE, window.size(), "removing shrinks the size");
+
+        window.append(window.nextCursor(), pages(2, 1).subList(0, 2), PAGE);
+        bench.check(!window.hasNext(), "a short page ends the list");
+        bench.check(window.upsert(pastTail), "a row past a finished tail is appended");
+        bench.checkEquals(pastTail.getId(), window.snapshot().get(window.size() - 1).getId(),
+                "appended row is last");
+
+        PageWindow<Guide> scrolled = new PageWindow<>(2, Guide::getId);
+        for (int p = 0; p < 3; p++) {
+            scrolled.append(scrolled.nextCursor(), page(p), PAGE);
+        }
+        bench.check(!scrolled.upsert(retitle(guide(3))), "a row above the window waits for that page");
+    }
+
+    private static void bindCounts(Bench bench) {
+        bench.report("%-40s %8s %8s", "update (" + PAGES * PAGE + " rows, " + VISIBLE + " visible)",
+                "rebind", "diffed");
+
+        PageWindow<Guide> window = window();
+        List<Guide> before = window.snapshot();
+        for (int p = 0; p < PAGES; p++) {
+            window.replace(p, window.startCursor(p), copy(page(p)), PAGE);
+        }
+        bind(bench, "refresh, nothing changed", before, window.snapshot(), 0);
+
+        window = window();
+        before = window.snapshot();
+        List<Guide> first = copy(page(0));
+        first.set(3, retitle(first.get(3)));
+        window.replace(0, 0, first, PAGE);
+        bind(bench, "refresh, one visible guide retitled", before, window.snapshot(), 1);
+
+        window = window();
+        before = window.snapshot();
+        List<Guide> late = copy(page(7));
+        late.set(10, retitle(late.get(10)));
+        window.replace(7, window.startCursor(7), late, PAGE);
+        bind(bench, "refresh, one guide off screen retitled", before, window.snapshot(), 0);
+
+        window = window();
+        before = window.snapshot();
+        Guide published = guide(6);
+        window.upsert(new Guide(published.getId(), published.getTitle(), null, published.getSummary(),
+                "published", published.getLevel(), 1, "u", null));
+        bind(bench, "live: visible guide published", before, window.snapshot(), 1);
+
+        window = window();
+        before = window.snapshot();
+        window.upsert(new Guide(idAt(2) + 1, "Inserted", null, "inserted", "draft", "beginner", 1, "u", null));
+        bind(bench, "live: guide inserted on screen", before, window.snapshot(), 1);
+
+        window = window();
+        before = window.snapshot();
+        window.remove(idAt(4));
+        // The row below the screen's last one slides up into view
+        bind(bench, "live: visible guide deleted", before, window.snapshot(), 1);
+    }
+
+    private static void bind(Bench bench, String update, List<Guide> before, List<Guide> after, int expected) {
+        int rebind = Math.min(VISIBLE, after.size());
+        int diffed = diffedBinds(before, after);
+        bench.report("%-40s %8d %8d", update, rebind, diffed);
+        bench.checkEquals(expected, diffed, update + " binds");
+    }
+
+    static int diffedBinds(List<Guide> before, List<Guide> after) {
+        List<Guide> shown = before.subList(0, Math.min(VISIBLE, before.size()));
+        int binds = 0;
+        for (int i = 0; i < Math.min(VISIBLE, after.size()); i++) {
+            Guide now = after.get(i);
+            Guide was = null;
+            for (Guide candidate : shown) {
+                if (candidate.getId() == now.getId()) {
+                    was = candidate;
+                    break;
+                }
+            }
+            if (was == null || !sameContent(was, now)) {
+                binds++;
+            }
+        }
+        return binds;
+    }
+
+    // The same test as GuideAdapter's DIFF_CALLBACK.areContentsTheSame
+    private static boolean sameContent(Guide a, Guide b) {
+        return Objects.equals(a.getTitle(), b.getTitle())
+                && Objects.equals(a.getSummary(), b.getSummary())
+                && Objects.equals(a.getStatus(), b.getStatus());
+    }
+
+    private static PageWindow<Guide> window() {
+        PageWindow<Guide> window = new PageWindow<>(PAGES, Guide::getId);
+        for (int p = 0; p < PAGES; p++) {
+            window.append(window.nextCursor(), page(p), PAGE);
+        }
+        return window;
+    }
+
+    // Ids are even so there is room to insert between neighbours
+    private static int idAt(int index) {
+        return 2 * (index + 1);
+    }
+
+    private static Guide guide(int index) {
+        int id = idAt(index);
+        return new Guide(id, "Guide " + id, null, "Summary of guide " + id, "draft",
+                index % 3 == 0 ? "beginner" : "novice", 1, "u", null);
+    }
+
+    private static List<Guide> page(int p) {
+        return pages(p, 1);
+    }
+
+    private static List<Guide> pages(int from, int count) {
+        List<Guide> guides = new ArrayList<>();
+        for (int i = from * PAGE; i < (from + count) * PAGE; i++) {
+            guides.add(guide(i));
+        }
+        return guides;
+    }
+
+    // Equal content in new objects, as a refetch returns
+    private static List<Guide> copy(List<Guide> guides) {
+        List<Guide> copies = new ArrayList<>();
+        for (Guide guide : guides) {
+            copies.add(new Guide(guide.getId(), new String(guide.getTitle()), null, new String(guide.getSummary()),
+                    guide.getStatus(), guide.getLevel(), guide.getUserId(), guide.getUsername(), null));
+        }
+        return copies;
+    }
+
+    private static Guide retitle(Guide guide) {
+        return new Guide(guide.getId(), guide.getTitle() + " (revised)", null, guide.getSummary(),
+                guide.getStatus(), guide.getLevel(), guide.getUserId(), guide.getUsername(), null);
+    }
+
+    private static List<Integer> ids(List<Guide> guides) {
+        List<Integer> ids = new ArrayList<>();
+        for (Guide guide : guides) {
+            ids.add(guide.getId());
+        }
+        return ids;
+    }
+}
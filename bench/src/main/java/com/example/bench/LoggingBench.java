@@ -0,0 +1,94 @@
+package com.example.bench;
+
+import com.example.mobilefrontend.AppLog;
+import com.example.mobilefrontend.Guide;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cost per bound row of logging from the bind path: the concatenated Log.d lines the
+// adapters used to write for every onBindViewHolder and getItemCount, against AppLog
+// with debug output compiled out (this harness builds with release BuildConfig) and
+// with a runtime level that is off or on. The bind itself is what GuideAdapter does
+// with a row: pick the text and set it on the holder.
+final class LoggingBench {
+    private static final String TAG = "GuideAdapter";
+    private static final int ROWS = 200;
+    private static final int PASSES = 50;
+    // Stands in for Log.d: the line is handed over and dropped
+    private static final AppLog.Sink LOGCAT = (priority, tag, message, error) -> Bench.blackhole = message;
+
+    private LoggingBench() {
+    }
+
+    private static final class Holder {
+        CharSequence title;
+        CharSequence summary;
+    }
+
+    private interface Binder {
+        void bind(Holder holder, List<Guide> guides, int position);
+    }
+
+    static void run(Bench bench) throws Exception {
+        List<Guide> guides = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            guides.add(new Guide(i + 1, "Guide " + (i + 1), null, "Summary of guide " + (i + 1), "published",
+                    "beginner", 1, "u", null));
+        }
+        AppLog.setSink(LOGCAT);
+
+        bench.report("%-34s %10s %12s", "bind with", "ns/row", "bytes/row");
+        measure(bench, "no logging", guides, (holder, list, position) -> bind(holder, list.get(position)),
+                AppLog.INFO, false);
+        double before = measure(bench, "Log.d strings (before)", guides, (holder, list, position) -> {
+            LOGCAT.println(AppLog.DEBUG, TAG, "getItemCount: " + list.size(), null);
+            LOGCAT.println(AppLog.DEBUG, TAG, "onBindViewHolder called for position " + position, null);
+            bind(holder, list.get(position));
+        }, AppLog.INFO, false);
+        bench.check(before > 0, "building the old log lines allocates");
+        measure(bench, "AppLog.d, release build", guides, (holder, list, position) -> {
+            AppLog.d(TAG, "Bind", "position", position);
+            bind(holder, list.get(position));
+        }, AppLog.VERBOSE, true);
+        measure(bench, "AppLog.w, level off", guides, (holder, list, position) -> {
+            Guide guide = list.get(position);
+            AppLog.w(TAG, "Bind", "title", guide.getTitle());
+            bind(holder, guide);
+        }, AppLog.ERROR, true);
+        measure(bench, "AppLog.w, level on", guides, (holder, list, position) -> {
+            Guide guide = list.get(position);
+            AppLog.w(TAG, "Bind", "title", guide.getTitle());
+            bind(holder, guide);
+        }, AppLog.VERBOSE, false);
+        AppLog.setLevel(AppLog.INFO);
+    }
+
+    // Returns bytes allocated per row. A silent binder must allocate none.
+    private static double measure(Bench bench, String name, List<Guide> guides, Binder binder, int level,
+            boolean silent) throws Exception {
+        AppLog.setLevel(level);
+        Holder holder = new Holder();
+        Bench.Task pass = () -> {
+            for (int p = 0; p < PASSES; p++) {
+                for (int position = 0; position < guides.size(); position++) {
+                    binder.bind(holder, guides, position);
+                }
+            }
+            Bench.blackhole = holder.title;
+        };
+        double nanos = Bench.nanosPerOp(40, ROWS * PASSES, pass);
+        long allocated = Bench.allocatedBytes();
+        pass.run();
+        double bytes = (Bench.allocatedBytes() - allocated) / (double) (ROWS * PASSES);
+        bench.report("%-34s %10.1f %12.1f", name, nanos, bytes);
+        if (silent) {
+            bench.check(bytes < 1, name + " allocates nothing per row (" + bytes + " bytes)");
+        }
+        return bytes;
+    }
+
+    private static void bind(Holder holder, Guide guide) {
+        holder.title = guide.getTitle() != null ? guide.getTitle() : "No Title";
+        holder.summary = guide.getSummary() != null ? guide.getSummary() : "";
+    }
+}
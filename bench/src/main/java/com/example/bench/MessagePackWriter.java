@@ -0,0 +1,86 @@
+package com.example.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+// The backend's encoder (backend/utils/msgpack.js) in Java, so payloads here have
+// the same bytes the server sends: smallest header for each length, integers as
+// fixint or int32/int64, other numbers as float64.
+final class MessagePackWriter {
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    static byte[] encode(Object value) {
+        MessagePackWriter writer = new MessagePackWriter();
+        writer.write(value);
+        return writer.out.toByteArray();
+    }
+
+    private void write(Object value) {
+        if (value == null) {
+            out.write(0xc0);
+        } else if (value instanceof Boolean) {
+            out.write((Boolean) value ? 0xc3 : 0xc2);
+        } else if (value instanceof Integer || value instanceof Long) {
+            writeInteger(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            out.write(0xcb);
+            writeBytes(Double.doubleToLongBits(((Number) value).doubleValue()), 8);
+        } else if (value instanceof String) {
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            writeLength(bytes.length, 0xa0, 31, 0xd9, 0xda, 0xdb);
+            out.write(bytes, 0, bytes.length);
+        } else if (value instanceof List) {
+            List<?> list = (List<?>) value;
+            writeLength(list.size(), 0x90, 15, -1, 0xdc, 0xdd);
+            for (Object item : list) {
+                write(item);
+            }
+        } else if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            writeLength(map.size(), 0x80, 15, -1, 0xde, 0xdf);
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(entry.getKey());
+                write(entry.getValue());
+            }
+        } else {
+            throw new IllegalArgumentException("Cannot encode " + value.getClass());
+        }
+    }
+
+    private void writeLength(int length, int fix, int fixMax, int code8, int code16, int code32) {
+        if (length <= fixMax) {
+            out.write(fix | length);
+        } else if (code8 >= 0 && length <= 0xff) {
+            out.write(code8);
+            out.write(length);
+        } else if (length <= 0xffff) {
+            out.write(code16);
+            writeBytes(length, 2);
+        } else {
+            out.write(code32);
+            writeBytes(length, 4);
+        }
+    }
+
+    private void writeInteger(long value) {
+        if (value >= 0 && value <= 0x7f) {
+            out.write((int) value);
+        } else if (value < 0 && value >= -32) {
+            out.write((int) value & 0xff);
+        } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            out.write(0xd2);
+            writeBytes(value, 4);
+        } else {
+            out.write(0xd3);
+            writeBytes(value, 8);
+        }
+    }
+
+    private void writeBytes(long value, int bytes) {
+        for (int shift = 8 * (bytes - 1); shift >= 0; shift -= 8) {
+            out.write((int) (value >>> shift) & 0xff);
+        }
+    }
+}
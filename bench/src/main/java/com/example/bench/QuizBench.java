@@ -0,0 +1,326 @@
+package com.example.bench;
+
+import com.example.mobilefrontend.QuizBank;
+import com.google.gson.Gson;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+// The committed quiz index against the JSON it was built from: every question,
+// answer and correct mask, the topic postings, sampling that stays within its topic
+// and difficulty and is uniform over both which questions come up and the order
+// they come in, exact-set scoring, and neither allocating. Then the time and heap
+// to open the index against parsing the JSON with Gson, as a JSON-backed quiz would.
+final class QuizBench {
+    private static final String LETTERS = "abcdef";
+    private static final int ROUND = 10;
+    private static final int DRAWS = 100_000;
+    private static final int HELD = 200;
+
+    private QuizBench() {
+    }
+
+    static void run(Bench bench) throws Exception {
+        File repo = new File(System.getProperty("bench.repo", "."));
+        File index = new File(repo, "mobilefrontend/app/src/main/assets/quiz.bin");
+        File json = new File(repo, "linuxGuide/public/linux_quiz_questions.json");
+        QuizBank bank = QuizBank.open(index);
+        Question[] questions = parse(new Gson(), json);
+
+        checkContents(bench, bank, questions);
+        checkTopics(bench, bank, questions);
+        checkSampling(bench, bank);
+        checkUniformity(bench, bank);
+        checkScoring(bench, bank);
+        compare(bench, index, json, bank);
+    }
+
+    private static void checkContents(Bench bench, QuizBank bank, Question[] questions) {
+        bench.checkEquals(questions.length, bank.size(), "one record per question");
+        for (int q = 0; q < questions.length; q++) {
+            Question expected = questions[q];
+            String what = "question " + expected.id;
+            bench.checkEquals(expected.id, bank.id(q), what + " id");
+            bench.checkEquals(expected.question, bank.question(q), what + " text");
+            bench.checkEquals(expected.description, bank.description(q), what + " description");
+            bench.checkEquals(expected.explanation, bank.explanation(q), what + " explanation");
+            bench.checkEquals(expected.tip, bank.tip(q), what + " tip");
+            bench.checkEquals(difficulty(expected.difficulty), bank.difficulty(q), what + " difficulty");
+            bench.checkEquals("true".equals(expected.multiple_correct_answers), bank.isMultipleChoice(q),
+                    what + " multiple choice");
+
+            // Empty answers are dropped and the rest keep their a-f order
+            List<String> answers = new ArrayList<>();
+            int mask = 0;
+            for (int i = 0; i < LETTERS.length(); i++) {
+                String key = "answer_" + LETTERS.charAt(i);
+                String answer = expected.answers.get(key);
+                if (answer == null) {
+                    continue;
+                }
+                if ("true".equals(expected.correct_answers.get(key + "_correct"))) {
+                    mask |= 1 << answers.size();
+                }
+                answers.add(answer);
+            }
+            List<String> stored = new ArrayList<>();
+            for (int i = 0; i < bank.answerCount(q); i++) {
+                stored.add(bank.answer(q, i));
+            }
+            bench.checkEquals(answers, stored, what + " answers");
+            bench.checkEquals(mask, bank.correctMask(q), what + " correct mask");
+        }
+    }
+
+    private static void checkTopics(Bench bench, QuizBank bank, Question[] questions) {
+        Set<String> names = new HashSet<>();
+        for (Question question : questions) {
+            for (Tag tag : question.tags) {
+                names.add(tag.name);
+            }
+        }
+        bench.checkEquals(names.size(), bank.topicCount(), "one topic per tag");
+        int[] all = new int[bank.size()];
+        for (int t = 0; t < bank.topicCount(); t++) {
+            String name = bank.topicName(t);
+            Set<Integer> expected = new HashSet<>();
+            for (int q = 0; q < questions.length; q++) {
+                for (Tag tag : questions[q].tags) {
+                    if (tag.name.equals(name)) {
+                        expected.add(q);
+                    }
+                }
+            }
+            int found = bank.sample(t, QuizBank.ANY, new Random(t), all);
+            bench.checkEquals(expected, set(all, found), "topic " + name + " postings");
+        }
+    }
+
+    // Every topic and difficulty, and ANY of each: a round never repeats a question,
+    // never strays outside the filters, and is short only when there are too few.
+    private static void checkSampling(Bench bench, QuizBank bank) {
+        Random random = new Random(1);
+        int[] round = new int[ROUND];
+        int[] all = new int[bank.size()];
+        for (int topic = QuizBank.ANY; topic < bank.topicCount(); topic++) {
+            for (int difficulty = QuizBank.ANY; difficulty <= QuizBank.HARD; difficulty++) {
+                Set<Integer> candidates = new HashSet<>();
+                for (int q = 0; q < bank.size(); q++) {
+                    if (inTopic(bank, q, topic) && (difficulty == QuizBank.ANY || bank.difficulty(q) == difficulty)) {
+                        candidates.add(q);
+                    }
+                }
+                String what = "topic " + (topic == QuizBank.ANY ? "any" : bank.topicName(topic))
+                        + ", difficulty " + difficulty;
+                boolean ok = true;
+                for (int draw = 0; draw < 200; draw++) {
+                    int found = bank.sample(topic, difficulty, random, round);
+                    Set<Integer> picked = set(round, found);
+                    ok &= found == Math.min(ROUND, candidates.size()) && picked.size() == found
+                            && candidates.containsAll(picked);
+                }
+                bench.check(ok, what + ": distinct matching questions");
+                int found = bank.sample(topic, difficulty, random, all);
+                bench.checkEquals(candidates, set(all, found), what + ": a large round gets every match");
+            }
+        }
+    }
+
+    // Chi-square over DRAWS rounds, for how often each question is picked and how
+    // often it comes first. With 99 degrees of freedom a fair sampler lands near 99;
+    // 150 is past the 0.1% tail. The seed is fixed, so the statistic is too.
+    private static void checkUniformity(Bench bench, QuizBank bank) {
+        Random random = new Random(2);
+        int[] round = new int[ROUND];
+        long[] picked = new long[bank.size()];
+        long[] first = new long[bank.size()];
+        for (int draw = 0; draw < DRAWS; draw++) {
+            bank.sample(QuizBank.ANY, QuizBank.ANY, random, round);
+            for (int question : round) {
+                picked[question]++;
+            }
+            first[round[0]]++;
+        }
+        double pickedChi = chiSquare(picked, (double) DRAWS * ROUND / bank.size());
+        double firstChi = chiSquare(first, (double) DRAWS / bank.size());
+        bench.report("%-30s %10s %10s", "chi-square, " + (bank.size() - 1) + " d.f.", "picked", "first");
+        bench.report("%-30s %10.1f %10.1f", DRAWS + " rounds of " + ROUND, pickedChi, firstChi);
+        bench.check(pickedChi < 150, "every question equally likely to be picked");
+        bench.check(firstChi < 150, "every question equally likely to come first");
+    }
+
+    private static void checkScoring(Bench bench, QuizBank bank) {
+        int[] all = new int[bank.size()];
+        int[] masks = new int[bank.size()];
+        boolean exact = true;
+        int expected = 0;
+        for (int q = 0; q < bank.size(); q++) {
+            int correct = bank.correctMask(q);
+            exact &= correct != 0 && bank.isCorrect(q, correct) && !bank.isCorrect(q, 0);
+            // One answer too many or too few is wrong, however many others are right
+            for (int i = 0; i < bank.answerCount(q); i++) {
+                exact &= !bank.isCorrect(q, correct ^ (1 << i));
+            }
+            all[q] = q;
+            masks[q] = q % 3 == 0 ? correct : correct ^ 1;
+            expected += q % 3 == 0 ? 1 : 0;
+        }
+        bench.check(exact, "only the exact set of correct answers scores");
+        bench.checkEquals(expected, bank.score(all, masks, all.length), "score counts exact matches");
+        int half = all.length / 2;
+        bench.checkEquals((half + 2) / 3, bank.score(all, masks, half), "score stops at count");
+
+        Random random = new Random(3);
+        int[] round = new int[ROUND];
+        int[] chosen = new int[ROUND];
+        for (int i = 0; i < 10_000; i++) {
+            playRound(bank, random, round, chosen);
+        }
+        long start = Bench.allocatedBytes();
+        for (int i = 0; i < 10_000; i++) {
+            playRound(bank, random, round, chosen);
+        }
+        double bytes = (Bench.allocatedBytes() - start) / 10_000.0;
+        bench.check(bytes < 1, "sampling and scoring a round allocates nothing (" + bytes + " bytes)");
+    }
+
+    private static int playRound(QuizBank bank, Random random, int[] round, int[] chosen) {
+        int found = bank.sample(QuizBank.ANY, QuizBank.MEDIUM, random, round);
+        for (int i = 0; i < found; i++) {
+            chosen[i] = bank.correctMask(round[i]);
+        }
+        return bank.score(round, chosen, found);
+    }
+
+    private static void compare(Bench bench, File index, File json, QuizBank bank) throws Exception {
+        Gson gson = new Gson();
+        bench.report("%-30s %14s %14s", "open the bank", "Gson JSON", "QuizBank");
+        bench.report("%-30s %14d %14d", "file bytes", json.length(), index.length());
+        double parse = Bench.nanosPerOp(50, 1, () -> Bench.blackhole = parse(gson, json));
+        double open = Bench.nanosPerOp(50, 1, () -> Bench.blackhole = QuizBank.open(index));
+        bench.report("%-30s %14.1f %14.1f", "time (us)", parse / 1000, open / 1000);
+        long parseAllocated = allocated(() -> Bench.blackhole = parse(gson, json));
+        long openAllocated = allocated(() -> Bench.blackhole = QuizBank.open(index));
+        bench.report("%-30s %14d %14d", "bytes allocated", parseAllocated, openAllocated);
+        long parseRetained = retained(() -> parse(gson, json));
+        long openRetained = retained(() -> QuizBank.open(index));
+        bench.report("%-30s %14d %14d", "heap retained", parseRetained, openRetained);
+        // The mapping is off the Java heap; what stays is the QuizBank and its buffer
+        bench.check(openRetained < 1024, "an open bank holds under 1 KB of heap");
+
+        Random random = new Random(4);
+        int[] round = new int[ROUND];
+        int[] chosen = new int[ROUND];
+        double play = Bench.nanosPerOp(200, 100, () -> {
+            for (int i = 0; i < 100; i++) {
+                Bench.blackhole = playRound(bank, random, round, chosen);
+            }
+        });
+        bench.report("%-30s %14s %14.1f", "sample and score a round (us)", "", play / 1000);
+    }
+
+    private static long allocated(Bench.Task task) throws Exception {
+        for (int i = 0; i < 20; i++) {
+            task.run();
+        }
+        long start = Bench.allocatedBytes();
+        task.run();
+        return Bench.allocatedBytes() - start;
+    }
+
+    interface Load {
+        Object load() throws Exception;
+    }
+
+    // Heap still in use with HELD loads held, per load, after collecting the rest
+    private static long retained(Load load) throws Exception {
+        Object[] held = new Object[HELD];
+        Bench.blackhole = null;
+        long before = usedAfterGc();
+        for (int i = 0; i < HELD; i++) {
+            held[i] = load.load();
+        }
+        long after = usedAfterGc();
+        Bench.blackhole = held;
+        return Math.max(0, after - before) / HELD;
+    }
+
+    private static long usedAfterGc() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static Question[] parse(Gson gson, File json) throws Exception {
+        try (Reader reader = new InputStreamReader(Files.newInputStream(json.toPath()), StandardCharsets.UTF_8)) {
+            return gson.fromJson(reader, Question[].class);
+        }
+    }
+
+    private static boolean inTopic(QuizBank bank, int question, int topic) {
+        if (topic == QuizBank.ANY) {
+            return true;
+        }
+        int[] members = new int[bank.size()];
+        int found = bank.sample(topic, QuizBank.ANY, new Random(0), members);
+        return set(members, found).contains(question);
+    }
+
+    private static int difficulty(String value) {
+        switch (value.toLowerCase(Locale.ROOT)) {
+            case "easy":
+                return QuizBank.EASY;
+            case "hard":
+                return QuizBank.HARD;
+            default:
+                return QuizBank.MEDIUM;
+        }
+    }
+
+    private static Set<Integer> set(int[] values, int count) {
+        Set<Integer> set = new HashSet<>();
+        for (int value : Arrays.copyOf(values, count)) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    private static double chiSquare(long[] observed, double expected) {
+        double chi = 0;
+        for (long count : observed) {
+            chi += (count - expected) * (count - expected) / expected;
+        }
+        return chi;
+    }
+
+    // linux_quiz_questions.json as a reflective Gson model reads it
+    private static final class Question {
+        int id;
+        String question;
+        String description;
+        Map<String, String> answers;
+        String multiple_correct_answers;
+        Map<String, String> correct_answers;
+        String explanation;
+        String tip;
+        List<Tag> tags;
+        String category;
+        String difficulty;
+    }
+
+    private static final class Tag {
+        String name;
+    }
+}
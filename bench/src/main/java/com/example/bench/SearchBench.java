@@ -0,0 +1,279 @@
+package com.example.bench;
+
+import com.example.mobilefrontend.SearchRanking;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+// SearchRanking, the part of search that needs no database: the MATCH expression
+// built from typed text, the score of a row from its matchinfo(search, 'pcnx') blob,
+// and the top-k selection over every match. The framework SQLite is not on the JVM,
+// so Fts4 stands in for the index: it tokenizes like unicode61 and lays out
+// matchinfo blobs the way FTS4 does. Then the per-keystroke cost of ranking while
+// typing over a synthetic corpus of guides and posts.
+final class SearchBench {
+    private static final int GUIDES = 2500;
+    private static final int POSTS = 2500;
+    private static final int LIMIT = 20;
+
+    private SearchBench() {
+    }
+
+    static void run(Bench bench) throws Exception {
+        checkMatchQuery(bench);
+        checkScore(bench);
+        checkTopK(bench);
+        Fts4 index = corpus();
+        checkRanking(bench, index);
+        typing(bench, index);
+    }
+
+    private static void checkMatchQuery(Bench bench) {
+        bench.checkEquals("chmod* perm*", SearchRanking.toMatchQuery("chmod perm"), "words become prefixes");
+        bench.checkEquals("chmod* r*", SearchRanking.toMatchQuery("  Chmod,  -R "), "punctuation splits and is dropped");
+        bench.checkEquals("ext4*", SearchRanking.toMatchQuery("ext4"), "digits are word characters");
+        bench.checkEquals("", SearchRanking.toMatchQuery(" \"*-: "), "nothing searchable");
+        bench.checkEquals("a* b* or* c*", SearchRanking.toMatchQuery("a\"b OR c"),
+                "quotes and operators do not reach FTS");
+        bench.checkEquals("istanbul*", SearchRanking.toMatchQuery("ISTANBUL"), "lower-cased without the locale");
+    }
+
+    private static void checkScore(Bench bench) {
+        double title = score(1000, hits(1, 0, 10, 100));
+        double body = score(1000, hits(0, 1, 10, 100));
+        bench.checkEquals(0.0, score(1000, hits(0, 0, 10, 100)), "no hits scores zero");
+        bench.check(title > 0 && body > 0, "a hit scores above zero");
+        bench.check(Math.abs(title / body - SearchRanking.TITLE_WEIGHT / SearchRanking.BODY_WEIGHT) < 1e-9,
+                "a title hit weighs TITLE_WEIGHT/BODY_WEIGHT of a body hit with the same idf");
+        double once = score(1000, hits(0, 1, 10, 100));
+        double often = score(1000, hits(0, 10, 10, 100));
+        bench.check(often > once && often < 10 * once, "repeats count but saturate");
+        bench.check(score(1000, hits(0, 1, 10, 5)) > score(1000, hits(0, 1, 10, 500)), "rarer terms score higher");
+        bench.check(Math.abs(score(1000, hits(1, 0, 10, 100), hits(0, 2, 10, 50))
+                - score(1000, hits(1, 0, 10, 100)) - score(1000, hits(0, 2, 10, 50))) < 1e-9,
+                "phrases add up");
+    }
+
+    private static void checkTopK(Bench bench) {
+        Random random = new Random(7);
+        for (int limit : new int[] {1, 5, 20, 100}) {
+            int offers = 3000;
+            SearchRanking.TopK top = new SearchRanking.TopK(limit);
+            long[][] all = new long[offers][];
+            for (int i = 0; i < offers; i++) {
+                // Few distinct scores, so ties are common
+                double score = random.nextInt(50) / 10.0;
+                long docId = random.nextInt(1_000_000);
+                top.offer(docId, score);
+                all[i] = new long[] {docId, Double.doubleToLongBits(score)};
+            }
+            Arrays.sort(all, (a, b) -> {
+                int byScore = Double.compare(Double.longBitsToDouble(b[1]), Double.longBitsToDouble(a[1]));
+                return byScore != 0 ? byScore : Long.compare(a[0], b[0]);
+            });
+            long[] expectedIds = new long[limit];
+            double[] expectedScores = new double[limit];
+            for (int i = 0; i < limit; i++) {
+                expectedIds[i] = all[i][0];
+                expectedScores[i] = Double.longBitsToDouble(all[i][1]);
+            }
+            bench.checkEquals(Arrays.toString(expectedIds), Arrays.toString(top.docIds()),
+                    "top " + limit + " ids, ties to the lower docid");
+            bench.checkEquals(Arrays.toString(expectedScores), Arrays.toString(top.scores()), "top " + limit + " scores");
+        }
+        SearchRanking.TopK few = new SearchRanking.TopK(10);
+        few.offer(3, 1.0);
+        few.offer(1, 2.0);
+        bench.checkEquals("[1, 3]", Arrays.toString(few.docIds()), "fewer matches than the limit, best first");
+        SearchRanking.TopK none = new SearchRanking.TopK(0);
+        none.offer(1, 1.0);
+        bench.checkEquals(0, none.docIds().length, "a zero limit keeps nothing");
+    }
+
+    // Every match is ranked: the top k equal the best k of a full sort of all scores.
+    private static void checkRanking(Bench bench, Fts4 index) {
+        for (String query : new String[] {"c", "chmod", "chmod perm", "systemd journal", "gr", "zzz"}) {
+            String match = SearchRanking.toMatchQuery(query);
+            List<byte[]> blobs = new ArrayList<>();
+            List<Integer> docIds = new ArrayList<>();
+            index.match(match, docIds, blobs);
+            SearchRanking.TopK top = new SearchRanking.TopK(LIMIT);
+            Integer[] order = new Integer[blobs.size()];
+            double[] scores = new double[blobs.size()];
+            for (int i = 0; i < blobs.size(); i++) {
+                scores[i] = SearchRanking.score(blobs.get(i));
+                top.offer(docIds.get(i), scores[i]);
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> scores[a] != scores[b] ? Double.compare(scores[b], scores[a])
+                    : Integer.compare(docIds.get(a), docIds.get(b)));
+            long[] expected = new long[Math.min(LIMIT, order.length)];
+            for (int i = 0; i < expected.length; i++) {
+                expected[i] = docIds.get(order[i]);
+            }
+            bench.checkEquals(Arrays.toString(expected), Arrays.toString(top.docIds()), "top results for '" + query + "'");
+        }
+
+        // A title match outranks the same word once in a body of similar length
+        String match = SearchRanking.toMatchQuery("chmod");
+        List<byte[]> blobs = new ArrayList<>();
+        List<Integer> docIds = new ArrayList<>();
+        index.match(match, docIds, blobs);
+        double bestTitleOnly = 0;
+        double bestBodyOnce = 0;
+        for (byte[] blob : blobs) {
+            ByteBuffer info = ByteBuffer.wrap(blob).order(ByteOrder.nativeOrder());
+            int titleHits = info.getInt(12);
+            int bodyHits = info.getInt(24);
+            double score = SearchRanking.score(blob);
+            if (titleHits == 1 && bodyHits == 0) {
+                bestTitleOnly = Math.max(bestTitleOnly, score);
+            } else if (titleHits == 0 && bodyHits == 1) {
+                bestBodyOnce = Math.max(bestBodyOnce, score);
+            }
+        }
+        bench.check(bestTitleOnly > bestBodyOnce, "title matches rank above a single body mention");
+    }
+
+    private static void typing(Bench bench, Fts4 index) throws Exception {
+        bench.report("%-24s %10s %12s  %s", "keystroke (" + (GUIDES + POSTS) + " docs)", "matches", "rank ms",
+                "best title");
+        for (String typed : new String[] {"chmod permissions", "systemd journal"}) {
+            String last = null;
+            for (int end = 1; end <= typed.length(); end++) {
+                String match = SearchRanking.toMatchQuery(typed.substring(0, end));
+                if (match.equals(last)) {
+                    continue;
+                }
+                last = match;
+                List<byte[]> blobs = new ArrayList<>();
+                List<Integer> docIds = new ArrayList<>();
+                index.match(match, docIds, blobs);
+                long[] best = new long[1];
+                double nanos = Bench.nanosPerOp(30, 1, () -> {
+                    SearchRanking.TopK top = new SearchRanking.TopK(LIMIT);
+                    for (int i = 0; i < blobs.size(); i++) {
+                        top.offer(docIds.get(i), SearchRanking.score(blobs.get(i)));
+                    }
+                    long[] ids = top.docIds();
+                    best[0] = ids.length == 0 ? -1 : ids[0];
+                });
+                bench.report("%-24s %10d %12.3f  %s", "'" + typed.substring(0, end) + "'", blobs.size(), nanos / 1e6,
+                        best[0] < 0 ? "-" : index.title((int) best[0]));
+            }
+        }
+    }
+
+    private static Fts4 corpus() {
+        Fts4 index = new Fts4();
+        for (Map<String, Object> row : Corpus.guides(GUIDES, 11, false)) {
+            index.add((String) row.get("title"), (String) row.get("description"));
+        }
+        for (Map<String, Object> row : Corpus.posts(POSTS, 12, false)) {
+            index.add((String) row.get("title"), (String) row.get("content"));
+        }
+        return index;
+    }
+
+    private static double score(int rows, int[]... phrases) {
+        return SearchRanking.score(Fts4.matchinfo(rows, phrases));
+    }
+
+    // {title hits in this row, body hits in this row, hits in all rows, rows with a hit},
+    // with the all-rows counts the same for both columns
+    private static int[] hits(int titleHits, int bodyHits, int allHits, int rowsWithHit) {
+        return new int[] {titleHits, allHits, rowsWithHit, bodyHits, allHits, rowsWithHit};
+    }
+
+    // An in-memory stand-in for the search table: title and body columns tokenized as
+    // unicode61 does for ASCII text, prefix queries where every term must match in
+    // either column, and matchinfo 'pcnx' blobs in native byte order.
+    static final class Fts4 {
+        private final List<String> titles = new ArrayList<>();
+        private final List<String[][]> tokens = new ArrayList<>();
+
+        void add(String title, String body) {
+            titles.add(title);
+            tokens.add(new String[][] {tokenize(title), tokenize(body)});
+        }
+
+        String title(int docId) {
+            return titles.get(docId);
+        }
+
+        // Appends the docid and matchinfo blob of every row matching the expression
+        // toMatchQuery built, in docid order as the scan returns them.
+        void match(String match, List<Integer> docIds, List<byte[]> blobs) {
+            if (match.isEmpty()) {
+                return;
+            }
+            String[] prefixes = match.replace("*", "").split(" ");
+            int rows = tokens.size();
+            int[][][] hits = new int[prefixes.length][rows][2];
+            int[][] allHits = new int[prefixes.length][2];
+            int[][] rowsWithHit = new int[prefixes.length][2];
+            for (int p = 0; p < prefixes.length; p++) {
+                for (int row = 0; row < rows; row++) {
+                    for (int column = 0; column < 2; column++) {
+                        int count = 0;
+                        for (String token : tokens.get(row)[column]) {
+                            if (token.startsWith(prefixes[p])) {
+                                count++;
+                            }
+                        }
+                        hits[p][row][column] = count;
+                        allHits[p][column] += count;
+                        rowsWithHit[p][column] += count > 0 ? 1 : 0;
+                    }
+                }
+            }
+            for (int row = 0; row < rows; row++) {
+                boolean all = true;
+                int[][] phrases = new int[prefixes.length][];
+                for (int p = 0; p < prefixes.length && all; p++) {
+                    all = hits[p][row][0] + hits[p][row][1] > 0;
+                    phrases[p] = new int[] {hits[p][row][0], allHits[p][0], rowsWithHit[p][0],
+                        hits[p][row][1], allHits[p][1], rowsWithHit[p][1]};
+                }
+                if (all) {
+                    docIds.add(row);
+                    blobs.add(matchinfo(rows, phrases));
+                }
+            }
+        }
+
+        static byte[] matchinfo(int rows, int[]... phrases) {
+            ByteBuffer blob = ByteBuffer.allocate(4 * (3 + 6 * phrases.length)).order(ByteOrder.nativeOrder());
+            blob.putInt(phrases.length).putInt(2).putInt(rows);
+            for (int[] phrase : phrases) {
+                for (int value : phrase) {
+                    blob.putInt(value);
+                }
+            }
+            return blob.array();
+        }
+
+        private static String[] tokenize(String text) {
+            List<String> words = new ArrayList<>();
+            int i = 0;
+            while (i < text.length()) {
+                while (i < text.length() && !Character.isLetterOrDigit(text.charAt(i))) {
+                    i++;
+                }
+                int start = i;
+                while (i < text.length() && Character.isLetterOrDigit(text.charAt(i))) {
+                    i++;
+                }
+                if (i > start) {
+                    words.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+            }
+            return words.toArray(new String[0]);
+        }
+    }
+}
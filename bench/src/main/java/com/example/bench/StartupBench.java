@@ -0,0 +1,183 @@
+package com.example.bench;
+
+import com.example.mobilefrontend.ApiClient;
+import com.example.mobilefrontend.Guide;
+import com.example.mobilefrontend.JsonCodec;
+import com.example.mobilefrontend.MessagePackCodec;
+import com.example.mobilefrontend.MessagePackReader;
+import com.example.mobilefrontend.ResponseCache;
+import com.example.mobilefrontend.Transport;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+// The launch-path pieces that run on the JVM, each in a fresh JVM so class loading
+// and first-use setup are counted as they are on a cold start. Reading a page from
+// the store interns values through JsonCodec and must not build Gson; then the time
+// from having the first page's bytes to having its guides, through reflection as
+// the fragments used to, JsonCodec, MessagePack, and ApiClient end to end. Markwon,
+// WorkManager and the dispatcher's lazy ApiClient need Android and are not covered.
+final class StartupBench {
+    private static final int PAGE = 20;
+    private static final int LAUNCHES = 10;
+
+    private StartupBench() {
+    }
+
+    static void run(Bench bench) throws Exception {
+        File dir = Files.createTempDirectory("startup").toFile();
+        List<?> page = Corpus.guides(PAGE, 1, true);
+        Files.write(new File(dir, "page.json").toPath(), Corpus.json(page));
+        Files.write(new File(dir, "page.msgpack").toPath(), MessagePackWriter.encode(page));
+
+        List<String> loaded = launch(dir, "intern", "-Xlog:class+load=info");
+        bench.checkEquals("[]", gsonClasses(loaded).toString(), "interning loads no Gson class");
+        loaded = launch(dir, "codec", "-Xlog:class+load=info");
+        bench.check(!gsonClasses(loaded).isEmpty(), "the first decode does load Gson");
+
+        bench.report("%-30s %14s", "first page, cold (" + LAUNCHES + " JVMs)", "median us");
+        for (String scenario : new String[] {"reflection", "codec", "msgpack", "apiclient"}) {
+            long[] micros = new long[LAUNCHES];
+            for (int i = 0; i < LAUNCHES; i++) {
+                String result = launch(dir, scenario).get(0);
+                String[] fields = result.split(" ");
+                bench.checkEquals("rows=" + PAGE, fields[0], scenario + " decodes the page");
+                micros[i] = Long.parseLong(fields[1].substring("micros=".length()));
+            }
+            Arrays.sort(micros);
+            bench.report("%-30s %14d", scenario, micros[LAUNCHES / 2]);
+        }
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    private static List<String> gsonClasses(List<String> log) {
+        List<String> classes = new ArrayList<>();
+        for (String line : log) {
+            if (line.contains("[class,load] com.google.gson.") || line.contains("JsonCodec$GsonHolder")) {
+                classes.add(line.substring(line.indexOf("[class,load] ") + 13).split(" ")[0]);
+            }
+        }
+        return classes;
+    }
+
+    private static List<String> launch(File dir, String scenario, String... jvmOptions) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.addAll(Arrays.asList(jvmOptions));
+        command.addAll(Arrays.asList("-XX:+UseSerialGC", "-cp", System.getProperty("java.class.path"),
+                StartupBench.class.getName(), dir.getPath(), scenario));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        List<String> lines = new ArrayList<>();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                StandardCharsets.UTF_8))) {
+            for (String line = out.readLine(); line != null; line = out.readLine()) {
+                lines.add(line);
+            }
+        }
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(scenario + " failed: " + lines);
+        }
+        return lines;
+    }
+
+    // The launched JVM: one scenario, then its result on the first line.
+    public static void main(String[] args) throws Exception {
+        File dir = new File(args[0]);
+        String scenario = args[1];
+        if (scenario.equals("intern")) {
+            // What LocalStore does for each row of a page it reads
+            JsonCodec.intern("published");
+            JsonCodec.intern("user7");
+            return;
+        }
+        byte[] json = Files.readAllBytes(new File(dir, "page.json").toPath());
+        byte[] packed = Files.readAllBytes(new File(dir, "page.msgpack").toPath());
+        long start = System.nanoTime();
+        List<Guide> guides;
+        switch (scenario) {
+            case "reflection":
+                guides = new Gson().fromJson(reader(json), guideList());
+                break;
+            case "codec":
+                guides = JsonCodec.gson().fromJson(reader(json), guideList());
+                break;
+            case "msgpack":
+                guides = new ArrayList<>();
+                MessagePackReader reader = new MessagePackReader(new ByteArrayInputStream(packed));
+                for (int remaining = reader.readArrayHeader(); remaining > 0; remaining--) {
+                    guides.add(MessagePackCodec.GUIDE.read(reader));
+                }
+                break;
+            case "apiclient":
+                guides = new ArrayList<>();
+                new ApiClient(new ResponseCache(null), new PageTransport(packed), "http://stand-in")
+                        .streamGuideSummariesUpdatedSince(null, guides::addAll);
+                break;
+            default:
+                throw new IllegalArgumentException(scenario);
+        }
+        long micros = (System.nanoTime() - start) / 1000;
+        System.out.println("rows=" + guides.size() + " micros=" + micros);
+    }
+
+    // Not a constant: the class must load without touching Gson
+    private static Type guideList() {
+        return new TypeToken<List<Guide>>() {
+        }.getType();
+    }
+
+    private static InputStreamReader reader(byte[] json) {
+        return new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8);
+    }
+
+    // Serves the first page as MessagePack, as the backend does for the app's Accept.
+    private static final class PageTransport implements Transport {
+        private final byte[] page;
+
+        PageTransport(byte[] page) {
+            this.page = page;
+        }
+
+        @Override
+        public Response get(String url, Map<String, String> headers) {
+            return new Response() {
+                @Override
+                public int getCode() {
+                    return 200;
+                }
+
+                @Override
+                public String getHeader(String name) {
+                    return "Content-Type".equalsIgnoreCase(name) ? MessagePackCodec.CONTENT_TYPE : null;
+                }
+
+                @Override
+                public InputStream getBody() {
+                    return new ByteArrayInputStream(page);
+                }
+
+                @Override
+                public void abort() {
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,410 @@
+package com.example.bench;
+
+import com.example.mobilefrontend.ApiClient;
+import com.example.mobilefrontend.Guide;
+import com.example.mobilefrontend.MessagePackCodec;
+import com.example.mobilefrontend.MessagePackReader;
+import com.example.mobilefrontend.Metrics;
+import com.example.mobilefrontend.Post;
+import com.example.mobilefrontend.ResponseCache;
+import com.example.mobilefrontend.Transport;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
+
+// MessagePack list bodies: the hand-written decoders against the rows they were
+// encoded from, including the value shapes the backend's encoder picks for long
+// strings, big maps and keys the app skips; ApiClient's Accept negotiation and JSON
+// fallback over a stand-in transport, its conditional GETs replaying the cached body
+// on 304 from memory and from disk, and its split of a read into transfer and parse
+// time; then payload size and decode time against
+// the Gson TypeToken<List<Guide>> path the fragments used before.
+final class WireFormatBench {
+    private static final int ROWS = 200;
+    private static final Type GUIDE_LIST = new TypeToken<List<Guide>>() {
+    }.getType();
+    private static final Type POST_LIST = new TypeToken<List<Post>>() {
+    }.getType();
+
+    private WireFormatBench() {
+    }
+
+    static void run(Bench bench) throws Exception {
+        checkDecoding(bench);
+        checkValueShapes(bench);
+        checkLengths(bench);
+        checkNegotiation(bench);
+        checkRevalidation(bench);
+        checkTimings(bench);
+        compare(bench);
+    }
+
+    private static void checkDecoding(Bench bench) throws IOException {
+        for (boolean summary : new boolean[] {false, true}) {
+            List<Map<String, Object>> guides = Corpus.guides(ROWS, 1, summary);
+            List<Guide> decodedGuides = unpack(MessagePackWriter.encode(guides), MessagePackCodec.GUIDE);
+            bench.checkEquals(ROWS, decodedGuides.size(), "guides decoded");
+            for (int i = 0; i < guides.size(); i++) {
+                checkGuide(bench, guides.get(i), decodedGuides.get(i), "msgpack guide " + i);
+            }
+            List<Map<String, Object>> posts = Corpus.posts(ROWS, 2, summary);
+            List<Post> decodedPosts = unpack(MessagePackWriter.encode(posts), MessagePackCodec.POST);
+            bench.checkEquals(ROWS, decodedPosts.size(), "posts decoded");
+            for (int i = 0; i < posts.size(); i++) {
+                checkPost(bench, posts.get(i), decodedPosts.get(i), "msgpack post " + i);
+            }
+        }
+    }
+
+    // One row exercising every header width the encoder emits and every kind of
+    // value the decoder has to skip. Its 16 keys make the row itself a map16.
+    private static void checkValueShapes(Bench bench) throws IOException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 70000);
+        row.put("title", "Überblick — ñ 日本 " + repeat("x", 300));
+        row.put("description", repeat("long body ", 7000));
+        row.put("summary", null);
+        row.put("status", "draft");
+        row.put("level", null);
+        row.put("userId", 200);
+        row.put("score", -3);
+        row.put("offset", -100000);
+        row.put("big", 1L << 40);
+        row.put("ratio", 0.5);
+        row.put("featured", true);
+        List<Object> tags = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Map<String, Object> tag = new LinkedHashMap<>();
+            tag.put("id", i);
+            tag.put("name", "tag" + i);
+            tags.add(tag);
+        }
+        row.put("tags", tags);
+        Map<String, Object> meta = new LinkedHashMap<>();
+        for (int i = 0; i < 20; i++) {
+            meta.put("k" + i, i % 2 == 0 ? null : repeat("v", 40 * i));
+        }
+        row.put("meta", meta);
+        row.put("updatedAt", "2024-05-01T10:00:00.000Z");
+        row.put("User", null);
+        bench.checkEquals(16, row.size(), "edge row is a map16");
+
+        Map<String, Object> boundary = new LinkedHashMap<>();
+        boundary.put("id", 127);
+        boundary.put("title", repeat("t", 255));
+        boundary.put("summary", repeat("s", 256));
+        boundary.put("User", new LinkedHashMap<>(Map.of("username", "root", "role", "admin")));
+
+        List<Guide> decoded = unpack(MessagePackWriter.encode(Arrays.asList(row, boundary)), MessagePackCodec.GUIDE);
+        bench.checkEquals(2, decoded.size(), "edge rows decoded");
+        checkGuide(bench, row, decoded.get(0), "edge row");
+        checkGuide(bench, boundary, decoded.get(1), "str8/str16 boundary row");
+    }
+
+    // uint32 lengths of 2^31 and up do not fit an int and must not reach a buffer size
+    // or a loop bound.
+    private static void checkLengths(Bench bench) {
+        String[][] cases = {
+            {"array32", "dd80000000"},
+            {"map32", "df80000000"},
+            {"str32", "dbffffffff"},
+            {"skipped bin32", "81a178c680000000"},
+            {"skipped array32", "81a178ddffffffff"},
+            {"skipped map32", "81a178df80000000"},
+        };
+        for (String[] c : cases) {
+            MessagePackReader reader = new MessagePackReader(new ByteArrayInputStream(hex(c[1])));
+            try {
+                if (c[0].startsWith("skipped")) {
+                    MessagePackCodec.GUIDE.read(reader);
+                } else if (c[0].startsWith("array")) {
+                    reader.readArrayHeader();
+                } else if (c[0].startsWith("map")) {
+                    reader.readMapHeader();
+                } else {
+                    reader.readString();
+                }
+                bench.check(false, c[0] + " of 2^31 or more is rejected");
+            } catch (IOException e) {
+                bench.check(e.getMessage().contains("too large"), c[0] + " is rejected: " + e.getMessage());
+            }
+        }
+    }
+
+    private static byte[] hex(String hex) {
+        byte[] bytes = new byte[hex.length() / 2];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+        }
+        return bytes;
+    }
+
+    private static void checkNegotiation(Bench bench) throws Exception {
+        List<Map<String, Object>> rows = Corpus.guides(45, 3, true);
+
+        StandIn binaryServer = new StandIn(rows, true);
+        List<Guide> guides = stream(new ApiClient(new ResponseCache(null), binaryServer, "http://stand-in"));
+        bench.check(binaryServer.accept.startsWith(MessagePackCodec.CONTENT_TYPE), "Accept prefers MessagePack: "
+                + binaryServer.accept);
+        bench.check(binaryServer.sentBinary, "server that has it answers MessagePack");
+        bench.checkEquals(rows.size(), guides.size(), "guides over MessagePack");
+        for (int i = 0; i < rows.size(); i++) {
+            checkGuide(bench, rows.get(i), guides.get(i), "negotiated guide " + i);
+        }
+
+        StandIn jsonServer = new StandIn(rows, false);
+        guides = stream(new ApiClient(new ResponseCache(null), jsonServer, "http://stand-in"));
+        bench.check(!jsonServer.sentBinary, "server without it answers JSON");
+        bench.checkEquals(rows.size(), guides.size(), "guides over the JSON fallback");
+        for (int i = 0; i < rows.size(); i++) {
+            checkGuide(bench, rows.get(i), guides.get(i), "fallback guide " + i);
+        }
+
+        StandIn optedOut = new StandIn(rows, true);
+        ApiClient client = new ApiClient(new ResponseCache(null), optedOut, "http://stand-in");
+        client.setPreferBinary(false);
+        bench.checkEquals(rows.size(), stream(client).size(), "guides with binary turned off");
+        bench.check(!optedOut.accept.contains(MessagePackCodec.CONTENT_TYPE), "no MessagePack in Accept when off");
+    }
+
+    // Every sync is sent to the server; only the body is saved when nothing changed.
+    private static void checkRevalidation(Bench bench) throws Exception {
+        List<Map<String, Object>> rows = Corpus.guides(45, 4, true);
+        StandIn server = new StandIn(rows, true);
+        File dir = Files.createTempDirectory("api").toFile();
+        ResponseCache cache = new ResponseCache(dir);
+        ApiClient client = new ApiClient(cache, server, "http://stand-in");
+
+        bench.checkEquals(rows.size(), stream(client).size(), "first sync fetches the list");
+        bench.check(server.ifNoneMatch == null, "first sync is unconditional");
+        List<Guide> guides = stream(client);
+        bench.checkEquals(2, server.requests, "a repeated sync still reaches the server");
+        bench.checkEquals(server.etag(), server.ifNoneMatch, "a repeated sync sends the ETag");
+        bench.checkEquals(1, cache.getRevalidationCount(), "the server answers 304");
+        checkGuides(bench, rows, guides, "replayed from memory");
+
+        ResponseCache reopened = new ResponseCache(dir);
+        guides = stream(new ApiClient(reopened, server, "http://stand-in"));
+        bench.checkEquals(3, server.requests, "a new process asks the server too");
+        bench.checkEquals(1, reopened.getRevalidationCount(), "with the stored ETag");
+        checkGuides(bench, rows, guides, "replayed from disk");
+
+        List<Map<String, Object>> changed = Corpus.guides(46, 5, true);
+        server.rows = changed;
+        guides = stream(client);
+        bench.checkEquals(1, cache.getRevalidationCount(), "a changed list is not a 304");
+        checkGuides(bench, changed, guides, "changed list");
+        guides = stream(new ApiClient(new ResponseCache(dir), server, "http://stand-in"));
+        checkGuides(bench, changed, guides, "disk copy replaced by the changed list");
+
+        for (File file : dir.listFiles()) {
+            file.delete();
+        }
+        dir.delete();
+    }
+
+    // A body that stalls mid-list, inside some item's decode, shows up as transfer time
+    // and not as parse time.
+    private static void checkTimings(Bench bench) throws Exception {
+        for (boolean binary : new boolean[] {true, false}) {
+            StandIn server = new StandIn(Corpus.guides(100, 6, true), binary);
+            server.readDelayMs = 40;
+            Metrics.DOWNLOAD.reset();
+            Metrics.PARSE.reset();
+            stream(new ApiClient(new ResponseCache(null), server, "http://stand-in"));
+            String what = binary ? "msgpack" : "json";
+            bench.checkEquals(1L, Metrics.DOWNLOAD.getCount(), what + " list records one transfer");
+            bench.check(Metrics.DOWNLOAD.percentileMicros(100) >= 32_768, what + " transfer holds the wait: "
+                    + Metrics.DOWNLOAD);
+            bench.checkEquals(100L, Metrics.PARSE.getCount(), what + " list records a parse per item");
+            bench.check(Metrics.PARSE.percentileMicros(100) < 32_768, what + " parse leaves the wait out: "
+                    + Metrics.PARSE);
+        }
+    }
+
+    private static void checkGuides(Bench bench, List<Map<String, Object>> rows, List<Guide> guides, String what) {
+        bench.checkEquals(rows.size(), guides.size(), what);
+        for (int i = 0; i < Math.min(rows.size(), guides.size()); i++) {
+            checkGuide(bench, rows.get(i), guides.get(i), what + " guide " + i);
+        }
+    }
+
+    private static List<Guide> stream(ApiClient client) throws Exception {
+        List<Guide> guides = new ArrayList<>();
+        client.streamGuideSummariesUpdatedSince(null, guides::addAll);
+        return guides;
+    }
+
+    private static void compare(Bench bench) throws Exception {
+        bench.report("%-22s %9s %9s %9s %9s", "payload, " + ROWS + " rows", "json", "msgpack", "json.gz", "msgpack.gz");
+        Object[][] cases = {
+            {"guides", Corpus.guides(ROWS, 1, false), GUIDE_LIST, MessagePackCodec.GUIDE},
+            {"guides ?view=summary", Corpus.guides(ROWS, 1, true), GUIDE_LIST, MessagePackCodec.GUIDE},
+            {"posts", Corpus.posts(ROWS, 2, false), POST_LIST, MessagePackCodec.POST},
+            {"posts ?view=summary", Corpus.posts(ROWS, 2, true), POST_LIST, MessagePackCodec.POST},
+        };
+        for (Object[] c : cases) {
+            byte[] json = Corpus.json(c[1]);
+            byte[] packed = MessagePackWriter.encode(c[1]);
+            bench.report("%-22s %9d %9d %9d %9d", c[0], json.length, packed.length, gzip(json).length,
+                    gzip(packed).length);
+            bench.check(packed.length < json.length, c[0] + " is smaller as MessagePack");
+        }
+
+        bench.report("%-22s %12s %12s %8s", "decode a list", "Gson us", "msgpack us", "speedup");
+        for (Object[] c : cases) {
+            byte[] json = Corpus.json(c[1]);
+            byte[] packed = MessagePackWriter.encode(c[1]);
+            Type type = (Type) c[2];
+            MessagePackCodec.ItemReader<?> reader = (MessagePackCodec.ItemReader<?>) c[3];
+            double gson = Bench.nanosPerOp(200, 1, () -> Bench.blackhole = new Gson().fromJson(
+                    new InputStreamReader(new ByteArrayInputStream(json), StandardCharsets.UTF_8), type));
+            double msgpack = Bench.nanosPerOp(200, 1, () -> Bench.blackhole = unpack(packed, reader));
+            bench.report("%-22s %12.1f %12.1f %7.1fx", c[0], gson / 1000, msgpack / 1000, gson / msgpack);
+        }
+    }
+
+    static <T> List<T> unpack(byte[] body, MessagePackCodec.ItemReader<T> reader) throws IOException {
+        MessagePackReader packed = new MessagePackReader(new ByteArrayInputStream(body));
+        List<T> items = new ArrayList<>();
+        for (int remaining = packed.readArrayHeader(); remaining > 0; remaining--) {
+            items.add(reader.read(packed));
+        }
+        return items;
+    }
+
+    static void checkGuide(Bench bench, Map<String, Object> row, Guide guide, String what) {
+        bench.checkEquals(row.get("id"), guide.getId(), what + " id");
+        bench.checkEquals(row.get("title"), guide.getTitle(), what + " title");
+        bench.checkEquals(row.get("description"), guide.getDescription(), what + " description");
+        bench.checkEquals(row.get("summary"), guide.getSummary(), what + " summary");
+        bench.checkEquals(row.get("status"), guide.getStatus(), what + " status");
+        bench.checkEquals(row.get("level"), guide.getLevel(), what + " level");
+        bench.checkEquals(Objects.requireNonNullElse(row.get("userId"), 0), guide.getUserId(), what + " userId");
+        bench.checkEquals(username(row), guide.getUsername(), what + " username");
+        bench.checkEquals(row.get("updatedAt"), guide.getUpdatedAt(), what + " updatedAt");
+    }
+
+    static void checkPost(Bench bench, Map<String, Object> row, Post post, String what) {
+        bench.checkEquals(row.get("id"), post.getId(), what + " id");
+        bench.checkEquals(row.get("title"), post.getTitle(), what + " title");
+        bench.checkEquals(row.get("content"), post.getContent(), what + " content");
+        bench.checkEquals(row.get("summary"), post.getSummary(), what + " summary");
+        bench.checkEquals(row.get("userId"), post.getUserId(), what + " userId");
+        bench.checkEquals(username(row), post.getUsername(), what + " username");
+        bench.checkEquals(row.get("updatedAt"), post.getUpdatedAt(), what + " updatedAt");
+    }
+
+    private static Object username(Map<String, Object> row) {
+        Object user = row.get("User");
+        return user == null ? null : ((Map<?, ?>) user).get("username");
+    }
+
+    private static String repeat(String text, int times) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            repeated.append(text);
+        }
+        return repeated.toString();
+    }
+
+    static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    // Answers every GET with the rows, as MessagePack when it supports that and the
+    // client's Accept asks for it first, as the backend's sendList does.
+    // Answers 304 when If-None-Match carries the current rows' ETag, as the backend's
+    // compression middleware does.
+    private static final class StandIn implements Transport {
+        private final boolean supportsBinary;
+        List<Map<String, Object>> rows;
+        String accept;
+        String ifNoneMatch;
+        boolean sentBinary;
+        int requests;
+        // The body's second read blocks this long, as a slow network would mid-list
+        int readDelayMs;
+
+        StandIn(List<Map<String, Object>> rows, boolean supportsBinary) {
+            this.rows = rows;
+            this.supportsBinary = supportsBinary;
+        }
+
+        @Override
+        public Response get(String url, Map<String, String> headers) {
+            requests++;
+            accept = headers.get("Accept");
+            ifNoneMatch = headers.get("If-None-Match");
+            sentBinary = supportsBinary && accept != null && accept.startsWith(MessagePackCodec.CONTENT_TYPE);
+            boolean notModified = etag().equals(ifNoneMatch);
+            byte[] body = notModified ? new byte[0] : sentBinary ? MessagePackWriter.encode(rows) : Corpus.json(rows);
+            String contentType = sentBinary ? MessagePackCodec.CONTENT_TYPE : "application/json; charset=utf-8";
+            String etag = etag();
+            return new Response() {
+                @Override
+                public int getCode() {
+                    return notModified ? 304 : 200;
+                }
+
+                @Override
+                public String getHeader(String name) {
+                    if ("ETag".equalsIgnoreCase(name)) {
+                        return etag;
+                    }
+                    return "Content-Type".equalsIgnoreCase(name) ? contentType : null;
+                }
+
+                @Override
+                public InputStream getBody() {
+                    return new ByteArrayInputStream(body) {
+                        private int reads;
+
+                        @Override
+                        public synchronized int read(byte[] buffer, int offset, int length) {
+                            if (++reads == 2 && readDelayMs > 0) {
+                                try {
+                                    Thread.sleep(readDelayMs);
+                                } catch (InterruptedException e) {
+                                    Thread.currentThread().interrupt();
+                                }
+                            }
+                            return super.read(buffer, offset, length);
+                        }
+                    };
+                }
+
+                @Override
+                public void abort() {
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        }
+
+        String etag() {
+            return "W/\"" + Integer.toHexString(rows.hashCode()) + "\"";
+        }
+    }
+}
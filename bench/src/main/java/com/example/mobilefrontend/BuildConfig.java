@@ -0,0 +1,11 @@
+package com.example.mobilefrontend;
+
+// Stands in for the class the Android build generates, so the app's plain-Java code
+// compiles on the JVM. Release values: AppLog drops debug output.
+public final class BuildConfig {
+    public static final boolean DEBUG = false;
+    public static final int VERSION_CODE = 0;
+
+    private BuildConfig() {
+    }
+}
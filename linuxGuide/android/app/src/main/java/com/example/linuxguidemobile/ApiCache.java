@@ -0,0 +1,359 @@
+package com.example.linuxguidemobile;
+
+import android.content.Context;
+import android.util.Log;
+import android.util.LruCache;
+import android.webkit.WebResourceResponse;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.zip.GZIPInputStream;
+
+// Native cache for the backend GETs the web layer makes for guides, posts and
+// comments. A copy younger than FRESH_MS is served as is. One up to MAX_STALE_MS old
+// is served at once and revalidated in the background with a conditional GET
+// (stale-while-revalidate). Anything older or missing is fetched while the WebView
+// waits on its own IO thread, and when the network fails any copy there is is
+// served instead. Copies sit in a memory LRU over a disk LRU, both bounded in bytes.
+// None of these routes vary by user, so the key is the URL alone; a write through
+// the WebView drops every cached copy under the same top-level path.
+public class ApiCache {
+    private static final String TAG = "ApiCache";
+    static final String[] CACHED_ROOTS = {"guides", "posts", "comments"};
+    private static final long FRESH_MS = 30 * 1000;
+    private static final long MAX_STALE_MS = 24 * 60 * 60 * 1000;
+    private static final int MEMORY_BYTES = 2 * 1024 * 1024;
+    private static final long DISK_BYTES = 16 * 1024 * 1024;
+    private static final int CONNECT_TIMEOUT_MS = 10 * 1000;
+    private static final int READ_TIMEOUT_MS = 15 * 1000;
+
+    private static ApiCache instance;
+
+    private static class Entry {
+        final String url;
+        final int status;
+        final String contentType;
+        final String etag;
+        final String lastModified;
+        final long storedAt;
+        final byte[] body;
+
+        Entry(String url, int status, String contentType, String etag, String lastModified, long storedAt,
+              byte[] body) {
+            this.url = url;
+            this.status = status;
+            this.contentType = contentType;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.storedAt = storedAt;
+            this.body = body;
+        }
+
+        Entry touched(long now) {
+            return new Entry(url, status, contentType, etag, lastModified, now, body);
+        }
+    }
+
+    private final File dir;
+    private final Object diskLock = new Object();
+    private final LruCache<String, Entry> memory = new LruCache<String, Entry>(MEMORY_BYTES) {
+        @Override
+        protected int sizeOf(String url, Entry entry) {
+            return entry.body.length + 256;
+        }
+    };
+    // One network fetch per URL at a time, shared by preloads, revalidations and the WebView
+    private final Map<String, Future<Entry>> inFlight = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private ApiCache(Context context) {
+        dir = new File(context.getCacheDir(), "web-api");
+    }
+
+    public static synchronized ApiCache getInstance(Context context) {
+        if (instance == null) {
+            instance = new ApiCache(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // path is the URL path without the origin.
+    public static boolean isCached(String path) {
+        return Arrays.asList(CACHED_ROOTS).contains(root(path));
+    }
+
+    // "guides" for "/guides/12?x=y"
+    private static String root(String path) {
+        int start = path.startsWith("/") ? 1 : 0;
+        int end = start;
+        while (end < path.length() && path.charAt(end) != '/' && path.charAt(end) != '?') {
+            end++;
+        }
+        return path.substring(start, end);
+    }
+
+    // For a cold start: fetches url unless a fresh copy is already held, without
+    // anyone waiting on it. A request for it meanwhile joins the fetch.
+    public void preload(String url) {
+        Entry entry = lookup(url);
+        if (entry == null || System.currentTimeMillis() - entry.storedAt >= FRESH_MS) {
+            fetch(url, entry);
+        }
+    }
+
+    // Blocks on a miss; call from the WebView's IO thread only. null lets the request
+    // go to the network as usual, which is only left for when there is no copy and
+    // the fetch here failed too.
+    public WebResourceResponse get(String url) {
+        Entry entry = lookup(url);
+        long age = entry == null ? Long.MAX_VALUE : System.currentTimeMillis() - entry.storedAt;
+        if (age < FRESH_MS) {
+            return respond(entry);
+        }
+        Future<Entry> fetch = fetch(url, entry);
+        if (age < MAX_STALE_MS) {
+            return respond(entry);
+        }
+        try {
+            return respond(fetch.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Log.w(TAG, "Fetch failed for " + url + ": " + e.getCause());
+        }
+        return entry != null ? respond(entry) : null;
+    }
+
+    // A POST, PUT, PATCH or DELETE went to path; whatever was cached under its root
+    // may now be wrong.
+    public void invalidate(String path) {
+        String root = root(path);
+        for (String url : memory.snapshot().keySet()) {
+            if (root.equals(root(pathOf(url)))) {
+                memory.remove(url);
+            }
+        }
+        synchronized (diskLock) {
+            File[] files = dir.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    if (file.getName().startsWith(root + "-")) {
+                        file.delete();
+                    }
+                }
+            }
+        }
+    }
+
+    private Future<Entry> fetch(String url, Entry cached) {
+        FutureTask<Entry> task = new FutureTask<>(() -> fetchNow(url, cached));
+        Future<Entry> running = inFlight.putIfAbsent(url, task);
+        if (running != null) {
+            return running;
+        }
+        executor.execute(() -> {
+            try {
+                task.run();
+            } finally {
+                inFlight.remove(url, task);
+            }
+        });
+        return task;
+    }
+
+    private Entry fetchNow(String url, Entry cached) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            conn.setConnectTimeout(CONNECT_TIMEOUT_MS);
+            conn.setReadTimeout(READ_TIMEOUT_MS);
+            conn.setRequestProperty("Accept", "application/json");
+            conn.setRequestProperty("Accept-Encoding", "gzip");
+            if (cached != null && cached.etag != null) {
+                conn.setRequestProperty("If-None-Match", cached.etag);
+            }
+            if (cached != null && cached.lastModified != null) {
+                conn.setRequestProperty("If-Modified-Since", cached.lastModified);
+            }
+            int status = conn.getResponseCode();
+            long now = System.currentTimeMillis();
+            if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+                Entry refreshed = cached.touched(now);
+                store(refreshed);
+                return refreshed;
+            }
+            InputStream raw = status >= 400 ? conn.getErrorStream() : conn.getInputStream();
+            byte[] body = new byte[0];
+            if (raw != null) {
+                try (InputStream in = "gzip".equalsIgnoreCase(conn.getHeaderField("Content-Encoding"))
+                        ? new GZIPInputStream(raw) : raw) {
+                    body = AssetStore.readAll(in);
+                }
+            }
+            Entry entry = new Entry(url, status, conn.getContentType(), conn.getHeaderField("ETag"),
+                    conn.getHeaderField("Last-Modified"), now, body);
+            if (status == HttpURLConnection.HTTP_OK) {
+                store(entry);
+            } else {
+                // The server's answer stands; a 404 means the copy is of something deleted
+                remove(url);
+            }
+            return entry;
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    // The backend allows any origin; the WebView still checks, as for a network response.
+    private static WebResourceResponse respond(Entry entry) {
+        String type = entry.contentType != null ? entry.contentType : "application/json";
+        String charset = null;
+        int semicolon = type.indexOf(';');
+        if (semicolon >= 0) {
+            int at = type.indexOf("charset=", semicolon);
+            if (at >= 0) {
+                charset = type.substring(at + 8).trim();
+            }
+            type = type.substring(0, semicolon).trim();
+        }
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Access-Control-Allow-Origin", "*");
+        headers.put("Cache-Control", "no-store");
+        boolean ok = entry.status >= 200 && entry.status < 300;
+        return new WebResourceResponse(type, charset, entry.status, ok ? "OK" : "Error", headers,
+                new ByteArrayInputStream(entry.body));
+    }
+
+    private Entry lookup(String url) {
+        Entry entry = memory.get(url);
+        if (entry != null) {
+            return entry;
+        }
+        synchronized (diskLock) {
+            File file = fileFor(url);
+            if (!file.exists()) {
+                return null;
+            }
+            try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+                entry = new Entry(in.readUTF(), in.readInt(), emptyToNull(in.readUTF()), emptyToNull(in.readUTF()),
+                        emptyToNull(in.readUTF()), in.readLong(), new byte[in.readInt()]);
+                in.readFully(entry.body);
+            } catch (IOException e) {
+                file.delete();
+                return null;
+            }
+            // Disk eviction goes by modification time, so a read counts as a use
+            file.setLastModified(System.currentTimeMillis());
+        }
+        if (!entry.url.equals(url)) {
+            return null;
+        }
+        memory.put(url, entry);
+        return entry;
+    }
+
+    private void store(Entry entry) {
+        memory.put(entry.url, entry);
+        synchronized (diskLock) {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                return;
+            }
+            File file = fileFor(entry.url);
+            File tmp = new File(dir, file.getName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new FileOutputStream(tmp))) {
+                out.writeUTF(entry.url);
+                out.writeInt(entry.status);
+                out.writeUTF(nullToEmpty(entry.contentType));
+                out.writeUTF(nullToEmpty(entry.etag));
+                out.writeUTF(nullToEmpty(entry.lastModified));
+                out.writeLong(entry.storedAt);
+                out.writeInt(entry.body.length);
+                out.write(entry.body);
+            } catch (IOException e) {
+                Log.w(TAG, "Could not write " + entry.url + ": " + e.getMessage());
+                tmp.delete();
+                return;
+            }
+            if (!tmp.renameTo(file)) {
+                tmp.delete();
+                return;
+            }
+            trimDisk();
+        }
+    }
+
+    private void remove(String url) {
+        memory.remove(url);
+        synchronized (diskLock) {
+            fileFor(url).delete();
+        }
+    }
+
+    // Least recently used first, until the directory is back under DISK_BYTES.
+    private void trimDisk() {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        long total = 0;
+        for (File file : files) {
+            total += file.length();
+        }
+        if (total <= DISK_BYTES) {
+            return;
+        }
+        Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+        for (File file : files) {
+            if (total <= DISK_BYTES) {
+                break;
+            }
+            total -= file.length();
+            file.delete();
+        }
+    }
+
+    // Named "<root>-<sha1 of url>", so invalidate() can find a root's files by name.
+    private File fileFor(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(url.getBytes("UTF-8"));
+            StringBuilder name = new StringBuilder(root(pathOf(url))).append('-');
+            for (byte b : digest) {
+                name.append(String.format("%02x", b));
+            }
+            return new File(dir, name.toString());
+        } catch (NoSuchAlgorithmException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String pathOf(String url) {
+        int scheme = url.indexOf("://");
+        int slash = url.indexOf('/', scheme < 0 ? 0 : scheme + 3);
+        return slash < 0 ? "/" : url.substring(slash);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
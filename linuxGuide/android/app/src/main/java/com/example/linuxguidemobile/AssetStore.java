@@ -0,0 +1,186 @@
+package com.example.linuxguidemobile;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.util.Log;
+import android.util.LruCache;
+import android.webkit.WebResourceResponse;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+// Files of the web bundle, served from the store scripts/precompress-assets.mjs
+// writes into the build: public/_store holds each distinct file once, named by its
+// content hash and gzipped where that makes it smaller, plus a manifest from URL
+// path to stored file. The build ships only the HTML besides the store, so every
+// path the manifest lists must be answered from here; Capacitor has nothing else to
+// serve. WebView ignores Content-Encoding on intercepted responses, so gzipped files
+// are inflated here. Files up to MAX_MEMORY_FILE are kept inflated in memory; the
+// ones index.html loads are read in while the WebView starts.
+public class AssetStore {
+    private static final String TAG = "AssetStore";
+    private static final String STORE_DIR = "public/_store/";
+    private static final int MEMORY_BYTES = 6 * 1024 * 1024;
+    private static final int MAX_MEMORY_FILE = 512 * 1024;
+
+    private static AssetStore instance;
+
+    private static class Entry {
+        final String file;
+        final String type;
+        final int size;
+        final boolean critical;
+
+        Entry(String file, String type, int size, boolean critical) {
+            this.file = file;
+            this.type = type;
+            this.size = size;
+            this.critical = critical;
+        }
+    }
+
+    private final AssetManager assets;
+    private final AtomicBoolean loading = new AtomicBoolean();
+    private final CountDownLatch loaded = new CountDownLatch(1);
+    private volatile Map<String, Entry> entries = Collections.emptyMap();
+    // Keyed by stored file, so paths with the same content share one copy
+    private final LruCache<String, byte[]> memory = new LruCache<String, byte[]>(MEMORY_BYTES) {
+        @Override
+        protected int sizeOf(String file, byte[] bytes) {
+            return bytes.length;
+        }
+    };
+
+    private AssetStore(Context context) {
+        assets = context.getAssets();
+    }
+
+    public static synchronized AssetStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new AssetStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // Reads the manifest and then the files every start needs, once per process. Run
+    // off the main thread, before the WebView makes its first request: open() waits
+    // for the manifest.
+    public void load() {
+        if (!loading.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            try (InputStream in = assets.open(STORE_DIR + "manifest.json")) {
+                JSONObject json = new JSONObject(new String(readAll(in), StandardCharsets.UTF_8));
+                Map<String, Entry> map = new HashMap<>();
+                for (Iterator<String> paths = json.keys(); paths.hasNext(); ) {
+                    String path = paths.next();
+                    JSONObject entry = json.getJSONObject(path);
+                    map.put(path, new Entry(entry.getString("file"), entry.getString("type"), entry.getInt("size"),
+                            entry.optBoolean("critical")));
+                }
+                entries = map;
+            } finally {
+                loaded.countDown();
+            }
+        } catch (FileNotFoundException e) {
+            // A shell built from a plain web build, whose files Capacitor serves
+            Log.w(TAG, "No asset store: " + e.getMessage());
+            return;
+        } catch (IOException | JSONException e) {
+            // Nothing says which paths were stored, so they are left to Capacitor and 404
+            Log.e(TAG, "Unreadable asset manifest", e);
+            return;
+        }
+        List<Entry> critical = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.critical) {
+                critical.add(entry);
+            }
+        }
+        for (Entry entry : critical) {
+            try {
+                bytes(entry);
+            } catch (IOException e) {
+                Log.w(TAG, "Could not preload " + entry.file + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // null when path is not in the store, which leaves it to Capacitor. HTML never is:
+    // Capacitor injects its bridge script into it. A stored path is always answered
+    // here, after waiting for the manifest if it is still loading, and with a 500 when
+    // its file cannot be read. Called on the WebView's IO threads.
+    public WebResourceResponse open(String path) {
+        try {
+            loaded.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(503, "Service Unavailable", "Interrupted waiting for the asset manifest");
+        }
+        Entry entry = entries.get(path);
+        if (entry == null) {
+            return null;
+        }
+        try {
+            InputStream body = entry.size <= MAX_MEMORY_FILE
+                    ? new ByteArrayInputStream(bytes(entry))
+                    : stream(entry);
+            boolean text = entry.type.startsWith("text/") || entry.type.endsWith("json")
+                    || entry.type.endsWith("javascript") || entry.type.endsWith("xml");
+            Map<String, String> headers = new HashMap<>();
+            headers.put("Content-Length", Integer.toString(entry.size));
+            return new WebResourceResponse(entry.type, text ? "utf-8" : null, 200, "OK", headers, body);
+        } catch (IOException e) {
+            Log.e(TAG, "Could not open " + entry.file + " for " + path, e);
+            return error(500, "Internal Server Error", "Could not read " + path + ": " + e.getMessage());
+        }
+    }
+
+    private static WebResourceResponse error(int status, String reason, String message) {
+        return new WebResourceResponse("text/plain", "utf-8", status, reason, new HashMap<>(),
+                new ByteArrayInputStream(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private byte[] bytes(Entry entry) throws IOException {
+        byte[] bytes = memory.get(entry.file);
+        if (bytes == null) {
+            try (InputStream in = stream(entry)) {
+                bytes = readAll(in);
+            }
+            if (bytes.length <= MAX_MEMORY_FILE) {
+                memory.put(entry.file, bytes);
+            }
+        }
+        return bytes;
+    }
+
+    private InputStream stream(Entry entry) throws IOException {
+        InputStream in = assets.open(STORE_DIR + entry.file, AssetManager.ACCESS_STREAMING);
+        return entry.file.endsWith(".gz") ? new GZIPInputStream(in, 16 * 1024) : in;
+    }
+
+    static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[16 * 1024];
+        int n;
+        while ((n = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
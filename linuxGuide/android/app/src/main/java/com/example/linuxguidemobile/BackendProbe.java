@@ -0,0 +1,108 @@
+package com.example.linuxguidemobile;
+
+import android.webkit.WebResourceResponse;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// The web layer picks its backend by sending HEAD to each of CANDIDATES in turn
+// (getBaseUrl() in src/services/api.tsx), and nothing loads until one answers; on a
+// phone, where the emulator address never does, that is a whole connect timeout
+// before the first screen. Here all of them are tried at once as the activity
+// starts. The WebView's probes are then answered from those results, and critical
+// data is preloaded from the first reachable one in the web layer's order.
+public class BackendProbe {
+    // Same order as getBaseUrl()
+    static final List<String> CANDIDATES = Arrays.asList(
+            "http://10.0.2.2:8000", "http://192.168.254.7:8000", "http://localhost:8000");
+    private static final int TIMEOUT_MS = 5000;
+
+    private static BackendProbe instance;
+
+    private final Map<String, Future<Boolean>> results = new HashMap<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CANDIDATES.size());
+
+    public static synchronized BackendProbe getInstance() {
+        if (instance == null) {
+            instance = new BackendProbe();
+        }
+        return instance;
+    }
+
+    public static boolean isCandidate(String origin) {
+        return CANDIDATES.contains(origin);
+    }
+
+    // Probes every candidate once per process; later calls are no-ops.
+    public synchronized void start() {
+        if (!results.isEmpty()) {
+            return;
+        }
+        for (String origin : CANDIDATES) {
+            results.put(origin, executor.submit(() -> reachable(origin)));
+        }
+    }
+
+    // An answer to the web layer's own HEAD probe of origin, which only looks at
+    // whether the status is 2xx.
+    public WebResourceResponse answer(String origin) {
+        boolean up = isReachable(origin);
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Access-Control-Allow-Origin", "*");
+        return new WebResourceResponse("text/plain", null, up ? 200 : 503, up ? "OK" : "Service Unavailable",
+                headers, new ByteArrayInputStream(new byte[0]));
+    }
+
+    // The origin the web layer will settle on, or null when none answers. Blocks.
+    public String firstReachable() {
+        for (String origin : CANDIDATES) {
+            if (isReachable(origin)) {
+                return origin;
+            }
+        }
+        return null;
+    }
+
+    private boolean isReachable(String origin) {
+        Future<Boolean> result;
+        synchronized (this) {
+            start();
+            result = results.get(origin);
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean reachable(String origin) {
+        HttpURLConnection conn = null;
+        try {
+            conn = (HttpURLConnection) new URL(origin + "/").openConnection();
+            conn.setRequestMethod("HEAD");
+            conn.setConnectTimeout(TIMEOUT_MS);
+            conn.setReadTimeout(TIMEOUT_MS);
+            int code = conn.getResponseCode();
+            return code >= 200 && code < 300;
+        } catch (IOException e) {
+            return false;
+        } finally {
+            if (conn != null) {
+                conn.disconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.linuxguidemobile;
+
+import android.net.Uri;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+import android.webkit.WebView;
+import com.getcapacitor.Bridge;
+import com.getcapacitor.BridgeWebViewClient;
+
+// Puts the native stores in front of the WebView's requests: bundle files come from
+// the AssetStore, backend probes from BackendProbe and backend reads through the
+// ApiCache. Everything else, HTML included, goes to Capacitor as before. Called on
+// the WebView's IO threads, so blocking here does not hold up the UI.
+public class CachingWebViewClient extends BridgeWebViewClient {
+    private final String localHost;
+    private final AssetStore assets;
+    private final ApiCache api;
+    private final BackendProbe probe;
+
+    public CachingWebViewClient(Bridge bridge, AssetStore assets, ApiCache api, BackendProbe probe) {
+        super(bridge);
+        this.localHost = Uri.parse(bridge.getLocalUrl()).getHost();
+        this.assets = assets;
+        this.api = api;
+        this.probe = probe;
+    }
+
+    @Override
+    public WebResourceResponse shouldInterceptRequest(WebView view, WebResourceRequest request) {
+        Uri url = request.getUrl();
+        String method = request.getMethod();
+        String path = url.getPath() != null && !url.getPath().isEmpty() ? url.getPath() : "/";
+        String origin = url.getScheme() + "://" + url.getAuthority();
+        WebResourceResponse response = null;
+        if (localHost != null && localHost.equals(url.getHost())) {
+            if ("GET".equals(method)) {
+                response = assets.open(path);
+            }
+        } else if (BackendProbe.isCandidate(origin)) {
+            if ("HEAD".equals(method) && "/".equals(path)) {
+                response = probe.answer(origin);
+            } else if (ApiCache.isCached(path)) {
+                if ("GET".equals(method)) {
+                    response = api.get(url.toString());
+                } else if (!"OPTIONS".equals(method)) {
+                    api.invalidate(path);
+                }
+            }
+        }
+        return response != null ? response : super.shouldInterceptRequest(view, request);
+    }
+}
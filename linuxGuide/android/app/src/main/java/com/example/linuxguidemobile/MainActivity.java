@@ -1,5 +1,30 @@
 package com.example.linuxguidemobile;
 
+import android.os.Bundle;
 import com.getcapacitor.BridgeActivity;
 
-public class MainActivity extends BridgeActivity {}
+public class MainActivity extends BridgeActivity {
+    // What the first screen (Home) loads
+    private static final String[] CRITICAL_PATHS = {"/guides", "/posts"};
+
+    @Override
+    public void onCreate(Bundle savedInstanceState) {
+        AssetStore assets = AssetStore.getInstance(this);
+        ApiCache api = ApiCache.getInstance(this);
+        BackendProbe probe = BackendProbe.getInstance();
+        // Started before the WebView is created, so the asset manifest, the bundle's
+        // entry files and the first screen's data all load while it initializes
+        probe.start();
+        new Thread(assets::load, "asset-store").start();
+        new Thread(() -> {
+            String origin = probe.firstReachable();
+            if (origin != null) {
+                for (String path : CRITICAL_PATHS) {
+                    api.preload(origin + path);
+                }
+            }
+        }, "preload").start();
+        super.onCreate(savedInstanceState);
+        bridge.setWebViewClient(new CachingWebViewClient(bridge, assets, api, probe));
+    }
+}
@@ -3,7 +3,8 @@ import type { CapacitorConfig } from "@capacitor/cli";
 const config: CapacitorConfig = {
   appId: "com.example.linuxguidemobile",
   appName: "MobileLinuxGuide",
-  webDir: "dist",
+  // The web build packed by scripts/precompress-assets.mjs; dist stays the web deploy
+  webDir: "dist-android",
   android: {},
 };
 
@@ -0,0 +1,117 @@
+// Packs the built web bundle into a content-addressed store for the Android shell,
+// in a directory of its own so the web build stays deployable. Every file except
+// the HTML (Capacitor injects its bridge into that) is renamed to a hash of its
+// contents, gzipped when that makes it smaller, and listed in _store/manifest.json
+// by the URL path it lives at. The native side serves every listed path from the
+// store, so only the HTML is copied as is, keeping the APK small.
+//
+// Usage: node scripts/precompress-assets.mjs [distDir] [outDir]
+import { createHash } from "node:crypto";
+import { existsSync, mkdirSync, readdirSync, readFileSync, rmSync, statSync, writeFileSync } from "node:fs";
+import { dirname, extname, join, relative, resolve, sep } from "node:path";
+import { gzipSync } from "node:zlib";
+
+const dist = process.argv[2] ?? "dist";
+const out = process.argv[3] ?? "dist-android";
+const store = join(out, "_store");
+
+const TYPES = {
+  ".js": "text/javascript",
+  ".mjs": "text/javascript",
+  ".css": "text/css",
+  ".json": "application/json",
+  ".map": "application/json",
+  ".webmanifest": "application/manifest+json",
+  ".svg": "image/svg+xml",
+  ".txt": "text/plain",
+  ".xml": "application/xml",
+  ".png": "image/png",
+  ".jpg": "image/jpeg",
+  ".jpeg": "image/jpeg",
+  ".gif": "image/gif",
+  ".webp": "image/webp",
+  ".ico": "image/x-icon",
+  ".woff": "font/woff",
+  ".woff2": "font/woff2",
+  ".ttf": "font/ttf",
+  ".wasm": "application/wasm",
+};
+const COMPRESSIBLE = new Set([".js", ".mjs", ".css", ".json", ".map", ".webmanifest", ".svg", ".txt", ".xml"]);
+// The service worker only gets in the way inside the shell, where every asset is
+// already local, so it is neither stored nor registered.
+const SERVICE_WORKER = /^(sw\.js|registerSW\.js|workbox-[\w-]+\.js)(\.map)?$/;
+
+function walk(dir) {
+  const files = [];
+  for (const name of readdirSync(dir)) {
+    const path = join(dir, name);
+    if (statSync(path).isDirectory()) {
+      files.push(...walk(path));
+    } else {
+      files.push(path);
+    }
+  }
+  return files;
+}
+
+if (!existsSync(join(dist, "index.html"))) {
+  console.error(`No index.html in ${dist}; run the web build first`);
+  process.exit(1);
+}
+
+if (resolve(out) === resolve(dist)) {
+  console.error(`The store must go to a directory of its own, not ${dist}`);
+  process.exit(1);
+}
+
+rmSync(out, { recursive: true, force: true });
+mkdirSync(store, { recursive: true });
+
+const index = readFileSync(join(dist, "index.html"), "utf8")
+  .replace(/\s*<script[^>]*registerSW\.js[^>]*><\/script>/g, "");
+const critical = new Set([...index.matchAll(/(?:src|href)="(\/[^"?#]+)/g)].map((match) => match[1]));
+
+const manifest = {};
+const written = new Set();
+let before = 0;
+let after = 0;
+for (const file of walk(dist)) {
+  const ext = extname(file).toLowerCase();
+  const name = file.slice(file.lastIndexOf(sep) + 1);
+  const path = "/" + relative(dist, file).split(sep).join("/");
+  if (ext === ".html") {
+    const target = join(out, relative(dist, file));
+    mkdirSync(dirname(target), { recursive: true });
+    writeFileSync(target, path === "/index.html" ? index : readFileSync(file));
+    continue;
+  }
+  if (SERVICE_WORKER.test(name)) continue;
+  const data = readFileSync(file);
+  const hash = createHash("sha256").update(data).digest("hex").slice(0, 16);
+  let stored = hash;
+  let bytes = data;
+  if (COMPRESSIBLE.has(ext)) {
+    const gzipped = gzipSync(data, { level: 9 });
+    if (gzipped.length < data.length) {
+      stored = hash + ".gz";
+      bytes = gzipped;
+    }
+  }
+  // Identical files share one stored copy
+  if (!written.has(stored)) {
+    writeFileSync(join(store, stored), bytes);
+    written.add(stored);
+    after += bytes.length;
+  }
+  before += data.length;
+  manifest[path] = {
+    file: stored,
+    type: TYPES[ext] ?? "application/octet-stream",
+    size: data.length,
+    critical: critical.has(path),
+  };
+}
+
+writeFileSync(join(store, "manifest.json"), JSON.stringify(manifest));
+console.log(`Stored ${Object.keys(manifest).length} files in ${written.size} objects: ` +
+  `${(before / 1024).toFixed(1)} KiB -> ${(after / 1024).toFixed(1)} KiB`);
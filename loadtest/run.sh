@@ -0,0 +1,20 @@
+#!/bin/sh
+# Compiles the load test together with the app's networking classes and runs it.
+# Needs JDK 21+ (virtual threads) and the Gson jar the app uses:
+#   GSON_JAR=/path/to/gson.jar loadtest/run.sh --clients=100 --duration=60s
+set -e
+here=$(cd "$(dirname "$0")" && pwd)
+app="$here/../mobilefrontend/app/src/main/java/com/example/mobilefrontend"
+out="$here/build/classes"
+: "${GSON_JAR:?set GSON_JAR to the gson jar}"
+
+rm -rf "$out" && mkdir -p "$out"
+# Only the plain-Java part of the app: the API client, its transport and cache,
+# the codecs and models, and the logging and metrics they report through
+javac -encoding UTF-8 -d "$out" -cp "$GSON_JAR" \
+    "$app/ApiClient.java" "$app/Transport.java" "$app/UrlConnectionTransport.java" "$app/ResponseCache.java" \
+    "$app/JsonCodec.java" "$app/MessagePackCodec.java" "$app/MessagePackReader.java" \
+    "$app/EventStream.java" "$app/LiveEvent.java" "$app/Guide.java" "$app/Post.java" "$app/Comment.java" \
+    "$app/AppLog.java" "$app/Metrics.java" "$app/Histogram.java" \
+    $(find "$here/src/main/java" -name '*.java')
+exec java -cp "$out:$GSON_JAR" com.example.loadtest.LoadTest "$@"
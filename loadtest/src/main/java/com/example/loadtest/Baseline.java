@@ -0,0 +1,83 @@
+package com.example.loadtest;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+
+// A run's per-endpoint results saved as a properties file, and the comparison of a
+// later run against it. Latency counts as regressed past the tolerance only when it
+// also grew by more than a millisecond, so fast endpoints do not flap on noise.
+public class Baseline {
+    private static final long NOISE_MICROS = 1000;
+    private static final double ERROR_RATE_SLACK = 0.01;
+
+    private final Properties values = new Properties();
+
+    public static Baseline load(File file) throws IOException {
+        Baseline baseline = new Baseline();
+        try (InputStream in = new FileInputStream(file)) {
+            baseline.values.load(in);
+        }
+        return baseline;
+    }
+
+    public static void save(File file, List<LoadTest.Result> results) throws IOException {
+        Properties values = new Properties();
+        for (LoadTest.Result result : results) {
+            values.setProperty(result.name + ".rps", String.format(Locale.ROOT, "%.2f", result.rps));
+            values.setProperty(result.name + ".errorRate", String.format(Locale.ROOT, "%.4f",
+                    result.errorRate()));
+            values.setProperty(result.name + ".p50", Long.toString(result.p50));
+            values.setProperty(result.name + ".p99", Long.toString(result.p99));
+            values.setProperty(result.name + ".p999", Long.toString(result.p999));
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            values.store(out, "load test baseline; latencies in microseconds");
+        }
+    }
+
+    // One line per regression; empty when the run is at least as good as the baseline.
+    public List<String> compare(List<LoadTest.Result> results, double tolerance) {
+        List<String> regressions = new ArrayList<>();
+        for (LoadTest.Result result : results) {
+            String rps = values.getProperty(result.name + ".rps");
+            if (rps == null) {
+                continue;
+            }
+            double baseRps = Double.parseDouble(rps);
+            if (result.rps < baseRps * (1 - tolerance)) {
+                regressions.add(String.format(Locale.ROOT, "%s throughput %.1f/s, baseline %.1f/s",
+                        result.name, result.rps, baseRps));
+            }
+            double baseErrors = Double.parseDouble(values.getProperty(result.name + ".errorRate", "0"));
+            if (result.errorRate() > baseErrors + ERROR_RATE_SLACK) {
+                regressions.add(String.format(Locale.ROOT, "%s error rate %.2f%%, baseline %.2f%%",
+                        result.name, result.errorRate() * 100, baseErrors * 100));
+            }
+            checkLatency(regressions, result.name, "p50", result.p50, tolerance);
+            checkLatency(regressions, result.name, "p99", result.p99, tolerance);
+            checkLatency(regressions, result.name, "p999", result.p999, tolerance);
+        }
+        return regressions;
+    }
+
+    private void checkLatency(List<String> regressions, String name, String percentile, long micros,
+                              double tolerance) {
+        String value = values.getProperty(name + "." + percentile);
+        if (value == null) {
+            return;
+        }
+        long base = Long.parseLong(value);
+        if (micros > base * (1 + tolerance) && micros - base > NOISE_MICROS) {
+            regressions.add(String.format(Locale.ROOT, "%s %s %.1f ms, baseline %.1f ms",
+                    name, percentile, micros / 1000.0, base / 1000.0));
+        }
+    }
+}
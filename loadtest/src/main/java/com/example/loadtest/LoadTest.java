@@ -0,0 +1,435 @@
+package com.example.loadtest;
+
+import com.example.mobilefrontend.ApiClient;
+import com.example.mobilefrontend.AppLog;
+import com.example.mobilefrontend.EventStream;
+import com.example.mobilefrontend.Guide;
+import com.example.mobilefrontend.LiveEvent;
+import com.example.mobilefrontend.Metrics;
+import com.example.mobilefrontend.ResponseCache;
+import com.example.mobilefrontend.UrlConnectionTransport;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Replays the app's read traffic against the backend: every virtual client is its own
+// ApiClient, as each device is, and loops over a weighted mix of the list, detail and
+// for-you requests the app makes. Reports throughput and p50/p99/p999 per endpoint,
+// optionally every interval for soak runs, and compares the run against a saved
+// baseline. Exits 1 when something regressed. --listeners holds that many /events
+// streams open alongside; against the stand-in, which also makes the edits, the
+// time from an edit going out to each listener reading it is reported as "events".
+//
+//   loadtest/run.sh --clients=200 --duration=2m                   # against the built-in stand-in
+//   loadtest/run.sh --base-url=http://localhost:8000 --duration=1h --report-every=60
+//   loadtest/run.sh ... --save-baseline=base.properties
+//   loadtest/run.sh ... --baseline=base.properties --tolerance=0.1
+//   loadtest/run.sh --listeners=500 --mock-edits-per-sec=20
+public class LoadTest {
+    public enum Endpoint {
+        // Lists go out with view=summary, as SyncManager sends them
+        GUIDES("guides", "GET /guides?view=summary"),
+        POSTS("posts", "GET /posts?view=summary"),
+        GUIDE("guide", "GET /guides/:id"),
+        FOR_YOU("foryou", "GET /guides/for-you");
+
+        final String key;
+        final String label;
+
+        Endpoint(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    public static class Result {
+        final String name;
+        final long count;
+        final long errors;
+        final double rps;
+        final long p50;
+        final long p99;
+        final long p999;
+        final long max;
+
+        Result(String name, LatencyHistogram histogram, long errors, double seconds) {
+            this.name = name;
+            this.count = histogram.count();
+            this.errors = errors;
+            this.rps = seconds > 0 ? count / seconds : 0;
+            this.p50 = histogram.percentileMicros(0.50);
+            this.p99 = histogram.percentileMicros(0.99);
+            this.p999 = histogram.percentileMicros(0.999);
+            this.max = histogram.maxMicros();
+        }
+
+        double errorRate() {
+            long attempts = count + errors;
+            return attempts == 0 ? 0 : errors / (double) attempts;
+        }
+    }
+
+    // Whole-run numbers plus the current reporting interval's
+    private static class Stats {
+        final LatencyHistogram total = new LatencyHistogram();
+        final AtomicReference<LatencyHistogram> window = new AtomicReference<>(new LatencyHistogram());
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong windowErrors = new AtomicLong();
+
+        void record(long nanos) {
+            total.record(nanos);
+            window.get().record(nanos);
+        }
+
+        void fail() {
+            errors.incrementAndGet();
+            windowErrors.incrementAndGet();
+        }
+    }
+
+    private final Map<String, String> options;
+    private final Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, Integer> mix = new EnumMap<>(Endpoint.class);
+    private final Stats events = new Stats();
+    private final Set<EventStream> openStreams = ConcurrentHashMap.newKeySet();
+    private final AtomicLong eventsRead = new AtomicLong();
+    private MockBackend mock;
+    private int mixTotal;
+    private String baseUrl;
+    private int[] guideIds = new int[0];
+    private int firstUserId;
+    private int lastUserId;
+    private volatile long recordFrom;
+    private volatile long endAt;
+
+    private LoadTest(Map<String, String> options) {
+        this.options = options;
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new Stats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                System.err.println("Unexpected argument " + arg);
+                System.exit(2);
+            }
+            int equals = arg.indexOf('=');
+            options.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals),
+                    equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+        System.exit(new LoadTest(options).run());
+    }
+
+    private int run() throws Exception {
+        AppLog.setLevel(AppLog.ERROR);
+        int clients = Integer.parseInt(option("clients", "50"));
+        int listeners = Integer.parseInt(option("listeners", "0"));
+        long durationNanos = parseDuration(option("duration", "60s"));
+        long warmupNanos = parseDuration(option("warmup", "10s"));
+        long reportEveryNanos = parseDuration(option("report-every", "0"));
+        long thinkMs = Long.parseLong(option("think-ms", "0"));
+        parseMix(option("mix", "guides:30,posts:20,guide:40,foryou:10"));
+        String[] users = option("user-ids", "1-50").split("-");
+        firstUserId = Integer.parseInt(users[0]);
+        lastUserId = Integer.parseInt(users[users.length - 1]);
+
+        baseUrl = options.get("base-url");
+        if (baseUrl == null) {
+            mock = new MockBackend(0, Integer.parseInt(option("mock-guides", "500")),
+                    Integer.parseInt(option("mock-posts", "500")), Long.parseLong(option("mock-delay-ms", "0")),
+                    listeners > 0 ? Double.parseDouble(option("mock-edits-per-sec", "10")) : 0);
+            mock.start();
+            baseUrl = mock.baseUrl();
+        }
+        // UrlConnectionTransport caps the JVM-wide keep-alive pool at what one device
+        // needs when it loads; here that pool is shared by every client
+        new UrlConnectionTransport();
+        System.setProperty("http.maxConnections", String.valueOf(clients + listeners));
+        loadGuideIds();
+
+        System.out.printf(Locale.ROOT, "%d clients against %s for %ds after %ds warmup%n", clients, baseUrl,
+                TimeUnit.NANOSECONDS.toSeconds(durationNanos), TimeUnit.NANOSECONDS.toSeconds(warmupNanos));
+        long start = System.nanoTime();
+        recordFrom = start + warmupNanos;
+        endAt = recordFrom + durationNanos;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.submit(() -> runClient(thinkMs));
+            }
+            for (int i = 0; i < listeners; i++) {
+                executor.submit(this::runListener);
+            }
+            sleepUntil(recordFrom);
+            Metrics.reset();
+            long windowStart = recordFrom;
+            while (System.nanoTime() < endAt) {
+                long next = reportEveryNanos > 0 ? Math.min(windowStart + reportEveryNanos, endAt) : endAt;
+                sleepUntil(next);
+                if (reportEveryNanos > 0) {
+                    printWindow((System.nanoTime() - windowStart) / 1e9);
+                    windowStart = System.nanoTime();
+                }
+            }
+            // Listeners block in a read until the next event or heartbeat
+            for (EventStream stream : openStreams) {
+                stream.close();
+            }
+        } finally {
+            if (mock != null) {
+                mock.stop();
+            }
+        }
+
+        double seconds = durationNanos / 1e9;
+        List<Result> results = new ArrayList<>();
+        LatencyHistogram all = new LatencyHistogram();
+        long allErrors = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            Stats endpointStats = stats.get(endpoint);
+            if (mix.containsKey(endpoint)) {
+                results.add(new Result(endpoint.key, endpointStats.total, endpointStats.errors.get(), seconds));
+                all.add(endpointStats.total);
+                allErrors += endpointStats.errors.get();
+            }
+        }
+        results.add(new Result("all", all, allErrors, seconds));
+        if (listeners > 0 && mock != null) {
+            results.add(new Result("events", events.total, events.errors.get(), seconds));
+        }
+        printResults(results);
+        if (listeners > 0) {
+            System.out.printf(Locale.ROOT, "%d events read by %d listeners, %d streams dropped%n",
+                    eventsRead.get(), listeners, events.errors.get());
+        }
+        System.out.println();
+        System.out.print(Metrics.report());
+
+        if (options.containsKey("save-baseline")) {
+            Baseline.save(new File(options.get("save-baseline")), results);
+            System.out.println("Saved baseline to " + options.get("save-baseline"));
+        }
+        if (options.containsKey("baseline")) {
+            List<String> regressions = Baseline.load(new File(options.get("baseline")))
+                    .compare(results, Double.parseDouble(option("tolerance", "0.1")));
+            if (!regressions.isEmpty()) {
+                System.out.println();
+                System.out.println("REGRESSED against " + options.get("baseline") + ":");
+                for (String regression : regressions) {
+                    System.out.println("  " + regression);
+                }
+                return 1;
+            }
+            System.out.println("No regressions against " + options.get("baseline"));
+        }
+        return 0;
+    }
+
+    private void runClient(long thinkMs) {
+        // Each client has its own ApiClient and memory cache, as each device does, so a
+        // repeated list or for-you read is a conditional GET as it is in the app.
+        ApiClient apiClient = new ApiClient(new ResponseCache(null), new UrlConnectionTransport(), baseUrl);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < endAt) {
+            Endpoint endpoint = pick(random);
+            long start = System.nanoTime();
+            boolean ok;
+            try {
+                ok = call(apiClient, endpoint, random);
+            } catch (Exception e) {
+                ok = false;
+            }
+            long end = System.nanoTime();
+            if (start >= recordFrom && end <= endAt) {
+                if (ok) {
+                    stats.get(endpoint).record(end - start);
+                } else {
+                    stats.get(endpoint).fail();
+                }
+            }
+            if (thinkMs > 0) {
+                try {
+                    Thread.sleep(thinkMs);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // One device following the change feed, reconnecting from where it was like
+    // LiveUpdates does, but without backoff.
+    private void runListener() {
+        ApiClient apiClient = new ApiClient(new ResponseCache(null, 1), new UrlConnectionTransport(), baseUrl);
+        String lastEventId = null;
+        while (System.nanoTime() < endAt) {
+            EventStream stream = null;
+            try {
+                stream = apiClient.openEvents(lastEventId);
+                openStreams.add(stream);
+                LiveEvent event;
+                while ((event = stream.next()) != null) {
+                    long received = System.nanoTime();
+                    eventsRead.incrementAndGet();
+                    long published = mock != null ? mock.publishedNanos(stream.getLastEventId()) : 0;
+                    if (published != 0 && published >= recordFrom && received <= endAt
+                            && !LiveEvent.RESYNC.equals(event.getKind())) {
+                        events.record(received - published);
+                    }
+                }
+            } catch (Exception e) {
+                long now = System.nanoTime();
+                if (now >= recordFrom && now < endAt) {
+                    events.fail();
+                }
+            } finally {
+                if (stream != null) {
+                    lastEventId = stream.getLastEventId();
+                    openStreams.remove(stream);
+                    stream.close();
+                }
+            }
+        }
+    }
+
+    private boolean call(ApiClient apiClient, Endpoint endpoint, ThreadLocalRandom random) throws Exception {
+        switch (endpoint) {
+            case GUIDES:
+                apiClient.streamGuideSummariesUpdatedSince(null, batch -> {
+                });
+                return true;
+            case POSTS:
+                apiClient.streamPostSummariesUpdatedSince(null, batch -> {
+                });
+                return true;
+            case GUIDE:
+                return apiClient.fetchGuide(guideIds[random.nextInt(guideIds.length)]) != null;
+            default:
+                apiClient.streamGuidesForYou(random.nextInt(firstUserId, lastUserId + 1), batch -> {
+                });
+                return true;
+        }
+    }
+
+    // /guides/:id is only exercised with ids that exist
+    private void loadGuideIds() throws Exception {
+        if (!mix.containsKey(Endpoint.GUIDE)) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>();
+        new ApiClient(new ResponseCache(null, 1), new UrlConnectionTransport(), baseUrl)
+                .streamGuideSummariesUpdatedSince(null, batch -> {
+                    for (Guide guide : batch) {
+                        ids.add(guide.getId());
+                    }
+                });
+        if (ids.isEmpty()) {
+            System.out.println("No guides to fetch by id; leaving " + Endpoint.GUIDE.label + " out of the mix");
+            mixTotal -= mix.remove(Endpoint.GUIDE);
+            return;
+        }
+        guideIds = ids.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private void parseMix(String spec) {
+        for (String part : spec.split(",")) {
+            String[] keyWeight = part.split(":");
+            Endpoint endpoint = null;
+            for (Endpoint candidate : Endpoint.values()) {
+                if (candidate.key.equals(keyWeight[0].trim())) {
+                    endpoint = candidate;
+                }
+            }
+            if (endpoint == null) {
+                throw new IllegalArgumentException("Unknown endpoint in --mix: " + keyWeight[0]);
+            }
+            int weight = Integer.parseInt(keyWeight[1].trim());
+            if (weight > 0) {
+                mix.put(endpoint, weight);
+                mixTotal += weight;
+            }
+        }
+        if (mixTotal == 0) {
+            throw new IllegalArgumentException("--mix has no endpoints");
+        }
+    }
+
+    private Endpoint pick(ThreadLocalRandom random) {
+        int roll = random.nextInt(mixTotal);
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private void printWindow(double seconds) {
+        StringBuilder line = new StringBuilder(String.format(Locale.ROOT, "[%5.0fs]",
+                (System.nanoTime() - recordFrom) / 1e9));
+        for (Endpoint endpoint : mix.keySet()) {
+            Stats endpointStats = stats.get(endpoint);
+            LatencyHistogram window = endpointStats.window.getAndSet(new LatencyHistogram());
+            long errors = endpointStats.windowErrors.getAndSet(0);
+            line.append(String.format(Locale.ROOT, "  %s %.0f/s p99 %.1fms err %d", endpoint.key,
+                    window.count() / seconds, window.percentileMicros(0.99) / 1000.0, errors));
+        }
+        System.out.println(line);
+    }
+
+    private static void printResults(List<Result> results) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-8s %10s %8s %10s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Result result : results) {
+            System.out.printf(Locale.ROOT, "%-8s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    result.name, result.count, result.errors, result.rps, result.p50 / 1000.0,
+                    result.p99 / 1000.0, result.p999 / 1000.0, result.max / 1000.0);
+        }
+    }
+
+    private String option(String name, String fallback) {
+        return options.getOrDefault(name, fallback);
+    }
+
+    // "90", "90s", "15m" or "2h"
+    static long parseDuration(String value) {
+        char unit = value.charAt(value.length() - 1);
+        if (Character.isDigit(unit)) {
+            return TimeUnit.SECONDS.toNanos(Long.parseLong(value));
+        }
+        long amount = Long.parseLong(value.substring(0, value.length() - 1));
+        switch (unit) {
+            case 's':
+                return TimeUnit.SECONDS.toNanos(amount);
+            case 'm':
+                return TimeUnit.MINUTES.toNanos(amount);
+            case 'h':
+                return TimeUnit.HOURS.toNanos(amount);
+            default:
+                throw new IllegalArgumentException("Bad duration " + value);
+        }
+    }
+
+    private static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.loadtest;
+
+import com.example.mobilefrontend.Guide;
+import com.example.mobilefrontend.JsonCodec;
+import com.example.mobilefrontend.Post;
+import com.google.gson.Gson;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Stand-in for the Express backend serving the read endpoints the app uses, with
+// made-up rows in the same JSON shape. Bodies are built once up front, so the numbers
+// measure the client and the network path rather than this server. An optional fixed
+// delay per request approximates database time. /events is a change feed in the
+// backend's Server-Sent Events format, fed by a ticker that pretends guides are being
+// edited; the list bodies above are left as they were.
+public class MockBackend {
+    private static final String[] LEVELS = {"beginner", "novice", "advanced"};
+    private static final int BODY_CHARS = 4000;
+    private static final int SUMMARY_CHARS = 200;
+    private static final int USERS = 50;
+    private static final long HEARTBEAT_MS = 15 * 1000;
+    // How many recent events publishedNanos() can still answer for
+    private static final int PUBLISHED_RING = 4096;
+
+    private final HttpServer server;
+    private final long delayMs;
+    private final Map<String, byte[]> bodies = new HashMap<>();
+    private final List<Guide> summaries = new ArrayList<>();
+    private final List<OutputStream> listeners = new CopyOnWriteArrayList<>();
+    private final AtomicLong lastEvent = new AtomicLong();
+    private final AtomicLongArray published = new AtomicLongArray(PUBLISHED_RING);
+    private final ScheduledExecutorService editor = Executors.newSingleThreadScheduledExecutor();
+
+    public MockBackend(int port, int guides, int posts, long delayMs) throws IOException {
+        this(port, guides, posts, delayMs, 0);
+    }
+
+    public MockBackend(int port, int guides, int posts, long delayMs, double editsPerSecond) throws IOException {
+        this.delayMs = delayMs;
+        Gson gson = JsonCodec.gson();
+        String text = "Lorem ipsum dolor sit amet, consectetur adipiscing elit. ".repeat(BODY_CHARS / 57 + 1)
+                .substring(0, BODY_CHARS);
+        String summary = text.substring(0, SUMMARY_CHARS);
+
+        List<Guide> full = new ArrayList<>();
+        Map<String, List<Guide>> byLevel = new HashMap<>();
+        for (int id = 1; id <= guides; id++) {
+            String level = LEVELS[id % LEVELS.length];
+            String updatedAt = "2025-01-01T00:00:00.000Z";
+            Guide guide = new Guide(id, "Guide " + id, text, null, "published", level, id % USERS + 1,
+                    "user" + (id % USERS + 1), updatedAt);
+            Guide brief = new Guide(id, "Guide " + id, null, summary, "published", level, id % USERS + 1,
+                    "user" + (id % USERS + 1), updatedAt);
+            full.add(guide);
+            summaries.add(brief);
+            byLevel.computeIfAbsent(level, k -> new ArrayList<>()).add(brief);
+            bodies.put("/guides/" + id, gson.toJson(guide).getBytes(StandardCharsets.UTF_8));
+        }
+        List<Post> fullPosts = new ArrayList<>();
+        List<Post> postSummaries = new ArrayList<>();
+        for (int id = 1; id <= posts; id++) {
+            fullPosts.add(new Post(id, "Post " + id, text, null, id % USERS + 1, "user" + (id % USERS + 1),
+                    "2025-01-01T00:00:00.000Z"));
+            postSummaries.add(new Post(id, "Post " + id, null, summary, id % USERS + 1, "user" + (id % USERS + 1),
+                    "2025-01-01T00:00:00.000Z"));
+        }
+        bodies.put("/guides", gson.toJson(full).getBytes(StandardCharsets.UTF_8));
+        bodies.put("/guides?view=summary", gson.toJson(summaries).getBytes(StandardCharsets.UTF_8));
+        bodies.put("/posts", gson.toJson(fullPosts).getBytes(StandardCharsets.UTF_8));
+        bodies.put("/posts?view=summary", gson.toJson(postSummaries).getBytes(StandardCharsets.UTF_8));
+        for (int user = 1; user <= USERS; user++) {
+            List<Guide> level = byLevel.getOrDefault(LEVELS[user % LEVELS.length], new ArrayList<>());
+            bodies.put("/guides/for-you?userId=" + user, gson.toJson(level).getBytes(StandardCharsets.UTF_8));
+        }
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        server.createContext("/", this::handle);
+        server.createContext("/events", this::handleEvents);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        if (editsPerSecond > 0 && !summaries.isEmpty()) {
+            editor.scheduleAtFixedRate(this::editGuide, 0, (long) (1_000_000 / editsPerSecond),
+                    TimeUnit.MICROSECONDS);
+        }
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public void stop() {
+        editor.shutdownNow();
+        server.stop(0);
+    }
+
+    // nanoTime an event was sent, by the id it went out under; 0 once too old.
+    public long publishedNanos(String eventId) {
+        if (eventId == null || !eventId.startsWith("mock-")) {
+            return 0;
+        }
+        long seq = Long.parseLong(eventId.substring(5));
+        if (seq <= 0 || seq <= lastEvent.get() - PUBLISHED_RING) {
+            return 0;
+        }
+        return published.get((int) (seq % PUBLISHED_RING));
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+            byte[] body = bodies.get(key(exchange.getRequestURI()));
+            if (body == null) {
+                byte[] error = "{\"error\":\"Not found\"}".getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(404, error.length);
+                exchange.getResponseBody().write(error);
+                return;
+            }
+            String etag = "W/\"" + Integer.toHexString(body.length) + "-"
+                    + Integer.toHexString(System.identityHashCode(body)) + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if (etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Holds the exchange open for as long as the client stays, sending a heartbeat
+    // comment as the backend does. Nothing is kept for replay, so a client resuming
+    // from anything but the latest id is told to resync.
+    private void handleEvents(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            exchange.getResponseHeaders().set("Content-Type", "text/event-stream; charset=utf-8");
+            exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            String resumeFrom = exchange.getRequestHeaders().getFirst("Last-Event-ID");
+            String current = "mock-" + lastEvent.get();
+            synchronized (out) {
+                if (resumeFrom != null && !resumeFrom.equals(current)) {
+                    write(out, "id: " + current + "\ndata: {\"kind\":\"resync\"}\n\n");
+                } else {
+                    write(out, "id: " + current + "\n\n");
+                }
+            }
+            listeners.add(out);
+            try {
+                while (true) {
+                    Thread.sleep(HEARTBEAT_MS);
+                    synchronized (out) {
+                        write(out, ": ping\n\n");
+                    }
+                }
+            } finally {
+                listeners.remove(out);
+            }
+        } catch (IOException | InterruptedException e) {
+            // The client went away or the server is stopping
+        }
+    }
+
+    private void editGuide() {
+        Guide guide = summaries.get(ThreadLocalRandom.current().nextInt(summaries.size()));
+        long seq = lastEvent.incrementAndGet();
+        Guide edited = new Guide(guide.getId(), guide.getTitle() + " (edit " + seq + ")", null, guide.getSummary(),
+                guide.getStatus(), guide.getLevel(), guide.getUserId(), guide.getUsername(), guide.getUpdatedAt());
+        String frame = "id: mock-" + seq + "\ndata: {\"kind\":\"guide\",\"op\":\"upsert\",\"id\":" + guide.getId()
+                + ",\"row\":" + JsonCodec.gson().toJson(edited) + "}\n\n";
+        published.set((int) (seq % PUBLISHED_RING), System.nanoTime());
+        for (OutputStream out : listeners) {
+            try {
+                synchronized (out) {
+                    write(out, frame);
+                }
+            } catch (IOException e) {
+                listeners.remove(out);
+            }
+        }
+    }
+
+    private static void write(OutputStream out, String text) throws IOException {
+        out.write(text.getBytes(StandardCharsets.UTF_8));
+        out.flush();
+    }
+
+    // Path plus only the query params that change the response
+    private static String key(URI uri) {
+        String path = uri.getPath();
+        String query = uri.getRawQuery() != null ? uri.getRawQuery() : "";
+        if (path.equals("/guides/for-you")) {
+            for (String param : query.split("&")) {
+                if (param.startsWith("userId=")) {
+                    return path + "?" + param;
+                }
+            }
+            return path;
+        }
+        return query.contains("view=summary") ? path + "?view=summary" : path;
+    }
+}
@@ -1,41 +1,328 @@
 package com.example.mobilefrontend;
 
-import java.io.BufferedReader;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 public class ApiClient {
-    private static final String BASE_URL = "http://192.168.254.7:8000";
+    private static final String TAG = "ApiClient";
+    public static final String DEFAULT_BASE_URL = "http://192.168.254.7:8000";
+    private static final int DEFAULT_BATCH_SIZE = 20;
 
-    public String getGuides() throws Exception {
-        return makeGetRequest(BASE_URL + "/guides");
+    private final ResponseCache cache;
+    private final Transport transport;
+    private final String baseUrl;
+    private volatile boolean preferBinary = true;
+
+    public interface BatchListener<T> {
+        void onBatch(List<T> batch);
     }
 
-    public String getPosts() throws Exception {
-        return makeGetRequest(BASE_URL + "/posts");
+    public ApiClient() {
+        this(new ResponseCache(null));
     }
 
-    private String makeGetRequest(String urlString) throws Exception {
-        URL url = new URL(urlString);
-        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-        conn.setRequestMethod("GET");
-        conn.setRequestProperty("Accept", "application/json");
+    public ApiClient(ResponseCache cache) {
+        this(cache, new UrlConnectionTransport());
+    }
 
-        int responseCode = conn.getResponseCode();
-        if (responseCode != HttpURLConnection.HTTP_OK) {
-            throw new RuntimeException("Failed : HTTP error code : " + responseCode);
+    public ApiClient(ResponseCache cache, Transport transport) {
+        this(cache, transport, DEFAULT_BASE_URL);
+    }
+
+    public ApiClient(ResponseCache cache, Transport transport, String baseUrl) {
+        this.cache = cache;
+        this.transport = transport;
+        this.baseUrl = baseUrl;
+    }
+
+    // Whether to ask for MessagePack list bodies; servers without it answer with JSON.
+    public void setPreferBinary(boolean preferBinary) {
+        this.preferBinary = preferBinary;
+    }
+
+    // Rows whose updatedAt is at or after since, or everything when since is null, with
+    // each description or content cut down to a short summary. The full text is fetched
+    // per item with fetchGuide() and fetchPost().
+    public int streamGuideSummariesUpdatedSince(String since, BatchListener<Guide> listener) throws Exception {
+        return streamList(baseUrl + "/guides?view=summary" + sinceParam(since), Guide.class, DEFAULT_BATCH_SIZE,
+                listener);
+    }
+
+    public int streamPostSummariesUpdatedSince(String since, BatchListener<Post> listener) throws Exception {
+        return streamList(baseUrl + "/posts?view=summary" + sinceParam(since), Post.class, DEFAULT_BATCH_SIZE,
+                listener);
+    }
+
+    // Summaries of the guides at the user's experience level, as /guides/for-you picks
+    // them; ranking is left to the caller.
+    public int streamGuidesForYou(int userId, BatchListener<Guide> listener) throws Exception {
+        return streamList(baseUrl + "/guides/for-you?userId=" + userId + "&view=summary", Guide.class,
+                DEFAULT_BATCH_SIZE, listener);
+    }
+
+    private static String sinceParam(String since) throws Exception {
+        return since == null ? "" : "&updatedSince=" + URLEncoder.encode(since, "UTF-8");
+    }
+
+    // One guide with its full description, or null when the server has no such guide.
+    public Guide fetchGuide(int id) throws Exception {
+        return fetchItem(baseUrl + "/guides/" + id, Guide.class);
+    }
+
+    public Post fetchPost(int id) throws Exception {
+        return fetchItem(baseUrl + "/posts/" + id, Post.class);
+    }
+
+    // Always asks the server, since sync and for-you must see its current answer: a
+    // conditional GET carrying the stored copy's validators, if there is one. On 304
+    // that copy is replayed, from memory while it is still there and from disk
+    // otherwise; on 200 the body is decoded while it streams in and is written through
+    // to both tiers. The stored copy is opened before the request, so what a 304
+    // replays is exactly the body its validators were sent for.
+    @SuppressWarnings("unchecked")
+    private <T> int streamList(String urlString, Class<T> type, int batchSize, BatchListener<T> listener)
+            throws Exception {
+        ResponseCache.Entry cached = cache.getMemory(urlString);
+        try (ResponseCache.StoredBody stored = cached == null ? cache.openBody(urlString) : null) {
+            ResponseCache.Validators validators = cached != null ? cached.validators
+                    : stored != null ? stored.validators : null;
+            try (Transport.Response response = get(urlString, accept(type), validators)) {
+                if (response.getCode() == HttpURLConnection.HTTP_NOT_MODIFIED && validators != null) {
+                    cache.recordRevalidation();
+                    AppLog.d(TAG, "Not modified", "url", urlString, "cache", cache);
+                    if (cached != null) {
+                        return deliver((List<T>) cached.items, batchSize, listener);
+                    }
+                    return streamFromDisk(urlString, type, batchSize, listener, stored, validators);
+                }
+                cache.recordMiss();
+                ResponseCache.Validators fetched = new ResponseCache.Validators(response.getHeader("ETag"),
+                        response.getHeader("Last-Modified"), response.getHeader("Content-Type"));
+                List<T> items = new ArrayList<>();
+                try (ResponseCache.BodyWriter body = cache.newBodyWriter(urlString, fetched, response.getBody())) {
+                    int count = decode(body, fetched.contentType, type, batchSize, listener, items, Metrics.DOWNLOAD);
+                    body.commit();
+                    cache.putMemory(urlString, items, body.getBytes(), fetched);
+                    AppLog.d(TAG, "Fetched", "url", urlString, "cache", cache);
+                    return count;
+                }
+            }
+        }
+    }
+
+    private String accept(Class<?> type) {
+        return preferBinary && MessagePackCodec.readerFor(type) != null
+                ? MessagePackCodec.CONTENT_TYPE + ", application/json;q=0.5"
+                : "application/json";
+    }
+
+    // One page of an item's comments, oldest first: up to limit with id greater than
+    // cursor. kind is "guide" or "post".
+    public List<Comment> fetchCommentsPage(String kind, int itemId, int cursor, int limit) throws Exception {
+        return fetchList(baseUrl + "/comments/" + kind + "/" + itemId + "?cursor=" + cursor + "&limit=" + limit,
+                Comment.class);
+    }
+
+    // Comments created at or after since. Servers that ignore since answer with every
+    // comment, so callers must drop the ones they already have.
+    public List<Comment> fetchCommentsSince(String kind, int itemId, String since) throws Exception {
+        return fetchList(baseUrl + "/comments/" + kind + "/" + itemId + "?since=" + URLEncoder.encode(since, "UTF-8"),
+                Comment.class);
+    }
+
+    // The server's change feed, resumed after lastEventId, or from now when that is
+    // null. It stays open until closed, so read it on a thread of its own.
+    public EventStream openEvents(String lastEventId) throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept", EventStream.CONTENT_TYPE);
+        if (lastEventId != null) {
+            headers.put("Last-Event-ID", lastEventId);
+        }
+        Transport.Response response = transport.get(baseUrl + "/events", headers);
+        if (response.getCode() != HttpURLConnection.HTTP_OK) {
+            response.abort();
+            throw new RuntimeException("Failed : HTTP error code : " + response.getCode());
+        }
+        return new EventStream(response, lastEventId);
+    }
+
+    // Comments change too often to be worth a conditional GET; callers keep what they
+    // fetched.
+    private <T> List<T> fetchList(String urlString, Class<T> type) throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept", "application/json");
+        try (Transport.Response response = transport.get(urlString, headers)) {
+            if (response.getCode() != HttpURLConnection.HTTP_OK) {
+                throw new RuntimeException("Failed : HTTP error code : " + response.getCode());
+            }
+            List<T> items = new ArrayList<>();
+            decode(response.getBody(), "application/json", type, DEFAULT_BATCH_SIZE, batch -> {
+            }, items, Metrics.DOWNLOAD);
+            AppLog.d(TAG, "Fetched", "url", urlString, "items", items.size());
+            return items;
+        }
+    }
+
+    // Single items are small and read once per open, so they skip the response cache;
+    // LocalStore keeps what was fetched.
+    private <T> T fetchItem(String urlString, Class<T> type) throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept", "application/json");
+        try (Transport.Response response = transport.get(urlString, headers)) {
+            int responseCode = response.getCode();
+            if (responseCode == HttpURLConnection.HTTP_NOT_FOUND) {
+                return null;
+            }
+            if (responseCode != HttpURLConnection.HTTP_OK) {
+                throw new RuntimeException("Failed : HTTP error code : " + responseCode);
+            }
+            TimedInputStream in = new TimedInputStream(response.getBody());
+            JsonReader reader = new JsonReader(new InputStreamReader(new BufferedInputStream(in),
+                    StandardCharsets.UTF_8));
+            long start = System.nanoTime();
+            T item = JsonCodec.gson().getAdapter(type).read(reader);
+            Metrics.PARSE.record(System.nanoTime() - start - in.nanos);
+            Metrics.DOWNLOAD.record(in.nanos);
+            return item;
+        }
+    }
+
+    private <T> int streamFromDisk(String urlString, Class<T> type, int batchSize, BatchListener<T> listener,
+                                   ResponseCache.StoredBody stored, ResponseCache.Validators validators)
+            throws Exception {
+        List<T> items = new ArrayList<>();
+        int count = decode(stored, validators.contentType, type, batchSize, listener, items, Metrics.DISK_READ);
+        cache.putMemory(urlString, items, stored.bytes, validators);
+        return count;
+    }
+
+    private <T> int deliver(List<T> items, int batchSize, BatchListener<T> listener) {
+        for (int start = 0; start < items.size(); start += batchSize) {
+            int end = Math.min(items.size(), start + batchSize);
+            listener.onBatch(new ArrayList<>(items.subList(start, end)));
+        }
+        return items.size();
+    }
+
+    // Decodes a top-level array element by element, as MessagePack when that is what
+    // the server sent and as JSON otherwise, so only the current batch is ever held by
+    // the reader. Every item is also collected into sink, when there is one. Time spent
+    // blocked reading the body goes to transfer; the rest of each item's decode goes to
+    // the parse histogram.
+    private <T> int decode(InputStream body, String contentType, Class<T> type, int batchSize,
+                           BatchListener<T> listener, List<T> sink, Histogram transfer) throws Exception {
+        TimedInputStream in = new TimedInputStream(body);
+        int count = 0;
+        MessagePackCodec.ItemReader<T> binary = isMessagePack(contentType) ? MessagePackCodec.readerFor(type) : null;
+        MessagePackReader packed = null;
+        JsonReader reader = null;
+        TypeAdapter<T> adapter = null;
+        int remaining = 0;
+        if (binary != null) {
+            packed = new MessagePackReader(in);
+            remaining = packed.readArrayHeader();
+        } else {
+            reader = new JsonReader(new InputStreamReader(new BufferedInputStream(in), StandardCharsets.UTF_8));
+            reader.beginArray();
+            adapter = JsonCodec.gson().getAdapter(type);
+        }
+        List<T> batch = new ArrayList<>(batchSize);
+        while (binary != null ? remaining-- > 0 : reader.hasNext()) {
+            long parseStart = System.nanoTime();
+            long readBefore = in.nanos;
+            T item = binary != null ? binary.read(packed) : adapter.read(reader);
+            Metrics.PARSE.record(System.nanoTime() - parseStart - (in.nanos - readBefore));
+            if (item == null) {
+                continue;
+            }
+            batch.add(item);
+            if (sink != null) {
+                sink.add(item);
+            }
+            count++;
+            if (batch.size() >= batchSize) {
+                listener.onBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (reader != null) {
+            reader.endArray();
+        }
+        transfer.record(in.nanos);
+        if (!batch.isEmpty()) {
+            listener.onBatch(batch);
+        }
+        return count;
+    }
+
+    // Adds up the time spent blocked in read(), which is the transfer; whatever the
+    // decoder does between reads is parsing.
+    private static final class TimedInputStream extends FilterInputStream {
+        long nanos;
+
+        TimedInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            int b = super.read();
+            nanos += System.nanoTime() - start;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            int n = super.read(buffer, offset, length);
+            nanos += System.nanoTime() - start;
+            return n;
         }
 
-        BufferedReader br = new BufferedReader(new InputStreamReader(conn.getInputStream()));
-        StringBuilder response = new StringBuilder();
-        String line;
-        while ((line = br.readLine()) != null) {
-            response.append(line);
+        @Override
+        public long skip(long n) throws IOException {
+            long start = System.nanoTime();
+            long skipped = super.skip(n);
+            nanos += System.nanoTime() - start;
+            return skipped;
+        }
+    }
+
+    private static boolean isMessagePack(String contentType) {
+        return contentType != null && contentType.startsWith(MessagePackCodec.CONTENT_TYPE);
+    }
+
+    private Transport.Response get(String urlString, String accept, ResponseCache.Validators validators)
+            throws Exception {
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Accept", accept);
+        if (validators != null && validators.etag != null) {
+            headers.put("If-None-Match", validators.etag);
+        }
+        if (validators != null && validators.lastModified != null) {
+            headers.put("If-Modified-Since", validators.lastModified);
         }
-        br.close();
-        conn.disconnect();
 
-        return response.toString();
+        Transport.Response response = transport.get(urlString, headers);
+        int responseCode = response.getCode();
+        if (responseCode != HttpURLConnection.HTTP_OK
+                && !(responseCode == HttpURLConnection.HTTP_NOT_MODIFIED && validators != null)) {
+            response.close();
+            throw new RuntimeException("Failed : HTTP error code : " + responseCode);
+        }
+        return response;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+package com.example.mobilefrontend;
+
+// Level-gated logging. Messages are an event name plus at most a couple of key=value
+// fields, and the line is only built once the level check has passed, so a disabled
+// call from a bind or scroll path costs a branch and allocates nothing. Primitive
+// overloads keep ints and longs from being boxed just to be thrown away.
+//
+// Debug and verbose output is compiled in only for debug builds: in release builds
+// DEBUG_ENABLED is constant false, so guarded call sites are dropped by R8 together
+// with whatever arguments they were building. For messages that need more than the
+// overloads offer, guard the call site with AppLog.DEBUG_ENABLED directly.
+//
+// Lines go to a Sink. The app installs LogcatSink at startup; until then, and on the
+// JVM, they are printed to stderr.
+public final class AppLog {
+    public static final boolean DEBUG_ENABLED = BuildConfig.DEBUG;
+
+    // Same values as the android.util.Log priorities
+    public static final int VERBOSE = 2;
+    public static final int DEBUG = 3;
+    public static final int INFO = 4;
+    public static final int WARN = 5;
+    public static final int ERROR = 6;
+
+    public interface Sink {
+        void println(int priority, String tag, String message, Throwable error);
+    }
+
+    private static volatile int level = BuildConfig.DEBUG ? DEBUG : INFO;
+    private static volatile Sink sink = (priority, tag, message, error) -> {
+        System.err.println("VDIWE".charAt(priority - VERBOSE) + "/" + tag + ": " + message);
+        if (error != null) {
+            error.printStackTrace();
+        }
+    };
+
+    private AppLog() {
+    }
+
+    public static void setSink(Sink newSink) {
+        sink = newSink;
+    }
+
+    // Anything below minLevel is dropped.
+    public static void setLevel(int minLevel) {
+        level = minLevel;
+    }
+
+    public static boolean isLoggable(int priority) {
+        return priority >= level && (priority > DEBUG || DEBUG_ENABLED);
+    }
+
+    public static void v(String tag, String event) {
+        if (DEBUG_ENABLED && level <= VERBOSE) {
+            sink.println(VERBOSE, tag, event, null);
+        }
+    }
+
+    public static void d(String tag, String event) {
+        if (DEBUG_ENABLED && level <= DEBUG) {
+            sink.println(DEBUG, tag, event, null);
+        }
+    }
+
+    public static void d(String tag, String event, String key, int value) {
+        if (DEBUG_ENABLED && level <= DEBUG) {
+            sink.println(DEBUG, tag, event + " " + key + "=" + value, null);
+        }
+    }
+
+    public static void d(String tag, String event, String key, long value) {
+        if (DEBUG_ENABLED && level <= DEBUG) {
+            sink.println(DEBUG, tag, event + " " + key + "=" + value, null);
+        }
+    }
+
+    public static void d(String tag, String event, String key, Object value) {
+        if (DEBUG_ENABLED && level <= DEBUG) {
+            sink.println(DEBUG, tag, event + " " + key + "=" + value, null);
+        }
+    }
+
+    public static void d(String tag, String event, String key1, Object value1, String key2, Object value2) {
+        if (DEBUG_ENABLED && level <= DEBUG) {
+            sink.println(DEBUG, tag, event + " " + key1 + "=" + value1 + " " + key2 + "=" + value2, null);
+        }
+    }
+
+    public static void i(String tag, String event) {
+        if (level <= INFO) {
+            sink.println(INFO, tag, event, null);
+        }
+    }
+
+    public static void w(String tag, String event, String key, Object value) {
+        if (level <= WARN) {
+            sink.println(WARN, tag, event + " " + key + "=" + value, null);
+        }
+    }
+
+    public static void e(String tag, String event) {
+        if (level <= ERROR) {
+            sink.println(ERROR, tag, event, null);
+        }
+    }
+
+    public static void e(String tag, String event, String key, Object value) {
+        if (level <= ERROR) {
+            sink.println(ERROR, tag, event + " " + key + "=" + value, null);
+        }
+    }
+
+    public static void e(String tag, String event, Throwable error) {
+        if (level <= ERROR) {
+            sink.println(ERROR, tag, event, error);
+        }
+    }
+}
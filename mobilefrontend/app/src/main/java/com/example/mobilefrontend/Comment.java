@@ -0,0 +1,43 @@
+package com.example.mobilefrontend;
+
+public class Comment {
+    private int id;
+    private String content;
+    private int userId;
+    private String username;
+    private String createdAt;
+
+    public Comment(int id, String content, int userId, String username, String createdAt) {
+        this.id = id;
+        this.content = content;
+        this.userId = userId;
+        this.username = username;
+        this.createdAt = createdAt;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    // Author name from the included User, or null when the row came without it
+    public String getUsername() {
+        return username;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+
+    @Override
+    public String toString() {
+        return "Comment{id=" + id + ", content='" + content + "', userId=" + userId + ", username='" + username + "', createdAt='" + createdAt + "'}";
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.util.LruCache;
+import androidx.lifecycle.LifecycleOwner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Comment threads for the detail screen, cached per item. A thread is read a page at
+// a time as it is scrolled through; once it has been read to the end, new comments
+// are picked up by polling with since= from the newest one held. Threads are evicted
+// least recently used, weighed by how many comments they hold. Everything here is
+// touched on the main thread only, and appending is idempotent, so two screens
+// loading the same page at once leave one copy. While LiveUpdates has the event
+// stream open, comments pushed through it are applied here as well. Nothing here is
+// written to disk, and SyncWorker does not sync comments in the background.
+public class CommentThreads {
+    private static final int PAGE_SIZE = 30;
+    private static final int MAX_CACHED_COMMENTS = 2000;
+
+    private static CommentThreads instance;
+
+    public interface Listener {
+        void onChanged(CommentThread thread);
+
+        void onError(Exception e);
+    }
+
+    public static class CommentThread {
+        final String itemId;
+        final String kind;
+        final int id;
+        private final List<Comment> comments = new ArrayList<>();
+        // Id of the last comment held; comment ids only grow
+        private int cursor;
+        private boolean complete;
+
+        CommentThread(String itemId) {
+            this.itemId = itemId;
+            int separator = itemId.indexOf(':');
+            kind = itemId.substring(0, separator);
+            id = Integer.parseInt(itemId.substring(separator + 1));
+        }
+
+        public List<Comment> getComments() {
+            return Collections.unmodifiableList(comments);
+        }
+
+        // Whether every page has been read, after which only polling adds comments.
+        public boolean isComplete() {
+            return complete;
+        }
+
+        void append(List<Comment> batch) {
+            for (Comment comment : batch) {
+                if (comment.getId() > cursor) {
+                    comments.add(comment);
+                    cursor = comment.getId();
+                }
+            }
+        }
+
+        boolean remove(int commentId) {
+            for (int i = 0; i < comments.size(); i++) {
+                if (comments.get(i).getId() == commentId) {
+                    comments.remove(i);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        String newestCreatedAt() {
+            return comments.isEmpty() ? null : comments.get(comments.size() - 1).getCreatedAt();
+        }
+    }
+
+    private final RequestDispatcher dispatcher;
+    private final LruCache<String, CommentThread> threads = new LruCache<String, CommentThread>(MAX_CACHED_COMMENTS) {
+        @Override
+        protected int sizeOf(String itemId, CommentThread thread) {
+            return thread.comments.size() + 1;
+        }
+    };
+
+    private CommentThreads(Context context) {
+        dispatcher = RequestDispatcher.getInstance(context);
+    }
+
+    public static synchronized CommentThreads getInstance(Context context) {
+        if (instance == null) {
+            instance = new CommentThreads(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // itemId is "guide:<id>" or "post:<id>". Returns the cached thread, possibly with
+    // nothing loaded yet.
+    public CommentThread get(String itemId) {
+        CommentThread thread = threads.get(itemId);
+        if (thread == null) {
+            thread = new CommentThread(itemId);
+            threads.put(itemId, thread);
+        }
+        return thread;
+    }
+
+    // Pushed comment changes, for threads already cached. A new comment only joins a
+    // thread read to the end; before that, the page it falls in brings it.
+    void apply(List<LiveEvent> events) {
+        for (LiveEvent event : events) {
+            if (!LiveEvent.COMMENT.equals(event.getKind()) || event.getItem() == null) {
+                continue;
+            }
+            CommentThread thread = threads.get(event.getItem());
+            if (thread == null) {
+                continue;
+            }
+            if (event.isDelete()) {
+                thread.remove(event.getId());
+            } else if (thread.complete && event.getComment() != null) {
+                thread.append(Collections.singletonList(event.getComment()));
+            }
+            threads.put(thread.itemId, thread);
+        }
+    }
+
+    public void loadMore(CommentThread thread, LifecycleOwner owner, Listener listener) {
+        int cursor = thread.cursor;
+        dispatcher.stream("comments " + thread.itemId + "?cursor=" + cursor, RequestDispatcher.Priority.USER_VISIBLE,
+                owner, (apiClient, batchListener) -> {
+                    List<Comment> page = apiClient.fetchCommentsPage(thread.kind, thread.id, cursor, PAGE_SIZE);
+                    batchListener.onBatch(page);
+                    return page.size();
+                }, new Callback(thread, listener) {
+                    @Override
+                    public void onBatch(List<Comment> page) {
+                        thread.append(page);
+                        thread.complete = page.size() < PAGE_SIZE;
+                    }
+                });
+    }
+
+    // Only for a complete thread; until then the next page brings new comments too.
+    public void poll(CommentThread thread, LifecycleOwner owner, Listener listener) {
+        String since = thread.newestCreatedAt();
+        int cursor = thread.cursor;
+        dispatcher.stream("comments " + thread.itemId + "?since=" + since, RequestDispatcher.Priority.MAINTENANCE,
+                owner, (apiClient, batchListener) -> {
+                    List<Comment> fresh = since == null
+                            ? apiClient.fetchCommentsPage(thread.kind, thread.id, cursor, PAGE_SIZE)
+                            : apiClient.fetchCommentsSince(thread.kind, thread.id, since);
+                    Collections.sort(fresh, (a, b) -> Integer.compare(a.getId(), b.getId()));
+                    batchListener.onBatch(fresh);
+                    return fresh.size();
+                }, new Callback(thread, listener) {
+                    @Override
+                    public void onBatch(List<Comment> fresh) {
+                        thread.append(fresh);
+                    }
+                });
+    }
+
+    private abstract class Callback implements RequestDispatcher.Callback<Comment> {
+        private final CommentThread thread;
+        private final Listener listener;
+
+        Callback(CommentThread thread, Listener listener) {
+            this.thread = thread;
+            this.listener = listener;
+        }
+
+        @Override
+        public void onComplete(int total) {
+            // Put back so the cache weighs the thread at its new size
+            threads.put(thread.itemId, thread);
+            listener.onChanged(thread);
+        }
+
+        @Override
+        public void onError(Exception e) {
+            listener.onError(e);
+        }
+    }
+}
@@ -1,21 +1,64 @@
 package com.example.mobilefrontend;
 
+import android.content.Context;
+import android.graphics.Typeface;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import android.text.Spanned;
+import android.util.LruCache;
+import android.util.TypedValue;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
+import android.widget.FrameLayout;
 import android.widget.TextView;
 import androidx.fragment.app.Fragment;
-import io.noties.markwon.Markwon;
-// Ensure this import is correct
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.ConcatAdapter;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import org.commonmark.node.FencedCodeBlock;
+import org.commonmark.node.IndentedCodeBlock;
+import org.commonmark.node.Node;
 
 public class DetailFragment extends Fragment {
+    private static final String ARG_ID = "id";
     private static final String ARG_TITLE = "title";
     private static final String ARG_CONTENT = "content";
+    // Bodies at least this long are shown block by block in a RecyclerView instead of
+    // being laid out as one huge TextView.
+    static final int BLOCK_MODE_MIN_CHARS = 16 * 1024;
+    private static final long COMMENT_POLL_MS = 30_000;
 
-    public static DetailFragment newInstance(String title, String content) {
+    private TextView contentTextView;
+    // The body followed by its comments, once the body can be shown
+    private RecyclerView pageRecyclerView;
+    private RecyclerView.Adapter<?> bodyAdapter;
+    private CommentsAdapter commentsAdapter;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable pollComments = new Runnable() {
+        @Override
+        public void run() {
+            if (commentsAdapter != null) {
+                commentsAdapter.poll(LiveUpdates.getInstance(requireContext()).isConnected());
+            }
+            handler.postDelayed(this, COMMENT_POLL_MS);
+        }
+    };
+    // Whether the text itself was shown, rather than a placeholder or an error
+    private boolean contentShown;
+    private Future<?> pendingRender;
+
+    // id identifies the item across opens (for example "guide:12") and keys the render cache.
+    // A null content is loaded through DetailLoader.
+    public static DetailFragment newInstance(String id, String title, String content) {
         DetailFragment fragment = new DetailFragment();
         Bundle args = new Bundle();
+        args.putString(ARG_ID, id);
         args.putString(ARG_TITLE, title);
         args.putString(ARG_CONTENT, content);
         fragment.setArguments(args);
@@ -24,46 +67,580 @@ public class DetailFragment extends Fragment {
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        Bundle args = getArguments();
+        String id = args != null ? args.getString(ARG_ID) : null;
+        String content = args != null ? args.getString(ARG_CONTENT) : null;
+        DetailLoader loader = DetailLoader.getInstance(requireContext());
+        if (content == null && id != null) {
+            content = loader.getCached(id);
+        }
+        if (content != null || id == null) {
+            return createContentView(inflater, container, content);
+        }
+
+        // Not stored yet: show the title with a placeholder and swap in the full view
+        // once the text arrives
+        FrameLayout frame = new FrameLayout(requireContext());
+        frame.addView(createTextView(inflater, frame, null, getString(R.string.rendering_content)));
+        loader.load(id, getViewLifecycleOwner(), new DetailLoader.Callback() {
+            @Override
+            public void onLoaded(String content) {
+                frame.removeAllViews();
+                frame.addView(createContentView(inflater, frame, content));
+            }
+
+            @Override
+            public void onError(Exception e) {
+                AppLog.e("DetailFragment", "Loading content failed", e);
+                frame.removeAllViews();
+                frame.addView(createTextView(inflater, frame, null, "Error loading content: " + e.getMessage()));
+            }
+        });
+        return frame;
+    }
+
+    private View createContentView(LayoutInflater inflater, ViewGroup container, String content) {
+        String id = getArguments() != null ? getArguments().getString(ARG_ID) : null;
+        if (content != null && content.length() >= BLOCK_MODE_MIN_CHARS) {
+            return createPage(id, createBlockAdapter(id, getArguments().getString(ARG_TITLE), content));
+        }
+        if (id == null) {
+            return createTextView(inflater, container, content, null);
+        }
+        return createPage(id, createSingleAdapter(id, getArguments().getString(ARG_TITLE), content));
+    }
+
+    // One list holding the body and then the comments. Comments are not requested
+    // until their header scrolls into view, so reading a guide costs no extra call
+    // unless the reader gets that far. Without an id there is no thread to show, so
+    // the list holds just the body.
+    private RecyclerView createPage(String id, RecyclerView.Adapter<?> body) {
+        Context context = requireContext();
+        RecyclerView recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutParams(new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        LinearLayoutManager layoutManager = new LinearLayoutManager(context);
+        recyclerView.setLayoutManager(layoutManager);
+        pageRecyclerView = recyclerView;
+        bodyAdapter = body;
+        if (id == null) {
+            recyclerView.setAdapter(body);
+            return recyclerView;
+        }
+        CommentThreads threads = CommentThreads.getInstance(context);
+        CommentsAdapter comments = new CommentsAdapter(threads, threads.get(id), getViewLifecycleOwner());
+        recyclerView.setAdapter(new ConcatAdapter(body, comments));
+        Runnable checkComments = () -> comments.onScrolledTo(
+                layoutManager.findLastVisibleItemPosition() - body.getItemCount());
+        // Also called with no movement after a layout changes what is visible, which
+        // covers a body shorter than the screen and a page that left the footer in view
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                checkComments.run();
+            }
+        });
+        // CommentThreads has already applied pushed comments by the time they get here
+        LiveUpdates.getInstance(context).observe(getViewLifecycleOwner(), events -> {
+            boolean pushed = false;
+            boolean removed = false;
+            for (LiveEvent event : events) {
+                if (LiveEvent.COMMENT.equals(event.getKind()) && id.equals(event.getItem())) {
+                    pushed = true;
+                    removed |= event.isDelete();
+                }
+            }
+            if (pushed) {
+                comments.onPushed(removed);
+            }
+        });
+        commentsAdapter = comments;
+        return recyclerView;
+    }
+
+    // The single TextView layout: content rendered as Markdown, or placeholder as is.
+    private View createTextView(LayoutInflater inflater, ViewGroup container, String content, CharSequence placeholder) {
         View view = inflater.inflate(R.layout.fragment_detail, container, false);
 
         TextView titleTextView = view.findViewById(R.id.detailTitleTextView);
-        TextView contentTextView = view.findViewById(R.id.detailContentTextView);
+        contentTextView = view.findViewById(R.id.detailContentTextView);
 
         if (titleTextView == null || contentTextView == null) {
             throw new IllegalStateException("Title or content TextView not found in fragment_detail layout");
         }
 
-        // Initialize Markwon for rendering Markdown
-        try {
-            Markwon markwon = Markwon.create(getContext());
-            if (getArguments() != null) {
-                String title = getArguments().getString(ARG_TITLE);
-                String content = getArguments().getString(ARG_CONTENT);
-                titleTextView.setText(title != null ? title : getString(R.string.no_title));
-                if (content != null) {
-                    // Parse and render Markdown content
-                    markwon.setMarkdown(contentTextView, content);
-                } else {
-                    contentTextView.setText(getString(R.string.no_content));
+        if (getArguments() == null) {
+            titleTextView.setText(getString(R.string.no_title));
+            contentTextView.setText(getString(R.string.no_content));
+            return view;
+        }
+
+        String id = getArguments().getString(ARG_ID);
+        String title = getArguments().getString(ARG_TITLE);
+        titleTextView.setText(title != null ? title : getString(R.string.no_title));
+        if (placeholder != null) {
+            contentTextView.setText(placeholder);
+            return view;
+        }
+        if (content == null) {
+            contentTextView.setText(getString(R.string.no_content));
+            return view;
+        }
+
+        contentShown = true;
+        // Parse and render Markdown content off the main thread, reusing earlier renders
+        MarkdownRenderer renderer = MarkdownRenderer.getInstance(requireContext());
+        Spanned cached = renderer.getCached(id, content);
+        if (cached != null) {
+            renderer.getMarkwon().setParsedMarkdown(contentTextView, cached);
+            return view;
+        }
+
+        contentTextView.setText(getString(R.string.rendering_content));
+        pendingRender = renderer.render(id, content, new MarkdownRenderer.Callback() {
+            @Override
+            public void onRendered(Spanned rendered) {
+                if (contentTextView != null) {
+                    renderer.getMarkwon().setParsedMarkdown(contentTextView, rendered);
                 }
-            } else {
-                titleTextView.setText(getString(R.string.no_title));
-                contentTextView.setText(getString(R.string.no_content));
             }
-        } catch (Exception e) {
-            // Fallback in case Markwon fails to initialize
-            e.printStackTrace();
-            if (getArguments() != null) {
-                String title = getArguments().getString(ARG_TITLE);
-                String content = getArguments().getString(ARG_CONTENT);
-                titleTextView.setText(title != null ? title : getString(R.string.no_title));
-                contentTextView.setText(content != null ? content : getString(R.string.no_content));
+
+            @Override
+            public void onError(Exception e) {
+                // Fallback in case Markwon fails to render
+                AppLog.e("DetailFragment", "Markdown render failed", e);
+                if (contentTextView != null) {
+                    contentTextView.setText(content);
+                }
+            }
+        });
+        return view;
+    }
+
+    // The short-body counterpart of createBlockAdapter(): one row, rendered whole.
+    private SingleViewAdapter createSingleAdapter(String id, String title, String content) {
+        MarkdownRenderer renderer = MarkdownRenderer.getInstance(requireContext());
+        SingleViewAdapter adapter = new SingleViewAdapter(renderer, title != null ? title : getString(R.string.no_title));
+        if (content == null) {
+            adapter.setPlainText(getString(R.string.no_content));
+            return adapter;
+        }
+        contentShown = true;
+
+        Spanned cached = renderer.getCached(id, content);
+        if (cached != null) {
+            adapter.setRendered(cached);
+            return adapter;
+        }
+        adapter.setPlainText(getString(R.string.rendering_content));
+        pendingRender = renderer.render(id, content, new MarkdownRenderer.Callback() {
+            @Override
+            public void onRendered(Spanned rendered) {
+                adapter.setRendered(rendered);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                AppLog.e("DetailFragment", "Markdown render failed", e);
+                adapter.setPlainText(content);
+            }
+        });
+        return adapter;
+    }
+
+    private MarkdownBlockAdapter createBlockAdapter(String id, String title, String content) {
+        MarkdownRenderer renderer = MarkdownRenderer.getInstance(requireContext());
+        MarkdownBlockAdapter adapter = new MarkdownBlockAdapter(renderer,
+                title != null ? title : getString(R.string.no_title), getString(R.string.rendering_content));
+        contentShown = true;
+
+        List<Node> cached = renderer.getCachedBlocks(id, content);
+        if (cached != null) {
+            adapter.setBlocks(cached);
+            return adapter;
+        }
+        pendingRender = renderer.parseBlocks(id, content, new MarkdownRenderer.BlocksCallback() {
+            @Override
+            public void onParsed(List<Node> blocks) {
+                adapter.setBlocks(blocks);
+            }
+
+            @Override
+            public void onError(Exception e) {
+                AppLog.e("DetailFragment", "Markdown render failed", e);
+                adapter.setPlainText(content);
+            }
+        });
+        return adapter;
+    }
+
+    // New comments are only looked for while the screen is visible.
+    @Override
+    public void onStart() {
+        super.onStart();
+        handler.postDelayed(pollComments, COMMENT_POLL_MS);
+    }
+
+    @Override
+    public void onStop() {
+        super.onStop();
+        handler.removeCallbacks(pollComments);
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        String id = getArguments() != null ? getArguments().getString(ARG_ID) : null;
+        if (contentShown && id != null && id.startsWith("guide:")) {
+            ForYouFeed.getInstance(requireContext()).recordProgress(Integer.parseInt(id.substring(6)), readFraction());
+        }
+        pageRecyclerView = null;
+        bodyAdapter = null;
+        commentsAdapter = null;
+        if (pendingRender != null) {
+            pendingRender.cancel(true);
+            pendingRender = null;
+        }
+        contentTextView = null;
+    }
+
+    // How much of the guide was scrolled into view. Bodies short enough for the single
+    // TextView are taken as read once shown.
+    private float readFraction() {
+        if (pageRecyclerView == null) {
+            return 1f;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) pageRecyclerView.getLayoutManager();
+        int count = bodyAdapter.getItemCount();
+        return count == 0 ? 0f : Math.min(1f, (layoutManager.findLastVisibleItemPosition() + 1) / (float) count);
+    }
+}
+
+// Title row followed by one row per top-level markdown block. Blocks are rendered
+// when first bound and a bounded number of rendered blocks is kept for scrolling back.
+class MarkdownBlockAdapter extends RecyclerView.Adapter<MarkdownBlockAdapter.BlockViewHolder> {
+    private static final int TYPE_TITLE = 0;
+    private static final int TYPE_TEXT = 1;
+    private static final int TYPE_CODE = 2;
+    private static final int RENDERED_BLOCKS = 64;
+
+    private final MarkdownRenderer renderer;
+    private final String title;
+    private final LruCache<Node, Spanned> rendered = new LruCache<>(RENDERED_BLOCKS);
+    private List<Node> blocks = new ArrayList<>();
+    private CharSequence placeholder;
+
+    MarkdownBlockAdapter(MarkdownRenderer renderer, String title, CharSequence placeholder) {
+        this.renderer = renderer;
+        this.title = title;
+        this.placeholder = placeholder;
+    }
+
+    void setBlocks(List<Node> blocks) {
+        this.blocks = blocks;
+        placeholder = null;
+        notifyItemChanged(0);
+        notifyItemRangeInserted(1, blocks.size());
+    }
+
+    void setPlainText(CharSequence text) {
+        placeholder = text;
+        notifyItemChanged(0);
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        if (position == 0) {
+            return TYPE_TITLE;
+        }
+        Node block = blocks.get(position - 1);
+        return block instanceof FencedCodeBlock || block instanceof IndentedCodeBlock ? TYPE_CODE : TYPE_TEXT;
+    }
+
+    @Override
+    public BlockViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        TextView textView = new TextView(parent.getContext());
+        textView.setLayoutParams(new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        int padding = (int) (12 * parent.getResources().getDisplayMetrics().density);
+        textView.setPadding(padding, padding / 2, padding, padding / 2);
+        if (viewType == TYPE_TITLE) {
+            textView.setTextSize(TypedValue.COMPLEX_UNIT_SP, 22);
+        } else if (viewType == TYPE_CODE) {
+            textView.setTypeface(Typeface.MONOSPACE);
+            textView.setTextIsSelectable(true);
+        }
+        return new BlockViewHolder(textView);
+    }
+
+    @Override
+    public void onBindViewHolder(BlockViewHolder holder, int position) {
+        if (position == 0) {
+            holder.textView.setText(placeholder != null ? title + "\n\n" + placeholder : title);
+            return;
+        }
+        Node block = blocks.get(position - 1);
+        Spanned spanned = rendered.get(block);
+        if (spanned == null) {
+            spanned = renderer.renderBlock(block);
+            rendered.put(block, spanned);
+        }
+        renderer.getMarkwon().setParsedMarkdown(holder.textView, spanned);
+    }
+
+    @Override
+    public int getItemCount() {
+        return blocks.size() + 1;
+    }
+
+    static class BlockViewHolder extends RecyclerView.ViewHolder {
+        TextView textView;
+
+        BlockViewHolder(TextView textView) {
+            super(textView);
+            this.textView = textView;
+        }
+    }
+}
+
+// The single TextView layout as the one row of the page, so short bodies get comments
+// below them the same way block mode does. The row is inflated per view holder and
+// the text set on bind, like any other row.
+class SingleViewAdapter extends RecyclerView.Adapter<SingleViewAdapter.BodyViewHolder> {
+    private final MarkdownRenderer renderer;
+    private final String title;
+    private CharSequence text;
+    private boolean rendered;
+
+    SingleViewAdapter(MarkdownRenderer renderer, String title) {
+        this.renderer = renderer;
+        this.title = title;
+    }
+
+    void setRendered(Spanned spanned) {
+        text = spanned;
+        rendered = true;
+        notifyItemChanged(0);
+    }
+
+    void setPlainText(CharSequence plain) {
+        text = plain;
+        rendered = false;
+        notifyItemChanged(0);
+    }
+
+    @Override
+    public BodyViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.fragment_detail, parent, false);
+        // Its own height, not the screen's, or the comments would sit a screen down
+        view.setLayoutParams(new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        return new BodyViewHolder(view);
+    }
+
+    @Override
+    public void onBindViewHolder(BodyViewHolder holder, int position) {
+        holder.titleTextView.setText(title);
+        if (rendered) {
+            renderer.getMarkwon().setParsedMarkdown(holder.contentTextView, (Spanned) text);
+        } else {
+            holder.contentTextView.setText(text);
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return 1;
+    }
+
+    static class BodyViewHolder extends RecyclerView.ViewHolder {
+        final TextView titleTextView;
+        final TextView contentTextView;
+
+        BodyViewHolder(View view) {
+            super(view);
+            titleTextView = view.findViewById(R.id.detailTitleTextView);
+            contentTextView = view.findViewById(R.id.detailContentTextView);
+        }
+    }
+}
+
+// A header row, one row per comment, and while the thread has more pages a footer that
+// loads the next one when it comes into view. The thread may be shared with another
+// screen, so what this adapter has announced is tracked apart from it.
+class CommentsAdapter extends RecyclerView.Adapter<CommentsAdapter.CommentViewHolder> implements CommentThreads.Listener {
+    private static final int TYPE_HEADER = 0;
+    private static final int TYPE_COMMENT = 1;
+    private static final int TYPE_MORE = 2;
+
+    private final CommentThreads threads;
+    private final CommentThreads.CommentThread thread;
+    private final LifecycleOwner owner;
+    private boolean started;
+    private boolean loading;
+    private String error;
+    private int shown;
+    private boolean moreShown;
+
+    // owner is the detail view's lifecycle; loads still running when it ends are dropped.
+    CommentsAdapter(CommentThreads threads, CommentThreads.CommentThread thread, LifecycleOwner owner) {
+        this.threads = threads;
+        this.thread = thread;
+        this.owner = owner;
+        shown = thread.getComments().size();
+        moreShown = !thread.isComplete();
+    }
+
+    // position is the last visible row within this adapter, negative while the
+    // comments are still below the screen.
+    void onScrolledTo(int position) {
+        if (position < 0 || loading || error != null) {
+            return;
+        }
+        if (!started) {
+            started = true;
+            if (!thread.isComplete()) {
+                loadMore();
+            }
+            return;
+        }
+        if (moreShown && position >= getItemCount() - 1) {
+            loadMore();
+        }
+    }
+
+    // Called periodically while the screen is visible. Also retries a failed page.
+    // While the event stream is open (live) it brings new comments, so a thread read
+    // to the end is not polled.
+    void poll(boolean live) {
+        if (!started || loading) {
+            return;
+        }
+        if (!thread.isComplete()) {
+            if (error != null) {
+                loadMore();
+            }
+            return;
+        }
+        if (live) {
+            return;
+        }
+        loading = true;
+        threads.poll(thread, owner, this);
+    }
+
+    private void loadMore() {
+        loading = true;
+        threads.loadMore(thread, owner, this);
+        notifyItemChanged(0);
+    }
+
+    @Override
+    public void onChanged(CommentThreads.CommentThread thread) {
+        loading = false;
+        error = null;
+        int count = thread.getComments().size();
+        if (count > shown) {
+            notifyItemRangeInserted(1 + shown, count - shown);
+            shown = count;
+        }
+        boolean more = !thread.isComplete();
+        if (moreShown && !more) {
+            notifyItemRemoved(1 + shown);
+        }
+        moreShown = more;
+        notifyItemChanged(0);
+    }
+
+    // After pushed comments were applied to the thread. Additions only ever land at
+    // the end; a removal can be anywhere, so it rebinds everything.
+    void onPushed(boolean removed) {
+        int count = thread.getComments().size();
+        if (removed) {
+            shown = count;
+            notifyDataSetChanged();
+            return;
+        }
+        if (count > shown) {
+            notifyItemRangeInserted(1 + shown, count - shown);
+            shown = count;
+            notifyItemChanged(0);
+        }
+    }
+
+    @Override
+    public void onError(Exception e) {
+        loading = false;
+        AppLog.w("CommentsAdapter", "Loading comments failed", "item", thread.itemId);
+        if (!thread.isComplete()) {
+            error = e.getMessage();
+            notifyItemChanged(0);
+        }
+    }
+
+    @Override
+    public int getItemViewType(int position) {
+        if (position == 0) {
+            return TYPE_HEADER;
+        }
+        return position <= shown ? TYPE_COMMENT : TYPE_MORE;
+    }
+
+    @Override
+    public CommentViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        if (viewType == TYPE_COMMENT) {
+            View view = LayoutInflater.from(parent.getContext())
+                    .inflate(android.R.layout.simple_list_item_2, parent, false);
+            return new CommentViewHolder(view, view.findViewById(android.R.id.text1),
+                    view.findViewById(android.R.id.text2));
+        }
+        TextView textView = new TextView(parent.getContext());
+        textView.setLayoutParams(new RecyclerView.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        int padding = (int) (12 * parent.getResources().getDisplayMetrics().density);
+        textView.setPadding(padding, padding, padding, padding / 2);
+        if (viewType == TYPE_HEADER) {
+            textView.setTextSize(TypedValue.COMPLEX_UNIT_SP, 18);
+        }
+        return new CommentViewHolder(textView, textView, null);
+    }
+
+    @Override
+    public void onBindViewHolder(CommentViewHolder holder, int position) {
+        int viewType = getItemViewType(position);
+        if (viewType == TYPE_HEADER) {
+            if (error != null) {
+                holder.textTextView.setText("Comments\nError loading comments: " + error);
+            } else if (shown == 0 && (loading || !started && moreShown)) {
+                holder.textTextView.setText("Comments\nLoading…");
+            } else if (shown == 0) {
+                holder.textTextView.setText("Comments\nNo comments yet");
             } else {
-                titleTextView.setText(getString(R.string.no_title));
-                contentTextView.setText(getString(R.string.no_content));
+                holder.textTextView.setText("Comments");
             }
+        } else if (viewType == TYPE_MORE) {
+            holder.textTextView.setText(error != null ? "" : "Loading more comments…");
+        } else {
+            Comment comment = thread.getComments().get(position - 1);
+            holder.textTextView.setText(comment.getContent());
+            holder.authorTextView.setText(comment.getUsername() != null ? comment.getUsername() : "");
         }
+    }
 
-        return view;
+    @Override
+    public int getItemCount() {
+        return 1 + shown + (moreShown ? 1 : 0);
+    }
+
+    static class CommentViewHolder extends RecyclerView.ViewHolder {
+        TextView textTextView;
+        // Only set on comment rows
+        TextView authorTextView;
+
+        CommentViewHolder(View itemView, TextView textTextView, TextView authorTextView) {
+            super(itemView);
+            this.textTextView = textTextView;
+            this.authorTextView = authorTextView;
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,176 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.text.Spanned;
+import android.util.LruCache;
+import androidx.lifecycle.LifecycleOwner;
+import java.util.Collections;
+import java.util.List;
+import org.commonmark.node.Node;
+
+// Full text of one guide or post, for the detail screen. Lists only carry summaries,
+// so the text comes from LocalStore when an earlier open or prefetch stored it and
+// from /guides/:id or /posts/:id otherwise. Loads go through RequestDispatcher keyed
+// by item, so an open joins a prefetch of the same item that is still running. The
+// last few texts are also kept in memory, which lets an open render without waiting.
+public class DetailLoader {
+    private static final String TAG = "DetailLoader";
+    private static final int CACHE_CHARS = 256 * 1024;
+
+    private static DetailLoader instance;
+
+    public interface Callback {
+        // content is null when the item has no text or no longer exists
+        void onLoaded(String content);
+
+        void onError(Exception e);
+    }
+
+    private final Context context;
+    private final LocalStore store;
+    private final RequestDispatcher dispatcher;
+    private final LruCache<String, String> bodies = new LruCache<String, String>(CACHE_CHARS) {
+        @Override
+        protected int sizeOf(String itemId, String body) {
+            return body.length();
+        }
+    };
+
+    private DetailLoader(Context context) {
+        this.context = context;
+        store = LocalStore.getInstance(context);
+        dispatcher = RequestDispatcher.getInstance(context);
+    }
+
+    public static synchronized DetailLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new DetailLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // itemId is "guide:<id>" or "post:<id>", the same id DetailFragment renders under.
+    public String getCached(String itemId) {
+        return bodies.get(itemId);
+    }
+
+    // Called when a sync brings a newer version of the item.
+    public void evict(String itemId) {
+        bodies.remove(itemId);
+    }
+
+    // Must be called on the main thread; delivers there.
+    public void load(String itemId, LifecycleOwner owner, Callback callback) {
+        String cached = bodies.get(itemId);
+        if (cached != null) {
+            callback.onLoaded(cached);
+            return;
+        }
+        request(itemId, RequestDispatcher.Priority.USER_VISIBLE, owner, callback);
+    }
+
+    private RequestDispatcher.Subscription<String> request(String itemId, RequestDispatcher.Priority priority,
+                                                           LifecycleOwner owner, Callback callback) {
+        return dispatcher.stream("detail " + itemId, priority, owner, (apiClient, listener) -> {
+            listener.onBatch(Collections.singletonList(read(apiClient, itemId)));
+            return 1;
+        }, new RequestDispatcher.Callback<String>() {
+            @Override
+            public void onBatch(List<String> batch) {
+                String content = batch.get(0);
+                if (content != null) {
+                    bodies.put(itemId, content);
+                }
+                callback.onLoaded(content);
+            }
+
+            @Override
+            public void onComplete(int total) {
+            }
+
+            @Override
+            public void onError(Exception e) {
+                callback.onError(e);
+            }
+        });
+    }
+
+    // Loads the text if it is not in memory yet and renders it into MarkdownRenderer's
+    // cache the way DetailFragment will show it. Failures are only logged. Returns
+    // null when there is nothing to do; cancelling the subscription drops the
+    // prefetch unless an open has joined it since.
+    public RequestDispatcher.Subscription<String> prefetch(String itemId, LifecycleOwner owner) {
+        if (bodies.get(itemId) != null) {
+            return null;
+        }
+        return request(itemId, RequestDispatcher.Priority.PREFETCH, owner, new Callback() {
+            @Override
+            public void onLoaded(String content) {
+                if (content != null) {
+                    warm(itemId, content);
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                AppLog.w(TAG, "Prefetch failed", "item", itemId);
+            }
+        });
+    }
+
+    private void warm(String itemId, String content) {
+        MarkdownRenderer renderer = MarkdownRenderer.getInstance(context);
+        if (content.length() >= DetailFragment.BLOCK_MODE_MIN_CHARS) {
+            if (renderer.getCachedBlocks(itemId, content) == null) {
+                renderer.parseBlocks(itemId, content, new MarkdownRenderer.BlocksCallback() {
+                    @Override
+                    public void onParsed(List<Node> blocks) {
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                    }
+                });
+            }
+        } else if (renderer.getCached(itemId, content) == null) {
+            renderer.render(itemId, content, new MarkdownRenderer.Callback() {
+                @Override
+                public void onRendered(Spanned rendered) {
+                }
+
+                @Override
+                public void onError(Exception e) {
+                }
+            });
+        }
+    }
+
+    // Runs on a dispatcher worker.
+    private String read(ApiClient apiClient, String itemId) throws Exception {
+        int separator = itemId.indexOf(':');
+        String kind = itemId.substring(0, separator);
+        int id = Integer.parseInt(itemId.substring(separator + 1));
+        if ("guide".equals(kind)) {
+            Guide guide = store.getGuide(id);
+            if (guide != null && guide.getDescription() != null) {
+                return guide.getDescription();
+            }
+            guide = apiClient.fetchGuide(id);
+            if (guide == null) {
+                return null;
+            }
+            store.upsertGuides(Collections.singletonList(guide));
+            return guide.getDescription();
+        }
+        Post post = store.getPost(id);
+        if (post != null && post.getContent() != null) {
+            return post.getContent();
+        }
+        post = apiClient.fetchPost(id);
+        if (post == null) {
+            return null;
+        }
+        store.upsertPosts(Collections.singletonList(post));
+        return post.getContent();
+    }
+}
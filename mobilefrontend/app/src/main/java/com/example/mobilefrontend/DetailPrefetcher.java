@@ -0,0 +1,83 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.os.PowerManager;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.HashMap;
+import java.util.Map;
+
+// Warms DetailLoader and the render cache for the rows on screen and the next few
+// once a list stops scrolling, so opening one of them does not wait on the network.
+// It only runs on an unmetered network with battery saver off; otherwise items are
+// loaded when opened, as before. Prefetches for rows scrolled away from, or for a
+// list that is gone, are cancelled before they take a worker.
+public class DetailPrefetcher extends RecyclerView.OnScrollListener {
+    private static final int AHEAD = 5;
+
+    public interface ItemIds {
+        // "guide:<id>" or "post:<id>" for the row at position
+        String itemIdAt(int position);
+    }
+
+    private final Context context;
+    private final ItemIds itemIds;
+    private final LifecycleOwner owner;
+    private final Map<String, RequestDispatcher.Subscription<String>> pending = new HashMap<>();
+
+    // owner is the list's view lifecycle; its prefetches end with it.
+    public DetailPrefetcher(Context context, LifecycleOwner owner, ItemIds itemIds) {
+        this.context = context.getApplicationContext();
+        this.owner = owner;
+        this.itemIds = itemIds;
+    }
+
+    public void attach(RecyclerView recyclerView) {
+        recyclerView.addOnScrollListener(this);
+    }
+
+    @Override
+    public void onScrollStateChanged(RecyclerView recyclerView, int newState) {
+        if (newState == RecyclerView.SCROLL_STATE_IDLE) {
+            prefetchVisible(recyclerView);
+        }
+    }
+
+    // Also called after a page is shown, since a list that never scrolls never settles.
+    public void prefetchVisible(RecyclerView recyclerView) {
+        if (!(recyclerView.getLayoutManager() instanceof LinearLayoutManager) || !isCheap()) {
+            return;
+        }
+        LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+        int first = layoutManager.findFirstVisibleItemPosition();
+        if (first == RecyclerView.NO_POSITION) {
+            return;
+        }
+        int last = Math.min(layoutManager.findLastVisibleItemPosition() + AHEAD, layoutManager.getItemCount() - 1);
+        Map<String, RequestDispatcher.Subscription<String>> previous = new HashMap<>(pending);
+        pending.clear();
+        DetailLoader loader = DetailLoader.getInstance(context);
+        for (int position = first; position <= last; position++) {
+            String itemId = itemIds.itemIdAt(position);
+            RequestDispatcher.Subscription<String> subscription = previous.remove(itemId);
+            if (subscription == null) {
+                subscription = loader.prefetch(itemId, owner);
+            }
+            if (subscription != null) {
+                pending.put(itemId, subscription);
+            }
+        }
+        for (RequestDispatcher.Subscription<String> stale : previous.values()) {
+            stale.cancel();
+        }
+    }
+
+    private boolean isCheap() {
+        ConnectivityManager connectivity = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        PowerManager power = (PowerManager) context.getSystemService(Context.POWER_SERVICE);
+        return connectivity != null && !connectivity.isActiveNetworkMetered()
+                && (power == null || !power.isPowerSaveMode());
+    }
+}
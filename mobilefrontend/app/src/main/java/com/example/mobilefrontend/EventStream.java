@@ -0,0 +1,109 @@
+package com.example.mobilefrontend;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+// Reads the text/event-stream body of /events one event at a time. Only the id and
+// data fields are used: the payload names its own kind, and reconnecting is left to
+// the caller. The server writes a comment line every 15 s, inside the transport's
+// read timeout, so a read that times out means the connection is gone.
+public class EventStream implements Closeable {
+    public static final String CONTENT_TYPE = "text/event-stream";
+
+    private final Transport.Response response;
+    private final BufferedReader reader;
+    private volatile String lastEventId;
+
+    EventStream(Transport.Response response, String lastEventId) throws IOException {
+        this.response = response;
+        this.lastEventId = lastEventId;
+        reader = new BufferedReader(new InputStreamReader(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    // Where to resume from. Moves on with every id the server sends, including the
+    // one that opens the stream before any event.
+    public String getLastEventId() {
+        return lastEventId;
+    }
+
+    // Blocks for the next event; null once the server ends the stream.
+    public LiveEvent next() throws IOException {
+        String id = null;
+        StringBuilder data = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty()) {
+                if (id != null) {
+                    lastEventId = id;
+                }
+                if (data != null) {
+                    return parse(data.toString());
+                }
+                id = null;
+                continue;
+            }
+            if (line.charAt(0) == ':') {
+                continue;
+            }
+            int colon = line.indexOf(':');
+            String field = colon < 0 ? line : line.substring(0, colon);
+            int valueStart = colon < 0 ? line.length() : colon + 1;
+            if (valueStart < line.length() && line.charAt(valueStart) == ' ') {
+                valueStart++;
+            }
+            String value = line.substring(valueStart);
+            if (field.equals("id")) {
+                id = value;
+            } else if (field.equals("data")) {
+                if (data == null) {
+                    data = new StringBuilder(value);
+                } else {
+                    data.append('\n').append(value);
+                }
+            }
+        }
+        return null;
+    }
+
+    // The stream never ends on its own, so it is dropped rather than drained. Safe to
+    // call from another thread to unblock next().
+    @Override
+    public void close() {
+        response.abort();
+    }
+
+    // {"kind", "op", "id", "item", "row"}; the row is decoded with the same adapters
+    // as a list body.
+    private static LiveEvent parse(String data) {
+        Gson gson = JsonCodec.gson();
+        JsonObject json = gson.fromJson(data, JsonObject.class);
+        String kind = string(json, "kind");
+        JsonElement id = json.get("id");
+        JsonElement row = json.get("row");
+        Guide guide = null;
+        Post post = null;
+        Comment comment = null;
+        if (row != null && row.isJsonObject()) {
+            if (LiveEvent.GUIDE.equals(kind)) {
+                guide = gson.fromJson(row, Guide.class);
+            } else if (LiveEvent.POST.equals(kind)) {
+                post = gson.fromJson(row, Post.class);
+            } else if (LiveEvent.COMMENT.equals(kind)) {
+                comment = gson.fromJson(row, Comment.class);
+            }
+        }
+        return new LiveEvent(kind, string(json, "op"), id != null && !id.isJsonNull() ? id.getAsInt() : 0,
+                string(json, "item"), guide, post, comment);
+    }
+
+    private static String string(JsonObject json, String name) {
+        JsonElement value = json.get(name);
+        return value != null && !value.isJsonNull() ? value.getAsString() : null;
+    }
+}
@@ -0,0 +1,276 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import androidx.lifecycle.LifecycleOwner;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Guides for the For You tab. The set /guides/for-you picks for the user's level is
+// fetched once per process and then ranked here, on one background thread, by how
+// recent each guide is, how much of it is still unread and how close its level is to
+// the user's. Reading a guide re-scores only that guide and moves it in place, so the
+// feed re-ranks as the user reads without asking the server again.
+public class ForYouFeed {
+    private static final String TAG = "ForYouFeed";
+    private static final String PREFS = "for_you";
+    private static final String KEY_USER_ID = "userId";
+    private static final String[] LEVELS = {"beginner", "novice", "advanced"};
+    // Each ranking term is between 0 and 1
+    private static final double RECENCY_WEIGHT = 1.0;
+    private static final double UNREAD_WEIGHT = 2.0;
+    private static final double LEVEL_WEIGHT = 0.5;
+    private static final double UNKNOWN_LEVEL_MATCH = 0.5;
+    // A guide this much older than now scores half the recency of a new one
+    private static final double RECENCY_HALF_LIFE_MS = 14.0 * 24 * 60 * 60 * 1000;
+
+    private static final Comparator<Entry> BY_SCORE = (a, b) -> Double.compare(b.score, a.score);
+
+    private static ForYouFeed instance;
+
+    public interface Listener {
+        // ranked is a snapshot; it is not changed afterwards
+        void onRanked(List<Entry> ranked);
+
+        void onError(Exception e);
+    }
+
+    public static class Entry {
+        public final Guide guide;
+        public final float progress;
+        final double score;
+
+        Entry(Guide guide, float progress, double score) {
+            this.guide = guide;
+            this.progress = progress;
+            this.score = score;
+        }
+    }
+
+    private final LocalStore store;
+    private final RequestDispatcher dispatcher;
+    private final SharedPreferences prefs;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService ranker = Executors.newSingleThreadExecutor(runnable -> new Thread(() -> {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        runnable.run();
+    }, "ranking"));
+
+    // Only touched on the ranking thread
+    private final List<Entry> ranked = new ArrayList<>();
+    private Map<Integer, Float> progress;
+    private String userLevel;
+    // Only used on the ranking thread, so one instance serves every guide scored
+    private final SimpleDateFormat updatedAtFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss", Locale.ROOT);
+    private int rankedUserId;
+
+    // Only touched on the main thread
+    private Listener listener;
+    private List<Entry> latest;
+    private int latestUserId;
+
+    private ForYouFeed(Context context) {
+        store = LocalStore.getInstance(context);
+        dispatcher = RequestDispatcher.getInstance(context);
+        prefs = context.getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        updatedAtFormat.setTimeZone(TimeZone.getTimeZone("UTC"));
+    }
+
+    public static synchronized ForYouFeed getInstance(Context context) {
+        if (instance == null) {
+            instance = new ForYouFeed(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // The user the feed is for, or 0 when none has been chosen yet.
+    public int getUserId() {
+        return prefs.getInt(KEY_USER_ID, 0);
+    }
+
+    public void setUserId(int userId) {
+        prefs.edit().putInt(KEY_USER_ID, userId).apply();
+    }
+
+    // Must be called on the main thread; delivers there. Answers from the last
+    // ranking when there is one for this user, otherwise fetches and ranks.
+    public void load(LifecycleOwner owner, Listener listener) {
+        this.listener = listener;
+        int userId = getUserId();
+        if (latest != null && latestUserId == userId) {
+            listener.onRanked(latest);
+            return;
+        }
+        fetch(userId, owner);
+    }
+
+    // Fetches the set again, for pull-to-refresh; ranking state is rebuilt from it.
+    public void refresh(LifecycleOwner owner, Listener listener) {
+        this.listener = listener;
+        fetch(getUserId(), owner);
+    }
+
+    public void removeListener(Listener listener) {
+        if (this.listener == listener) {
+            this.listener = null;
+        }
+    }
+
+    // How far into a guide the user got, from 0 to 1. Safe on any thread.
+    public void recordProgress(int guideId, float readFraction) {
+        ranker.execute(() -> {
+            store.setReadingProgress(guideId, readFraction);
+            if (progress == null) {
+                return;
+            }
+            Float previous = progress.get(guideId);
+            if (previous != null && previous >= readFraction) {
+                return;
+            }
+            progress.put(guideId, readFraction);
+            for (int i = 0; i < ranked.size(); i++) {
+                if (ranked.get(i).guide.getId() == guideId) {
+                    long start = System.nanoTime();
+                    Entry rescored = score(ranked.remove(i).guide, System.currentTimeMillis());
+                    int position = Collections.binarySearch(ranked, rescored, BY_SCORE);
+                    ranked.add(position < 0 ? -position - 1 : position, rescored);
+                    Metrics.RANK.record(System.nanoTime() - start);
+                    publish(rankedUserId);
+                    return;
+                }
+            }
+        });
+    }
+
+    private void fetch(int userId, LifecycleOwner owner) {
+        List<Guide> guides = new ArrayList<>();
+        dispatcher.stream("for-you " + userId, owner, (apiClient, batchListener) ->
+                apiClient.streamGuidesForYou(userId, batch -> {
+                    store.upsertGuides(batch);
+                    batchListener.onBatch(batch);
+                }), new RequestDispatcher.Callback<Guide>() {
+                    @Override
+                    public void onBatch(List<Guide> batch) {
+                        guides.addAll(batch);
+                    }
+
+                    @Override
+                    public void onComplete(int total) {
+                        ranker.execute(() -> rankAll(userId, guides));
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        if (listener != null) {
+                            listener.onError(e);
+                        }
+                    }
+                });
+    }
+
+    // Runs on the ranking thread.
+    private void rankAll(int userId, List<Guide> guides) {
+        long start = System.nanoTime();
+        if (progress == null) {
+            progress = store.getReadingProgress();
+        }
+        userLevel = commonestLevel(guides);
+        long now = System.currentTimeMillis();
+        ranked.clear();
+        for (Guide guide : guides) {
+            ranked.add(score(guide, now));
+        }
+        Collections.sort(ranked, BY_SCORE);
+        Metrics.RANK.record(System.nanoTime() - start);
+        AppLog.d(TAG, "Ranked", "guides", ranked.size());
+        rankedUserId = userId;
+        publish(userId);
+    }
+
+    private void publish(int userId) {
+        List<Entry> snapshot = new ArrayList<>(ranked);
+        mainHandler.post(() -> {
+            latest = snapshot;
+            latestUserId = userId;
+            if (listener != null) {
+                listener.onRanked(snapshot);
+            }
+        });
+    }
+
+    private Entry score(Guide guide, long now) {
+        Float read = progress.get(guide.getId());
+        float readFraction = read != null ? read : 0f;
+        double score = RECENCY_WEIGHT * recency(guide.getUpdatedAt(), now)
+                + UNREAD_WEIGHT * (1 - readFraction)
+                + LEVEL_WEIGHT * levelMatch(guide.getLevel());
+        return new Entry(guide, readFraction, score);
+    }
+
+    private double recency(String updatedAt, long now) {
+        if (updatedAt == null) {
+            return 0;
+        }
+        try {
+            long age = Math.max(0, now - updatedAtFormat.parse(updatedAt).getTime());
+            return Math.pow(0.5, age / RECENCY_HALF_LIFE_MS);
+        } catch (ParseException e) {
+            return 0;
+        }
+    }
+
+    // 1 at the user's level, falling off by half a point per level away. A level that
+    // is missing or not one of LEVELS says nothing either way and scores the middle.
+    private double levelMatch(String level) {
+        int index = levelIndex(level);
+        int userIndex = levelIndex(userLevel);
+        if (index < 0 || userIndex < 0) {
+            return UNKNOWN_LEVEL_MATCH;
+        }
+        return 1 - Math.abs(index - userIndex) / 2.0;
+    }
+
+    // -1 when level is not one of LEVELS
+    private static int levelIndex(String level) {
+        for (int i = 0; i < LEVELS.length; i++) {
+            if (LEVELS[i].equals(level)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // The server picks guides by the user's level without saying what it is, so it is
+    // taken to be the level most of the set shares.
+    private static String commonestLevel(List<Guide> guides) {
+        Map<String, Integer> counts = new HashMap<>();
+        String commonest = LEVELS[0];
+        int best = 0;
+        for (Guide guide : guides) {
+            if (guide.getLevel() == null) {
+                continue;
+            }
+            Integer count = counts.get(guide.getLevel());
+            count = count == null ? 1 : count + 1;
+            counts.put(guide.getLevel(), count);
+            if (count > best) {
+                best = count;
+                commonest = guide.getLevel();
+            }
+        }
+        return commonest;
+    }
+}
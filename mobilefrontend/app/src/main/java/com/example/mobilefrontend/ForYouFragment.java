@@ -0,0 +1,214 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.text.InputType;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.List;
+import java.util.Objects;
+
+// Guides picked for the user's experience level, best first. The app has no sign-in,
+// so the user id the backend ranks for is asked for once and remembered.
+public class ForYouFragment extends Fragment implements Refreshable {
+    private TextView statusTextView;
+    private LinearLayout userRow;
+    private RecyclerView recyclerView;
+    private ForYouAdapter adapter;
+    private ForYouFeed feed;
+
+    private final ForYouFeed.Listener listener = new ForYouFeed.Listener() {
+        @Override
+        public void onRanked(List<ForYouFeed.Entry> ranked) {
+            if (statusTextView == null) {
+                return;
+            }
+            adapter.submitList(ranked);
+            statusTextView.setVisibility(ranked.isEmpty() ? View.VISIBLE : View.GONE);
+            statusTextView.setText(ranked.isEmpty() ? "No guides for your level yet" : "");
+        }
+
+        @Override
+        public void onError(Exception e) {
+            AppLog.e("ForYouFragment", "Error loading feed", e);
+            if (statusTextView != null && adapter.getItemCount() == 0) {
+                // Most likely an unknown user id, so let it be entered again
+                userRow.setVisibility(View.VISIBLE);
+                statusTextView.setVisibility(View.VISIBLE);
+                statusTextView.setText("Error loading guides: " + e.getMessage());
+            }
+        }
+    };
+
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        Context context = requireContext();
+        feed = ForYouFeed.getInstance(context);
+        int padding = (int) (12 * getResources().getDisplayMetrics().density);
+
+        LinearLayout layout = new LinearLayout(context);
+        layout.setOrientation(LinearLayout.VERTICAL);
+
+        userRow = new LinearLayout(context);
+        userRow.setOrientation(LinearLayout.HORIZONTAL);
+        EditText userIdEditText = new EditText(context);
+        userIdEditText.setHint("Your user ID");
+        userIdEditText.setSingleLine(true);
+        userIdEditText.setInputType(InputType.TYPE_CLASS_NUMBER);
+        userRow.addView(userIdEditText, new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1));
+        Button showButton = new Button(context);
+        showButton.setText("Show my guides");
+        showButton.setOnClickListener(v -> {
+            try {
+                feed.setUserId(Integer.parseInt(userIdEditText.getText().toString().trim()));
+                load();
+            } catch (NumberFormatException e) {
+                userIdEditText.setText("");
+            }
+        });
+        userRow.addView(showButton);
+        layout.addView(userRow);
+
+        statusTextView = new TextView(context);
+        statusTextView.setPadding(padding, padding / 2, padding, padding / 2);
+        statusTextView.setVisibility(View.GONE);
+        layout.addView(statusTextView);
+
+        recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        adapter = new ForYouAdapter(getParentFragmentManager());
+        recyclerView.setAdapter(adapter);
+        new DetailPrefetcher(context, getViewLifecycleOwner(), adapter::itemIdAt).attach(recyclerView);
+        layout.addView(recyclerView, new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        return layout;
+    }
+
+    @Override
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        load();
+    }
+
+    private void load() {
+        boolean known = feed.getUserId() != 0;
+        userRow.setVisibility(known ? View.GONE : View.VISIBLE);
+        if (!known) {
+            return;
+        }
+        statusTextView.setVisibility(View.VISIBLE);
+        statusTextView.setText(getString(R.string.rendering_content));
+        feed.load(getViewLifecycleOwner(), listener);
+    }
+
+    @Override
+    public void refresh() {
+        if (feed.getUserId() != 0) {
+            feed.refresh(getViewLifecycleOwner(), listener);
+        }
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        feed.removeListener(listener);
+        statusTextView = null;
+    }
+}
+
+class ForYouAdapter extends RecyclerView.Adapter<ForYouAdapter.EntryViewHolder> {
+    private static final DiffUtil.ItemCallback<ForYouFeed.Entry> DIFF_CALLBACK = new DiffUtil.ItemCallback<ForYouFeed.Entry>() {
+        @Override
+        public boolean areItemsTheSame(ForYouFeed.Entry oldItem, ForYouFeed.Entry newItem) {
+            return oldItem.guide.getId() == newItem.guide.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(ForYouFeed.Entry oldItem, ForYouFeed.Entry newItem) {
+            return oldItem.progress == newItem.progress
+                    && Objects.equals(oldItem.guide.getTitle(), newItem.guide.getTitle())
+                    && Objects.equals(oldItem.guide.getLevel(), newItem.guide.getLevel());
+        }
+    };
+
+    private final AsyncListDiffer<ForYouFeed.Entry> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
+    private final FragmentManager fragmentManager;
+
+    ForYouAdapter(FragmentManager fragmentManager) {
+        this.fragmentManager = fragmentManager;
+    }
+
+    // A re-rank usually moves a single row, which the diff turns into one move.
+    void submitList(List<ForYouFeed.Entry> entries) {
+        differ.submitList(entries);
+    }
+
+    String itemIdAt(int position) {
+        return "guide:" + differ.getCurrentList().get(position).guide.getId();
+    }
+
+    @Override
+    public EntryViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(android.R.layout.simple_list_item_2, parent, false);
+        EntryViewHolder holder = new EntryViewHolder(view);
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position == RecyclerView.NO_POSITION) {
+                return;
+            }
+            Guide guide = differ.getCurrentList().get(position).guide;
+            String title = guide.getTitle() != null ? guide.getTitle() : "No Title";
+            fragmentManager
+                    .beginTransaction()
+                    .replace(R.id.fragment_container, DetailFragment.newInstance("guide:" + guide.getId(), title,
+                            guide.getDescription()))
+                    .addToBackStack(null)
+                    .commit();
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(EntryViewHolder holder, int position) {
+        long start = System.nanoTime();
+        ForYouFeed.Entry entry = differ.getCurrentList().get(position);
+        holder.titleTextView.setText(entry.guide.getTitle() != null ? entry.guide.getTitle() : "No Title");
+        String level = entry.guide.getLevel() != null ? entry.guide.getLevel() : "";
+        if (entry.progress >= 1f) {
+            holder.detailTextView.setText(level + " · read");
+        } else if (entry.progress > 0f) {
+            holder.detailTextView.setText(level + " · " + Math.round(entry.progress * 100) + "% read");
+        } else {
+            holder.detailTextView.setText(level);
+        }
+        Metrics.BIND.record(System.nanoTime() - start);
+    }
+
+    @Override
+    public int getItemCount() {
+        return differ.getCurrentList().size();
+    }
+
+    static class EntryViewHolder extends RecyclerView.ViewHolder {
+        TextView titleTextView;
+        TextView detailTextView;
+
+        EntryViewHolder(View itemView) {
+            super(itemView);
+            titleTextView = itemView.findViewById(android.R.id.text1);
+            detailTextView = itemView.findViewById(android.R.id.text2);
+        }
+    }
+}
@@ -4,15 +4,23 @@ public class Guide {
     private int id;
     private String title;
     private String description;
+    private String summary;
     private String status;
+    private String level;
     private int userId;
+    private String username;
+    private String updatedAt;
 
-    public Guide(int id, String title, String description, String status, int userId) {
+    public Guide(int id, String title, String description, String summary, String status, String level, int userId, String username, String updatedAt) {
         this.id = id;
         this.title = title;
         this.description = description;
+        this.summary = summary;
         this.status = status;
+        this.level = level;
         this.userId = userId;
+        this.username = username;
+        this.updatedAt = updatedAt;
     }
 
     public int getId() {
@@ -27,16 +35,36 @@ public class Guide {
         return description;
     }
 
+    // Start of the description when the row came from a summary list, in which case
+    // description is null until the guide itself is loaded
+    public String getSummary() {
+        return summary;
+    }
+
     public String getStatus() {
         return status;
     }
 
+    // beginner, novice or advanced
+    public String getLevel() {
+        return level;
+    }
+
     public int getUserId() {
         return userId;
     }
 
+    // Author name from the included User, or null when the row came without it
+    public String getUsername() {
+        return username;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
     @Override
     public String toString() {
-        return "Guide{id=" + id + ", title='" + title + "', description='" + description + "', status='" + status + "', userId=" + userId + "}";
+        return "Guide{id=" + id + ", title='" + title + "', description='" + description + "', summary='" + summary + "', status='" + status + "', level='" + level + "', userId=" + userId + ", username='" + username + "', updatedAt='" + updatedAt + "'}";
     }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.example.mobilefrontend;
 
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,119 +8,277 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.util.ArrayList;
+import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import java.util.List;
+import java.util.Objects;
 
-public class GuidesFragment extends Fragment {
+public class GuidesFragment extends Fragment implements Refreshable {
+    private static final int PAGE_SIZE = 30;
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int MAX_PAGES = 5;
+
+    private SwipeRefreshLayout swipeRefreshLayout;
     private RecyclerView recyclerView;
     private TextView emptyTextView;
     private ProgressBar progressBar;
     private GuideAdapter adapter;
+    private DetailPrefetcher prefetcher;
+    // Outlives this fragment; holds the loaded pages and scroll position
+    private ListStateViewModel state;
+    private PageWindow<Guide> window;
+    private PagedLoader<Guide> loader;
+    private boolean syncing;
+    // nanoTime of onCreateView until the first non-empty page is shown, then 0
+    private long firstContentStart;
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
-        Log.d("GuidesFragment", "onCreateView started");
+        AppLog.d("GuidesFragment", "onCreateView started");
+        firstContentStart = System.nanoTime();
         View view = inflater.inflate(R.layout.fragment_list, container, false);
         recyclerView = view.findViewById(R.id.recyclerView);
         emptyTextView = view.findViewById(R.id.emptyTextView);
         progressBar = view.findViewById(R.id.progressBar);
 
         if (recyclerView == null) {
-            Log.e("GuidesFragment", "RecyclerView is null");
+            AppLog.e("GuidesFragment", "RecyclerView is null");
             return view;
         }
         if (emptyTextView == null) {
-            Log.e("GuidesFragment", "EmptyTextView is null");
+            AppLog.e("GuidesFragment", "EmptyTextView is null");
             return view;
         }
         if (progressBar == null) {
-            Log.e("GuidesFragment", "ProgressBar is null");
+            AppLog.e("GuidesFragment", "ProgressBar is null");
             return view;
         }
 
-        Log.d("GuidesFragment", "Setting up RecyclerView");
+        AppLog.d("GuidesFragment", "Setting up RecyclerView");
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new GuideAdapter(new ArrayList<>(), getParentFragmentManager());
+        state = new ViewModelProvider(requireActivity()).get("guides", ListStateViewModel.class);
+        window = state.getWindow(MAX_PAGES, Guide::getId);
+        adapter = new GuideAdapter(getParentFragmentManager());
         recyclerView.setAdapter(adapter);
+        prefetcher = new DetailPrefetcher(requireContext(), getViewLifecycleOwner(), adapter::itemIdAt);
+        prefetcher.attach(recyclerView);
+
+        // The list sits inside the layout, so tell the refresh layout when it can scroll up
+        swipeRefreshLayout = new SwipeRefreshLayout(requireContext());
+        swipeRefreshLayout.addView(view, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        swipeRefreshLayout.setOnChildScrollUpCallback((parent, child) -> recyclerView.canScrollVertically(-1));
+        swipeRefreshLayout.setOnRefreshListener(this::refresh);
 
-        Log.d("GuidesFragment", "Loading guides");
-        loadGuides();
-        Log.d("GuidesFragment", "onCreateView finished");
-        return view;
+        AppLog.d("GuidesFragment", "onCreateView finished");
+        return swipeRefreshLayout;
+    }
+
+    @Override
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        if (adapter != null) {
+            AppLog.d("GuidesFragment", "Loading guides");
+            loadGuides();
+        }
+    }
+
+    // Always asks the server: sync reads are conditional GETs, so a refresh sees every
+    // change and an unchanged list costs a 304. A sync already running is joined
+    // rather than repeated.
+    @Override
+    public void refresh() {
+        if (loader != null) {
+            AppLog.d("GuidesFragment", "Refreshing guides");
+            syncGuides(RequestDispatcher.Priority.USER_VISIBLE);
+        }
     }
 
     private void loadGuides() {
-        new Thread(() -> {
-            try {
-                Log.d("GuidesFragment", "Fetching guides from API");
-                ApiClient apiClient = new ApiClient();
-                String response = apiClient.getGuides();
-                Log.d("GuidesFragment", "API Response: " + response);
-                Gson gson = new Gson();
-                List<Guide> guides = gson.fromJson(response, new TypeToken<List<Guide>>(){}.getType());
-                if (guides == null) {
-                    Log.e("GuidesFragment", "Parsed guides list is null");
-                    guides = new ArrayList<>();
-                }
-                for (Guide guide : guides) {
-                    if (guide == null) {
-                        Log.e("GuidesFragment", "Found null Guide in parsed list");
-                    } else {
-                        Log.d("GuidesFragment", "Guide: id=" + guide.getId() + ", title=" + guide.getTitle() + ", description=" + guide.getDescription());
+        AppLog.d("GuidesFragment", "Loading guides from local store");
+        LocalStore store = LocalStore.getInstance(requireContext());
+        loader = new PagedLoader<>("local /guides", window, PAGE_SIZE, PREFETCH_DISTANCE,
+                (apiClient, cursor, limit, listener) -> {
+                    List<Guide> page = store.guidesPage(cursor, limit);
+                    listener.onBatch(page);
+                    return page.size();
+                },
+                adapter::submitList,
+                new PagedLoader.Listener() {
+                    @Override
+                    public void onPageLoaded(int windowSize) {
+                        showWindow(windowSize);
                     }
-                }
-                List<Guide> finalGuides = guides;
-                getActivity().runOnUiThread(() -> {
-                    progressBar.setVisibility(View.GONE);
-                    if (finalGuides.isEmpty()) {
-                        Log.d("GuidesFragment", "No guides available");
+
+                    @Override
+                    public void onError(Exception e) {
+                        AppLog.e("GuidesFragment", "Error loading guides", e);
+                        if (window.size() > 0) {
+                            return;
+                        }
+                        progressBar.setVisibility(View.GONE);
                         recyclerView.setVisibility(View.GONE);
                         emptyTextView.setVisibility(View.VISIBLE);
-                        emptyTextView.setText("No guides available");
-                    } else {
-                        Log.d("GuidesFragment", "Setting guides in adapter");
-                        adapter.setGuides(finalGuides);
-                        recyclerView.setVisibility(View.VISIBLE);
-                        emptyTextView.setVisibility(View.GONE);
+                        emptyTextView.setText("Error loading guides: " + e.getMessage());
                     }
                 });
-            } catch (Exception e) { // Changed from IOException to Exception
-                e.printStackTrace();
-                Log.e("GuidesFragment", "Error loading guides: " + e.getMessage());
-                getActivity().runOnUiThread(() -> {
-                    progressBar.setVisibility(View.GONE);
-                    recyclerView.setVisibility(View.GONE);
-                    emptyTextView.setVisibility(View.VISIBLE);
-                    emptyTextView.setText("Error loading guides: " + e.getMessage());
-                });
+        loader.attach(recyclerView, getViewLifecycleOwner(), RequestDispatcher.getInstance(requireContext()));
+        LiveUpdates live = LiveUpdates.getInstance(requireContext());
+        live.observe(getViewLifecycleOwner(), this::onLiveEvents);
+        if (window.size() > 0) {
+            // Back on this tab: redraw what is already loaded and put the scroll back
+            adapter.submitList(window.snapshot());
+            recyclerView.getLayoutManager().onRestoreInstanceState(state.getScrollState());
+            showWindow(window.size());
+        } else {
+            loader.loadNext();
+        }
+        if (window.size() == 0) {
+            syncGuides(RequestDispatcher.Priority.USER_VISIBLE);
+        } else if (state.isStale() && !live.canResume()) {
+            // Rows are already on screen, so catching up must not hold up their loads.
+            // Once the event stream has been followed, reopening it brings the changes.
+            syncGuides(RequestDispatcher.Priority.MAINTENANCE);
+        }
+    }
+
+    // Pushed changes, at most once a frame. The store already has them, so only the
+    // loaded pages are patched; rows outside them are current when paged in.
+    private void onLiveEvents(List<LiveEvent> events) {
+        boolean changed = false;
+        boolean added = false;
+        for (LiveEvent event : events) {
+            if (LiveEvent.RESYNC.equals(event.getKind())) {
+                syncGuides(RequestDispatcher.Priority.MAINTENANCE);
+            } else if (LiveEvent.GUIDE.equals(event.getKind())) {
+                if (event.isDelete()) {
+                    changed |= window.remove(event.getId());
+                } else if (event.getGuide() != null) {
+                    changed |= window.upsert(event.getGuide());
+                    added = true;
+                }
+            }
+        }
+        if (changed) {
+            adapter.submitList(window.snapshot());
+            showWindow(window.size());
+        } else if (added && window.size() == 0) {
+            loader.refresh();
+        }
+    }
+
+    private void showWindow(int windowSize) {
+        if (windowSize == 0 && syncing) {
+            // Nothing stored yet; keep the spinner until the first sync lands
+            return;
+        }
+        progressBar.setVisibility(View.GONE);
+        if (windowSize == 0) {
+            AppLog.d("GuidesFragment", "No guides available");
+            recyclerView.setVisibility(View.GONE);
+            emptyTextView.setVisibility(View.VISIBLE);
+            emptyTextView.setText("No guides available");
+        } else {
+            recyclerView.setVisibility(View.VISIBLE);
+            emptyTextView.setVisibility(View.GONE);
+            recyclerView.post(() -> prefetcher.prefetchVisible(recyclerView));
+            if (firstContentStart != 0) {
+                Metrics.FIRST_CONTENT_GUIDES.record(System.nanoTime() - firstContentStart);
+                Metrics.firstRowsShown();
+                firstContentStart = 0;
             }
-        }).start();
+        }
+    }
+
+    private void syncGuides(RequestDispatcher.Priority priority) {
+        SyncManager syncManager = new SyncManager(requireContext());
+        if (syncing) {
+            if (priority == RequestDispatcher.Priority.USER_VISIBLE) {
+                syncManager.prioritizeGuides();
+            }
+            return;
+        }
+        syncing = true;
+        syncManager.syncGuides(priority, getViewLifecycleOwner(), new RequestDispatcher.Callback<Guide>() {
+            @Override
+            public void onBatch(List<Guide> batch) {
+            }
+
+            @Override
+            public void onComplete(int changed) {
+                syncing = false;
+                state.markSynced();
+                swipeRefreshLayout.setRefreshing(false);
+                AppLog.d("GuidesFragment", "Synced guides", "changed", changed);
+                if (changed > 0 || window.size() == 0) {
+                    loader.refresh();
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                syncing = false;
+                swipeRefreshLayout.setRefreshing(false);
+                AppLog.e("GuidesFragment", "Error syncing guides", e);
+                if (window.size() > 0) {
+                    return;
+                }
+                progressBar.setVisibility(View.GONE);
+                recyclerView.setVisibility(View.GONE);
+                emptyTextView.setVisibility(View.VISIBLE);
+                emptyTextView.setText("Error loading guides: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (recyclerView != null && recyclerView.getLayoutManager() != null) {
+            state.setScrollState(recyclerView.getLayoutManager().onSaveInstanceState());
+        }
     }
 }
 
 class GuideAdapter extends RecyclerView.Adapter<GuideAdapter.GuideViewHolder> {
-    private List<Guide> guides;
+    private static final DiffUtil.ItemCallback<Guide> DIFF_CALLBACK = new DiffUtil.ItemCallback<Guide>() {
+        @Override
+        public boolean areItemsTheSame(Guide oldItem, Guide newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(Guide oldItem, Guide newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getSummary(), newItem.getSummary())
+                    && Objects.equals(oldItem.getStatus(), newItem.getStatus());
+        }
+    };
+
+    private final AsyncListDiffer<Guide> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private FragmentManager fragmentManager;
 
-    public GuideAdapter(List<Guide> guides, FragmentManager fragmentManager) {
-        this.guides = guides != null ? guides : new ArrayList<>();
+    public GuideAdapter(FragmentManager fragmentManager) {
         this.fragmentManager = fragmentManager;
-        Log.d("GuideAdapter", "Adapter initialized with " + this.guides.size() + " items");
     }
 
-    public void setGuides(List<Guide> guides) {
-        this.guides = guides != null ? guides : new ArrayList<>();
-        Log.d("GuideAdapter", "setGuides called with " + this.guides.size() + " items: " + this.guides.toString());
-        notifyDataSetChanged();
+    // The diff runs on a background thread; only rows whose id or content changed
+    // are inserted, removed, moved or rebound.
+    public void submitList(List<Guide> guides) {
+        differ.submitList(guides);
+    }
+
+    // DetailLoader id of the row at position.
+    public String itemIdAt(int position) {
+        return "guide:" + differ.getCurrentList().get(position).getId();
     }
 
     @Override
     public GuideViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        Log.d("GuideAdapter", "onCreateViewHolder called");
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(android.R.layout.simple_list_item_1, parent, false);
         return new GuideViewHolder(view);
@@ -129,10 +286,15 @@ class GuideAdapter extends RecyclerView.Adapter<GuideAdapter.GuideViewHolder> {
 
     @Override
     public void onBindViewHolder(GuideViewHolder holder, int position) {
-        Log.d("GuideAdapter", "onBindViewHolder called for position " + position);
-        Guide guide = guides.get(position);
+        long start = System.nanoTime();
+        bindGuide(holder, position);
+        Metrics.BIND.record(System.nanoTime() - start);
+    }
+
+    private void bindGuide(GuideViewHolder holder, int position) {
+        Guide guide = differ.getCurrentList().get(position);
         if (guide == null) {
-            Log.e("GuideAdapter", "Guide at position " + position + " is null");
+            AppLog.e("GuideAdapter", "Null guide", "position", position);
             holder.textView.setText("Error: Guide not available");
             return;
         }
@@ -140,12 +302,13 @@ class GuideAdapter extends RecyclerView.Adapter<GuideAdapter.GuideViewHolder> {
         holder.textView.setText(title);
         holder.itemView.setOnClickListener(v -> {
             if (fragmentManager == null) {
-                Log.e("GuideAdapter", "FragmentManager is null");
+                AppLog.e("GuideAdapter", "FragmentManager is null");
                 return;
             }
-            Log.d("GuideAdapter", "Guide clicked at position " + position + ": " + title);
-            String description = guide.getDescription() != null ? guide.getDescription() : "No Description";
-            DetailFragment detailFragment = DetailFragment.newInstance(title, description);
+            AppLog.d("GuideAdapter", "Guide clicked", "id", guide.getId());
+            // List rows only carry a summary; the detail screen loads the description
+            DetailFragment detailFragment = DetailFragment.newInstance("guide:" + guide.getId(), title,
+                    guide.getDescription());
             fragmentManager
                     .beginTransaction()
                     .replace(R.id.fragment_container, detailFragment)
@@ -156,9 +319,7 @@ class GuideAdapter extends RecyclerView.Adapter<GuideAdapter.GuideViewHolder> {
 
     @Override
     public int getItemCount() {
-        int count = guides.size();
-        Log.d("GuideAdapter", "getItemCount: " + count);
-        return count;
+        return differ.getCurrentList().size();
     }
 
     static class GuideViewHolder extends RecyclerView.ViewHolder {
@@ -167,7 +328,6 @@ class GuideAdapter extends RecyclerView.Adapter<GuideAdapter.GuideViewHolder> {
         GuideViewHolder(View itemView) {
             super(itemView);
             textView = itemView.findViewById(android.R.id.text1);
-            Log.d("GuideAdapter", "GuideViewHolder created, textView: " + (textView != null));
         }
     }
 }
\ No newline at end of file
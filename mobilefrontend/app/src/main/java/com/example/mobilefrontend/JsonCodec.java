@@ -0,0 +1,297 @@
+package com.example.mobilefrontend;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+
+// The one Gson instance the app decodes with. Guide, Post and Comment go through
+// hand-written TypeAdapters instead of reflection: no field lookups on first use,
+// nothing for R8 to keep, ints read without boxing, and the nested User object the
+// backend includes flattened into username. Short repeated values are pooled so a
+// long list holds one copy of each status and author name rather than one per row.
+public final class JsonCodec {
+    private static final int MAX_POOLED = 1024;
+    private static final ConcurrentHashMap<String, String> pool = new ConcurrentHashMap<>();
+
+    // Built on first decode rather than when intern() first loads this class, which
+    // LocalStore does on every page read
+    private static final class GsonHolder {
+        static final Gson GSON = new GsonBuilder()
+                .registerTypeAdapter(Guide.class, new GuideTypeAdapter())
+                .registerTypeAdapter(Post.class, new PostTypeAdapter())
+                .registerTypeAdapter(Comment.class, new CommentTypeAdapter())
+                .create();
+    }
+
+    private JsonCodec() {
+    }
+
+    public static Gson gson() {
+        return GsonHolder.GSON;
+    }
+
+    // Canonical copy of a short, frequently repeated value. The enum-like values the
+    // backend defines resolve to literals; anything else is pooled up to a fixed size.
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        switch (value) {
+            case "draft":
+                return "draft";
+            case "published":
+                return "published";
+            case "beginner":
+                return "beginner";
+            case "novice":
+                return "novice";
+            case "advanced":
+                return "advanced";
+            default:
+                break;
+        }
+        String pooled = pool.get(value);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (pool.size() >= MAX_POOLED) {
+            return value;
+        }
+        pooled = pool.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    // Reads {"username": ...} from an included User, skipping anything else in it.
+    static String readUsername(JsonReader in) throws IOException {
+        String username = null;
+        in.beginObject();
+        while (in.hasNext()) {
+            if ("username".equals(in.nextName()) && in.peek() == JsonToken.STRING) {
+                username = intern(in.nextString());
+            } else {
+                in.skipValue();
+            }
+        }
+        in.endObject();
+        return username;
+    }
+
+    static class GuideTypeAdapter extends TypeAdapter<Guide> {
+        @Override
+        public Guide read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            int id = 0;
+            int userId = 0;
+            String title = null;
+            String description = null;
+            String summary = null;
+            String status = null;
+            String level = null;
+            String username = null;
+            String updatedAt = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        id = in.nextInt();
+                        break;
+                    case "title":
+                        title = in.nextString();
+                        break;
+                    case "description":
+                        description = in.nextString();
+                        break;
+                    case "summary":
+                        summary = in.nextString();
+                        break;
+                    case "status":
+                        status = intern(in.nextString());
+                        break;
+                    case "level":
+                        level = intern(in.nextString());
+                        break;
+                    case "userId":
+                        userId = in.nextInt();
+                        break;
+                    case "User":
+                        username = readUsername(in);
+                        break;
+                    case "updatedAt":
+                        updatedAt = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Guide(id, title, description, summary, status, level, userId, username, updatedAt);
+        }
+
+        @Override
+        public void write(JsonWriter out, Guide guide) throws IOException {
+            if (guide == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(guide.getId());
+            out.name("title").value(guide.getTitle());
+            out.name("description").value(guide.getDescription());
+            out.name("summary").value(guide.getSummary());
+            out.name("status").value(guide.getStatus());
+            out.name("level").value(guide.getLevel());
+            out.name("userId").value(guide.getUserId());
+            writeUser(out, guide.getUsername());
+            out.name("updatedAt").value(guide.getUpdatedAt());
+            out.endObject();
+        }
+    }
+
+    static class PostTypeAdapter extends TypeAdapter<Post> {
+        @Override
+        public Post read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            int id = 0;
+            int userId = 0;
+            String title = null;
+            String content = null;
+            String summary = null;
+            String username = null;
+            String updatedAt = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        id = in.nextInt();
+                        break;
+                    case "title":
+                        title = in.nextString();
+                        break;
+                    case "content":
+                        content = in.nextString();
+                        break;
+                    case "summary":
+                        summary = in.nextString();
+                        break;
+                    case "userId":
+                        userId = in.nextInt();
+                        break;
+                    case "User":
+                        username = readUsername(in);
+                        break;
+                    case "updatedAt":
+                        updatedAt = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Post(id, title, content, summary, userId, username, updatedAt);
+        }
+
+        @Override
+        public void write(JsonWriter out, Post post) throws IOException {
+            if (post == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(post.getId());
+            out.name("title").value(post.getTitle());
+            out.name("content").value(post.getContent());
+            out.name("summary").value(post.getSummary());
+            out.name("userId").value(post.getUserId());
+            writeUser(out, post.getUsername());
+            out.name("updatedAt").value(post.getUpdatedAt());
+            out.endObject();
+        }
+    }
+
+    static class CommentTypeAdapter extends TypeAdapter<Comment> {
+        @Override
+        public Comment read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            int id = 0;
+            int userId = 0;
+            String content = null;
+            String username = null;
+            String createdAt = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                String name = in.nextName();
+                if (in.peek() == JsonToken.NULL) {
+                    in.nextNull();
+                    continue;
+                }
+                switch (name) {
+                    case "id":
+                        id = in.nextInt();
+                        break;
+                    case "content":
+                        content = in.nextString();
+                        break;
+                    case "userId":
+                        userId = in.nextInt();
+                        break;
+                    case "User":
+                        username = readUsername(in);
+                        break;
+                    case "createdAt":
+                        createdAt = in.nextString();
+                        break;
+                    default:
+                        in.skipValue();
+                }
+            }
+            in.endObject();
+            return new Comment(id, content, userId, username, createdAt);
+        }
+
+        @Override
+        public void write(JsonWriter out, Comment comment) throws IOException {
+            if (comment == null) {
+                out.nullValue();
+                return;
+            }
+            out.beginObject();
+            out.name("id").value(comment.getId());
+            out.name("content").value(comment.getContent());
+            out.name("userId").value(comment.getUserId());
+            writeUser(out, comment.getUsername());
+            out.name("createdAt").value(comment.getCreatedAt());
+            out.endObject();
+        }
+    }
+
+    private static void writeUser(JsonWriter out, String username) throws IOException {
+        if (username == null) {
+            return;
+        }
+        out.name("User").beginObject().name("username").value(username).endObject();
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.mobilefrontend;
+
+import android.os.Parcelable;
+import androidx.lifecycle.ViewModel;
+
+// What a list tab keeps while its fragment is replaced: the loaded page window, the
+// scroll position and when it last synced. Scope it to the activity under a per-tab
+// key so it outlives both tab switches and configuration changes. It holds no views
+// or listeners; a new fragment re-attaches to it and redraws without loading.
+public class ListStateViewModel extends ViewModel {
+    // A tab shown again within this long is not synced; pull-to-refresh still is
+    private static final long STALE_MS = 60 * 1000;
+
+    private PageWindow<?> window;
+    private Parcelable scrollState;
+    private long syncedAt;
+
+    @SuppressWarnings("unchecked")
+    public <T> PageWindow<T> getWindow(int maxPages, PageWindow.IdOf<T> idOf) {
+        if (window == null) {
+            window = new PageWindow<>(maxPages, idOf);
+        }
+        return (PageWindow<T>) window;
+    }
+
+    public Parcelable getScrollState() {
+        return scrollState;
+    }
+
+    public void setScrollState(Parcelable scrollState) {
+        this.scrollState = scrollState;
+    }
+
+    public boolean isStale() {
+        return System.currentTimeMillis() - syncedAt > STALE_MS;
+    }
+
+    public void markSynced() {
+        syncedAt = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.mobilefrontend;
+
+// One change from the server's event stream. For an upsert exactly one of guide,
+// post and comment is set, in the shape a summary sync returns; a comment's item is
+// the "guide:<id>" or "post:<id>" it belongs to. A RESYNC event carries nothing and
+// means changes were missed, so whoever holds a copy should sync it instead.
+public class LiveEvent {
+    public static final String GUIDE = "guide";
+    public static final String POST = "post";
+    public static final String COMMENT = "comment";
+    public static final String RESYNC = "resync";
+
+    public static final String UPSERT = "upsert";
+    public static final String DELETE = "delete";
+
+    private final String kind;
+    private final String op;
+    private final int id;
+    private final String item;
+    private final Guide guide;
+    private final Post post;
+    private final Comment comment;
+
+    public LiveEvent(String kind, String op, int id, String item, Guide guide, Post post, Comment comment) {
+        this.kind = kind;
+        this.op = op;
+        this.id = id;
+        this.item = item;
+        this.guide = guide;
+        this.post = post;
+        this.comment = comment;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public boolean isDelete() {
+        return DELETE.equals(op);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getItem() {
+        return item;
+    }
+
+    public Guide getGuide() {
+        return guide;
+    }
+
+    public Post getPost() {
+        return post;
+    }
+
+    public Comment getComment() {
+        return comment;
+    }
+
+    @Override
+    public String toString() {
+        return "LiveEvent{kind='" + kind + "', op='" + op + "', id=" + id + ", item='" + item + "'}";
+    }
+}
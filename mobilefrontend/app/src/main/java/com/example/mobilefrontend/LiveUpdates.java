@@ -0,0 +1,243 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.view.Choreographer;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Keeps the server's change feed open while a screen showing guides, posts or
+// comments is started, so those screens stay current without refetching. Each change
+// is written to the LocalStore on the stream's own thread as it arrives; listeners
+// then get the changes on the main thread at most once per frame, with repeats for
+// the same row collapsed, so a burst of edits costs one update. A dropped stream is
+// reopened with backoff from the last event id and the server replays what was
+// missed; when it cannot, listeners get a RESYNC event and fall back to a sync.
+// The stream runs on one owned thread, so a connection reopened right after a stop
+// waits for the old reader to finish and two never read at once.
+public class LiveUpdates {
+    private static final String TAG = "LiveUpdates";
+    private static final long MIN_BACKOFF_MS = 1000;
+    private static final long MAX_BACKOFF_MS = 60 * 1000;
+
+    private static LiveUpdates instance;
+
+    public interface Listener {
+        void onEvents(List<LiveEvent> events);
+    }
+
+    private final RequestDispatcher dispatcher;
+    private final LocalStore store;
+    private final DetailLoader details;
+    private final CommentThreads comments;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService streamExecutor = Executors.newSingleThreadExecutor(runnable -> new Thread(() -> {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        runnable.run();
+    }, "live-updates"));
+    // Main thread only
+    private final List<Listener> listeners = new ArrayList<>();
+    private Connection connection;
+    // Guarded by itself; events read but not yet handed to listeners
+    private final List<LiveEvent> pending = new ArrayList<>();
+    private long pendingSince;
+    private boolean frameScheduled;
+    // Survives reconnects, so a new stream picks up where the last one stopped
+    private volatile String lastEventId;
+    private volatile boolean connected;
+
+    private final Choreographer.FrameCallback deliver = frameTimeNanos -> deliver();
+
+    private LiveUpdates(Context context) {
+        dispatcher = RequestDispatcher.getInstance(context);
+        store = LocalStore.getInstance(context);
+        details = DetailLoader.getInstance(context);
+        comments = CommentThreads.getInstance(context);
+    }
+
+    public static synchronized LiveUpdates getInstance(Context context) {
+        if (instance == null) {
+            instance = new LiveUpdates(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // Hands changes to listener while owner is started; the stream is open while
+    // anyone is listening. Call on the main thread.
+    public void observe(LifecycleOwner owner, Listener listener) {
+        owner.getLifecycle().addObserver(new DefaultLifecycleObserver() {
+            @Override
+            public void onStart(LifecycleOwner owner) {
+                listeners.add(listener);
+                if (connection == null) {
+                    connection = new Connection();
+                    connection.future = streamExecutor.submit(connection);
+                }
+            }
+
+            @Override
+            public void onStop(LifecycleOwner owner) {
+                unobserve(listener);
+            }
+
+            @Override
+            public void onDestroy(LifecycleOwner owner) {
+                unobserve(listener);
+                owner.getLifecycle().removeObserver(this);
+            }
+        });
+    }
+
+    // Main thread only. Stops the stream once the last listener has gone.
+    private void unobserve(Listener listener) {
+        listeners.remove(listener);
+        if (listeners.isEmpty() && connection != null) {
+            connection.stop();
+            connection = null;
+        }
+    }
+
+    public boolean isConnected() {
+        return connected;
+    }
+
+    // Whether the feed has been followed before. If so, changes made while it was
+    // closed are replayed (or a resync sent) once it opens again, so a screen coming
+    // back need not sync on its own.
+    public boolean canResume() {
+        return lastEventId != null;
+    }
+
+    private class Connection implements Runnable {
+        private volatile boolean stopped;
+        private volatile EventStream stream;
+        // Set on the main thread right after submitting, read there by stop()
+        private Future<?> future;
+
+        @Override
+        public void run() {
+            long backoff = MIN_BACKOFF_MS;
+            while (!stopped) {
+                EventStream events = null;
+                try {
+                    events = dispatcher.getApiClient().openEvents(lastEventId);
+                    stream = events;
+                    if (stopped) {
+                        break;
+                    }
+                    connected = true;
+                    backoff = MIN_BACKOFF_MS;
+                    AppLog.d(TAG, "Stream open", "lastEventId", lastEventId);
+                    LiveEvent event;
+                    while (!stopped && !Thread.currentThread().isInterrupted() && (event = events.next()) != null) {
+                        apply(event);
+                        lastEventId = events.getLastEventId();
+                    }
+                } catch (Exception e) {
+                    if (!stopped) {
+                        AppLog.w(TAG, "Stream dropped", "error", e.getMessage());
+                    }
+                } finally {
+                    connected = false;
+                    if (events != null) {
+                        lastEventId = events.getLastEventId();
+                        events.close();
+                    }
+                }
+                if (stopped) {
+                    break;
+                }
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+            }
+        }
+
+        // From the main thread. Closing the stream unblocks a read in progress and the
+        // interrupt cuts a backoff sleep short; a connection not yet started never runs.
+        void stop() {
+            stopped = true;
+            EventStream events = stream;
+            if (events != null) {
+                events.close();
+            }
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    // On the stream thread: the store first, so a page loaded from it from now on
+    // already has the change.
+    private void apply(LiveEvent event) {
+        String kind = event.getKind();
+        if (LiveEvent.GUIDE.equals(kind)) {
+            if (event.isDelete()) {
+                store.deleteGuide(event.getId());
+            } else if (event.getGuide() != null) {
+                store.upsertGuides(Collections.singletonList(event.getGuide()));
+            }
+            details.evict("guide:" + event.getId());
+        } else if (LiveEvent.POST.equals(kind)) {
+            if (event.isDelete()) {
+                store.deletePost(event.getId());
+            } else if (event.getPost() != null) {
+                store.upsertPosts(Collections.singletonList(event.getPost()));
+            }
+            details.evict("post:" + event.getId());
+        } else if (!LiveEvent.COMMENT.equals(kind) && !LiveEvent.RESYNC.equals(kind)) {
+            return;
+        }
+        synchronized (pending) {
+            if (pending.isEmpty()) {
+                pendingSince = System.nanoTime();
+            }
+            pending.add(event);
+            if (frameScheduled) {
+                return;
+            }
+            frameScheduled = true;
+        }
+        mainHandler.post(() -> Choreographer.getInstance().postFrameCallback(deliver));
+    }
+
+    private void deliver() {
+        List<LiveEvent> events;
+        long since;
+        synchronized (pending) {
+            events = collapse(pending);
+            pending.clear();
+            since = pendingSince;
+            frameScheduled = false;
+        }
+        comments.apply(events);
+        for (Listener listener : new ArrayList<>(listeners)) {
+            listener.onEvents(events);
+        }
+        Metrics.LIVE_DELIVERY.record(System.nanoTime() - since);
+    }
+
+    // Only the last change to each row matters; the order of the rest is kept.
+    private static List<LiveEvent> collapse(List<LiveEvent> events) {
+        Map<String, LiveEvent> latest = new LinkedHashMap<>();
+        for (LiveEvent event : events) {
+            String key = event.getKind() + ":" + event.getId();
+            latest.remove(key);
+            latest.put(key, event);
+        }
+        return new ArrayList<>(latest.values());
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.database.sqlite.SQLiteStatement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// On-device copy of guides and posts. Lists render from here first and a background
+// sync keeps it current, so a cold start or a lost connection still shows content.
+public class LocalStore extends SQLiteOpenHelper {
+    private static final String DATABASE_NAME = "linuxguide.db";
+    private static final int DATABASE_VERSION = 5;
+
+    public static final String GUIDES = "guides";
+    public static final String POSTS = "posts";
+    // FTS4 index over guide and post text; see docId() for how rows map to items
+    public static final String SEARCH = "search";
+
+    private static LocalStore instance;
+
+    private LocalStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    public static synchronized LocalStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new LocalStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE guides (id INTEGER PRIMARY KEY, title TEXT, description TEXT, summary TEXT, "
+                + "status TEXT, level TEXT, userId INTEGER, username TEXT, updatedAt TEXT)");
+        db.execSQL("CREATE INDEX idx_guides_status ON guides(status)");
+        db.execSQL("CREATE INDEX idx_guides_userId ON guides(userId)");
+        db.execSQL("CREATE TABLE posts (id INTEGER PRIMARY KEY, title TEXT, content TEXT, summary TEXT, "
+                + "userId INTEGER, username TEXT, updatedAt TEXT)");
+        db.execSQL("CREATE INDEX idx_posts_userId ON posts(userId)");
+        db.execSQL("CREATE TABLE sync_state (name TEXT PRIMARY KEY, watermark TEXT)");
+        // How far into each guide the user has read, from 0 to 1. Not a server copy,
+        // so it is kept across upgrades
+        db.execSQL("CREATE TABLE IF NOT EXISTS reading (guideId INTEGER PRIMARY KEY, progress REAL, readAt INTEGER)");
+        // prefix= keeps extra indexes for 1 to 3 character prefixes, so the short
+        // prefixes typed first are answered without merging every matching term
+        db.execSQL("CREATE VIRTUAL TABLE search USING fts4(title, body, tokenize=unicode61, prefix=\"1,2,3\")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        // Everything but reading is a copy of the server; dropping it also resets the
+        // sync watermarks, so the next sync refills the new columns
+        db.execSQL("DROP TABLE IF EXISTS guides");
+        db.execSQL("DROP TABLE IF EXISTS posts");
+        db.execSQL("DROP TABLE IF EXISTS sync_state");
+        db.execSQL("DROP TABLE IF EXISTS search");
+        onCreate(db);
+    }
+
+    // Rows from a summary list carry no description, and the full row /guides/:id sends
+    // carries no summary. Whichever is missing is kept from the stored row when that has
+    // the same updatedAt; if the guide has changed since, it is cleared until the next
+    // open or sync brings it.
+    public void upsertGuides(List<Guide> guides) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SQLiteStatement statement = db.compileStatement("INSERT OR REPLACE INTO guides "
+                    + "(id, title, description, summary, status, level, userId, username, updatedAt) VALUES (?, ?, "
+                    + "COALESCE(?, (SELECT description FROM guides WHERE id = ? AND updatedAt IS ?)), "
+                    + "COALESCE(?, (SELECT summary FROM guides WHERE id = ? AND updatedAt IS ?)), ?, ?, ?, ?, ?)");
+            IndexWriter index = new IndexWriter(db, GUIDES, "description");
+            for (Guide guide : guides) {
+                statement.clearBindings();
+                statement.bindLong(1, guide.getId());
+                bindNullable(statement, 2, guide.getTitle());
+                bindNullable(statement, 3, guide.getDescription());
+                statement.bindLong(4, guide.getId());
+                bindNullable(statement, 5, guide.getUpdatedAt());
+                bindNullable(statement, 6, guide.getSummary());
+                statement.bindLong(7, guide.getId());
+                bindNullable(statement, 8, guide.getUpdatedAt());
+                bindNullable(statement, 9, guide.getStatus());
+                bindNullable(statement, 10, guide.getLevel());
+                statement.bindLong(11, guide.getUserId());
+                bindNullable(statement, 12, guide.getUsername());
+                bindNullable(statement, 13, guide.getUpdatedAt());
+                statement.executeInsert();
+                index.put(guide.getId());
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Same as upsertGuides for content.
+    public void upsertPosts(List<Post> posts) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SQLiteStatement statement = db.compileStatement("INSERT OR REPLACE INTO posts "
+                    + "(id, title, content, summary, userId, username, updatedAt) VALUES (?, ?, "
+                    + "COALESCE(?, (SELECT content FROM posts WHERE id = ? AND updatedAt IS ?)), "
+                    + "COALESCE(?, (SELECT summary FROM posts WHERE id = ? AND updatedAt IS ?)), ?, ?, ?)");
+            IndexWriter index = new IndexWriter(db, POSTS, "content");
+            for (Post post : posts) {
+                statement.clearBindings();
+                statement.bindLong(1, post.getId());
+                bindNullable(statement, 2, post.getTitle());
+                bindNullable(statement, 3, post.getContent());
+                statement.bindLong(4, post.getId());
+                bindNullable(statement, 5, post.getUpdatedAt());
+                bindNullable(statement, 6, post.getSummary());
+                statement.bindLong(7, post.getId());
+                bindNullable(statement, 8, post.getUpdatedAt());
+                statement.bindLong(9, post.getUserId());
+                bindNullable(statement, 10, post.getUsername());
+                bindNullable(statement, 11, post.getUpdatedAt());
+                statement.executeInsert();
+                index.put(post.getId());
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // For items deleted on the server; their search entries go with them.
+    public void deleteGuide(int id) {
+        delete(GUIDES, id);
+    }
+
+    public void deletePost(int id) {
+        delete(POSTS, id);
+    }
+
+    private void delete(String table, int id) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            SQLiteStatement row = db.compileStatement("DELETE FROM " + table + " WHERE id = ?");
+            row.bindLong(1, id);
+            row.executeUpdateDelete();
+            SQLiteStatement index = db.compileStatement("DELETE FROM search WHERE docid = ?");
+            index.bindLong(1, docId(table, id));
+            index.executeUpdateDelete();
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Same keyset contract as the paged endpoints: up to limit rows with id > cursor.
+    // Pages are for lists, so they carry the summary and leave description null; use
+    // getGuide() for the full text.
+    public List<Guide> guidesPage(int cursor, int limit) {
+        List<Guide> guides = new ArrayList<>(limit);
+        try (Cursor c = getReadableDatabase().rawQuery("SELECT id, title, summary, status, level, userId, username, "
+                + "updatedAt FROM guides WHERE id > ? ORDER BY id LIMIT ?", new String[] {
+                        Integer.toString(cursor), Integer.toString(limit)})) {
+            while (c.moveToNext()) {
+                guides.add(new Guide(c.getInt(0), c.getString(1), null, c.getString(2), JsonCodec.intern(c.getString(3)),
+                        JsonCodec.intern(c.getString(4)), c.getInt(5), JsonCodec.intern(c.getString(6)), c.getString(7)));
+            }
+        }
+        return guides;
+    }
+
+    public List<Post> postsPage(int cursor, int limit) {
+        List<Post> posts = new ArrayList<>(limit);
+        try (Cursor c = getReadableDatabase().rawQuery("SELECT id, title, summary, userId, username, updatedAt "
+                + "FROM posts WHERE id > ? ORDER BY id LIMIT ?", new String[] {
+                        Integer.toString(cursor), Integer.toString(limit)})) {
+            while (c.moveToNext()) {
+                posts.add(new Post(c.getInt(0), c.getString(1), null, c.getString(2), c.getInt(3),
+                        JsonCodec.intern(c.getString(4)), c.getString(5)));
+            }
+        }
+        return posts;
+    }
+
+    public Guide getGuide(int id) {
+        try (Cursor c = getReadableDatabase().rawQuery("SELECT id, title, description, summary, status, level, "
+                + "userId, username, updatedAt FROM guides WHERE id = ?", new String[] {Integer.toString(id)})) {
+            return c.moveToNext() ? new Guide(c.getInt(0), c.getString(1), c.getString(2), c.getString(3),
+                    JsonCodec.intern(c.getString(4)), JsonCodec.intern(c.getString(5)), c.getInt(6),
+                    JsonCodec.intern(c.getString(7)), c.getString(8)) : null;
+        }
+    }
+
+    public Post getPost(int id) {
+        try (Cursor c = getReadableDatabase().rawQuery("SELECT id, title, content, summary, userId, username, "
+                + "updatedAt FROM posts WHERE id = ?", new String[] {Integer.toString(id)})) {
+            return c.moveToNext() ? new Post(c.getInt(0), c.getString(1), c.getString(2), c.getString(3), c.getInt(4),
+                    JsonCodec.intern(c.getString(5)), c.getString(6)) : null;
+        }
+    }
+
+    // Reading progress by guide id, for ranking.
+    public Map<Integer, Float> getReadingProgress() {
+        Map<Integer, Float> progress = new HashMap<>();
+        try (Cursor c = getReadableDatabase().rawQuery("SELECT guideId, progress FROM reading", null)) {
+            while (c.moveToNext()) {
+                progress.put(c.getInt(0), c.getFloat(1));
+            }
+        }
+        return progress;
+    }
+
+    // Only ever moves progress forward, so re-opening a finished guide at the top
+    // does not mark it unread.
+    public void setReadingProgress(int guideId, float progress) {
+        SQLiteStatement statement = getWritableDatabase().compileStatement("INSERT OR REPLACE INTO reading "
+                + "(guideId, progress, readAt) VALUES (?, MAX(?, COALESCE((SELECT progress FROM reading "
+                + "WHERE guideId = ?), 0)), ?)");
+        statement.bindLong(1, guideId);
+        statement.bindDouble(2, progress);
+        statement.bindLong(3, guideId);
+        statement.bindLong(4, System.currentTimeMillis());
+        statement.executeInsert();
+    }
+
+    // Guides and posts share one index, so their ids are folded into a single docid:
+    // guides on even numbers, posts on odd ones.
+    public static long docId(String table, int id) {
+        return 2L * id + (POSTS.equals(table) ? 1 : 0);
+    }
+
+    public static String tableOf(long docId) {
+        return (docId & 1) == 0 ? GUIDES : POSTS;
+    }
+
+    public static int idOf(long docId) {
+        return (int) (docId >> 1);
+    }
+
+    public String getWatermark(String name) {
+        try (Cursor c = getReadableDatabase().rawQuery("SELECT watermark FROM sync_state WHERE name = ?",
+                new String[] {name})) {
+            return c.moveToNext() ? c.getString(0) : null;
+        }
+    }
+
+    public void setWatermark(String name, String watermark) {
+        SQLiteStatement statement = getWritableDatabase().compileStatement(
+                "INSERT OR REPLACE INTO sync_state (name, watermark) VALUES (?, ?)");
+        statement.bindString(1, name);
+        bindNullable(statement, 2, watermark);
+        statement.executeInsert();
+    }
+
+    // Replaces the indexed text of one item with what is now stored for it: the full
+    // text when it is known, otherwise the summary. FTS tables have no upsert on docid,
+    // so the old row is deleted first; both statements are compiled once per batch.
+    private static class IndexWriter {
+        private final String table;
+        private final SQLiteStatement delete;
+        private final SQLiteStatement insert;
+
+        IndexWriter(SQLiteDatabase db, String table, String textColumn) {
+            this.table = table;
+            delete = db.compileStatement("DELETE FROM search WHERE docid = ?");
+            insert = db.compileStatement("INSERT INTO search (docid, title, body) SELECT ?, title, "
+                    + "COALESCE(" + textColumn + ", summary) FROM " + table + " WHERE id = ?");
+        }
+
+        void put(int id) {
+            long docId = docId(table, id);
+            delete.bindLong(1, docId);
+            delete.executeUpdateDelete();
+            insert.bindLong(1, docId);
+            insert.bindLong(2, id);
+            insert.executeInsert();
+        }
+    }
+
+    private static void bindNullable(SQLiteStatement statement, int index, String value) {
+        if (value == null) {
+            statement.bindNull(index);
+        } else {
+            statement.bindString(index, value);
+        }
+    }
+}
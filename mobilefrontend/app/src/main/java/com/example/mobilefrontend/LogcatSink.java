@@ -0,0 +1,11 @@
+package com.example.mobilefrontend;
+
+import android.util.Log;
+
+// AppLog output on Android.
+public class LogcatSink implements AppLog.Sink {
+    @Override
+    public void println(int priority, String tag, String message, Throwable error) {
+        Log.println(priority, tag, error != null ? message + '\n' + Log.getStackTraceString(error) : message);
+    }
+}
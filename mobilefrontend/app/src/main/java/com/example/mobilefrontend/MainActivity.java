@@ -1,6 +1,7 @@
 package com.example.mobilefrontend;
 
 import android.os.Bundle;
+import android.os.Looper;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.fragment.app.Fragment;
 import com.google.android.material.tabs.TabLayout;
@@ -9,12 +10,21 @@ public class MainActivity extends AppCompatActivity {
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        if (savedInstanceState == null) {
+            Metrics.markLaunch();
+        }
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_main);
 
         TabLayout tabLayout = findViewById(R.id.tabLayout);
         tabLayout.addTab(tabLayout.newTab().setText("Guides"));
         tabLayout.addTab(tabLayout.newTab().setText("Posts"));
+        tabLayout.addTab(tabLayout.newTab().setText("For You"));
+        tabLayout.addTab(tabLayout.newTab().setText("Search"));
+        tabLayout.addTab(tabLayout.newTab().setText("Quiz"));
+        if (BuildConfig.DEBUG) {
+            tabLayout.addTab(tabLayout.newTab().setText("Metrics"));
+        }
         tabLayout.setTabGravity(TabLayout.GRAVITY_FILL);
 
         // Show GuidesFragment by default
@@ -23,6 +33,12 @@ public class MainActivity extends AppCompatActivity {
                     .beginTransaction()
                     .replace(R.id.fragment_container, new GuidesFragment())
                     .commit();
+            // Initializing WorkManager reads its database; leave it until the first
+            // screen is up and the main thread has nothing else to do
+            Looper.myQueue().addIdleHandler(() -> {
+                SyncWorker.schedule(getApplicationContext());
+                return false;
+            });
         }
 
         // Handle tab selection
@@ -32,8 +48,16 @@ public class MainActivity extends AppCompatActivity {
                 Fragment fragment;
                 if (tab.getPosition() == 0) {
                     fragment = new GuidesFragment();
-                } else {
+                } else if (tab.getPosition() == 1) {
                     fragment = new PostsFragment();
+                } else if (tab.getPosition() == 2) {
+                    fragment = new ForYouFragment();
+                } else if (tab.getPosition() == 3) {
+                    fragment = new SearchFragment();
+                } else if (tab.getPosition() == 4) {
+                    fragment = new QuizFragment();
+                } else {
+                    fragment = new MetricsFragment();
                 }
                 getSupportFragmentManager()
                         .beginTransaction()
@@ -46,8 +70,13 @@ public class MainActivity extends AppCompatActivity {
 
             @Override
             public void onTabReselected(TabLayout.Tab tab) {
-                // Optionally, reselecting a tab can refresh the fragment
-                onTabSelected(tab);
+                // Reselecting a tab refreshes the list in place; only changed rows rebind
+                Fragment current = getSupportFragmentManager().findFragmentById(R.id.fragment_container);
+                if (current instanceof Refreshable) {
+                    ((Refreshable) current).refresh();
+                } else {
+                    onTabSelected(tab);
+                }
             }
         });
     }
@@ -0,0 +1,173 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.text.Spanned;
+import android.util.LruCache;
+import io.noties.markwon.Markwon;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.commonmark.node.Node;
+
+// One shared Markwon instance that parses markdown on a background thread and keeps
+// the rendered spans in an LRU keyed by item id and content hash, so reopening a
+// guide or post costs no parsing at all. Very long documents can instead be split
+// into top-level blocks that are rendered one at a time as they scroll into view.
+public class MarkdownRenderer {
+    private static final String TAG = "MarkdownRenderer";
+    private static final int CACHE_CHARS = 512 * 1024;
+
+    private static MarkdownRenderer instance;
+
+    public interface Callback {
+        void onRendered(Spanned rendered);
+
+        void onError(Exception e);
+    }
+
+    public interface BlocksCallback {
+        void onParsed(List<Node> blocks);
+
+        void onError(Exception e);
+    }
+
+    private static class ParsedBlocks {
+        final List<Node> blocks;
+        final int sourceChars;
+
+        ParsedBlocks(List<Node> blocks, int sourceChars) {
+            this.blocks = blocks;
+            this.sourceChars = sourceChars;
+        }
+    }
+
+    private final Context context;
+    // Built on first use, normally by the first render on the renderer thread, so
+    // getting the renderer costs a list screen nothing at startup
+    private volatile Markwon markwon;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(() -> {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        runnable.run();
+    }, "markdown-renderer"));
+    private final LruCache<String, Spanned> cache = new LruCache<String, Spanned>(CACHE_CHARS) {
+        @Override
+        protected int sizeOf(String key, Spanned rendered) {
+            return rendered.length();
+        }
+    };
+    private final LruCache<String, ParsedBlocks> blockCache = new LruCache<String, ParsedBlocks>(CACHE_CHARS) {
+        @Override
+        protected int sizeOf(String key, ParsedBlocks parsed) {
+            return parsed.sourceChars;
+        }
+    };
+
+    private MarkdownRenderer(Context context) {
+        this.context = context;
+    }
+
+    public static synchronized MarkdownRenderer getInstance(Context context) {
+        if (instance == null) {
+            instance = new MarkdownRenderer(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public Markwon getMarkwon() {
+        Markwon current = markwon;
+        if (current == null) {
+            synchronized (this) {
+                current = markwon;
+                if (current == null) {
+                    current = Markwon.create(context);
+                    markwon = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public Spanned getCached(String id, String markdown) {
+        return cache.get(cacheKey(id, markdown));
+    }
+
+    // Delivers on the main thread. Cancel the returned future when the target view
+    // goes away; a cancelled render still lands in the cache if it already finished.
+    public Future<?> render(String id, String markdown, Callback callback) {
+        String key = cacheKey(id, markdown);
+        return executor.submit(() -> {
+            try {
+                Spanned rendered = cache.get(key);
+                if (rendered == null) {
+                    long start = System.nanoTime();
+                    rendered = getMarkwon().toMarkdown(markdown);
+                    cache.put(key, rendered);
+                    long elapsed = System.nanoTime() - start;
+                    Metrics.MARKDOWN_RENDER.record(elapsed);
+                    if (AppLog.DEBUG_ENABLED) {
+                        AppLog.d(TAG, "Rendered", "id", id, "ms", elapsed / 1000000);
+                    }
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                Spanned result = rendered;
+                mainHandler.post(() -> callback.onRendered(result));
+            } catch (Exception e) {
+                mainHandler.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    public List<Node> getCachedBlocks(String id, String markdown) {
+        ParsedBlocks parsed = blockCache.get(cacheKey(id, markdown));
+        return parsed != null ? parsed.blocks : null;
+    }
+
+    // Parses on the background thread and splits the document into its top-level
+    // blocks (headings, paragraphs, lists, code blocks...). Nothing is rendered here;
+    // each block is rendered on its own with renderBlock() when it is first bound.
+    public Future<?> parseBlocks(String id, String markdown, BlocksCallback callback) {
+        String key = cacheKey(id, markdown);
+        return executor.submit(() -> {
+            try {
+                ParsedBlocks parsed = blockCache.get(key);
+                if (parsed == null) {
+                    List<Node> blocks = new ArrayList<>();
+                    for (Node node = getMarkwon().parse(markdown).getFirstChild(); node != null; node = node.getNext()) {
+                        blocks.add(node);
+                    }
+                    parsed = new ParsedBlocks(blocks, markdown.length());
+                    blockCache.put(key, parsed);
+                    if (AppLog.DEBUG_ENABLED) {
+                        AppLog.d(TAG, "Split", "id", id, "blocks", blocks.size());
+                    }
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    return;
+                }
+                List<Node> result = parsed.blocks;
+                mainHandler.post(() -> callback.onParsed(result));
+            } catch (Exception e) {
+                mainHandler.post(() -> callback.onError(e));
+            }
+        });
+    }
+
+    public Spanned renderBlock(Node block) {
+        long start = System.nanoTime();
+        Spanned rendered = getMarkwon().render(block);
+        Metrics.MARKDOWN_RENDER.record(System.nanoTime() - start);
+        return rendered;
+    }
+
+    private static String cacheKey(String id, String markdown) {
+        return id + ":" + markdown.length() + ":" + markdown.hashCode();
+    }
+}
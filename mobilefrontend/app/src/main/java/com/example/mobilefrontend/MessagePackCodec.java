@@ -0,0 +1,137 @@
+package com.example.mobilefrontend;
+
+import java.io.IOException;
+
+// Hand-written MessagePack decoders for the list models. Fields are matched by key,
+// unknown keys (tags, timestamps the app does not use) are skipped, and nulls leave
+// the field at its default, matching JsonCodec on the same data as JSON.
+public final class MessagePackCodec {
+    public static final String CONTENT_TYPE = "application/x-msgpack";
+
+    public interface ItemReader<T> {
+        T read(MessagePackReader reader) throws IOException;
+    }
+
+    public static final ItemReader<Guide> GUIDE = reader -> {
+        int id = 0;
+        int userId = 0;
+        String title = null;
+        String description = null;
+        String summary = null;
+        String status = null;
+        String level = null;
+        String username = null;
+        String updatedAt = null;
+        for (int fields = reader.readMapHeader(); fields > 0; fields--) {
+            String key = reader.readString();
+            if (reader.readNil()) {
+                continue;
+            }
+            switch (key) {
+                case "id":
+                    id = reader.readInt();
+                    break;
+                case "title":
+                    title = reader.readString();
+                    break;
+                case "description":
+                    description = reader.readString();
+                    break;
+                case "summary":
+                    summary = reader.readString();
+                    break;
+                case "status":
+                    status = JsonCodec.intern(reader.readString());
+                    break;
+                case "level":
+                    level = JsonCodec.intern(reader.readString());
+                    break;
+                case "userId":
+                    userId = reader.readInt();
+                    break;
+                case "User":
+                    username = readUsername(reader);
+                    break;
+                case "updatedAt":
+                    updatedAt = reader.readString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        return new Guide(id, title, description, summary, status, level, userId, username, updatedAt);
+    };
+
+    public static final ItemReader<Post> POST = reader -> {
+        int id = 0;
+        int userId = 0;
+        String title = null;
+        String content = null;
+        String summary = null;
+        String username = null;
+        String updatedAt = null;
+        for (int fields = reader.readMapHeader(); fields > 0; fields--) {
+            String key = reader.readString();
+            if (reader.readNil()) {
+                continue;
+            }
+            switch (key) {
+                case "id":
+                    id = reader.readInt();
+                    break;
+                case "title":
+                    title = reader.readString();
+                    break;
+                case "content":
+                    content = reader.readString();
+                    break;
+                case "summary":
+                    summary = reader.readString();
+                    break;
+                case "userId":
+                    userId = reader.readInt();
+                    break;
+                case "User":
+                    username = readUsername(reader);
+                    break;
+                case "updatedAt":
+                    updatedAt = reader.readString();
+                    break;
+                default:
+                    reader.skipValue();
+            }
+        }
+        return new Post(id, title, content, summary, userId, username, updatedAt);
+    };
+
+    private MessagePackCodec() {
+    }
+
+    private static String readUsername(MessagePackReader reader) throws IOException {
+        String username = null;
+        for (int fields = reader.readMapHeader(); fields > 0; fields--) {
+            String key = reader.readString();
+            if (reader.readNil()) {
+                continue;
+            }
+            if ("username".equals(key)) {
+                username = JsonCodec.intern(reader.readString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        return username;
+    }
+
+    // The decoder for type, or null when the type can only be read as JSON.
+    @SuppressWarnings("unchecked")
+    public static <T> ItemReader<T> readerFor(Class<T> type) {
+        if (type == Guide.class) {
+            return (ItemReader<T>) GUIDE;
+        }
+        if (type == Post.class) {
+            return (ItemReader<T>) POST;
+        }
+        return null;
+    }
+}
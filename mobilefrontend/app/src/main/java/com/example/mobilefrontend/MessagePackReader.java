@@ -0,0 +1,255 @@
+package com.example.mobilefrontend;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+// Pull reader for the subset of MessagePack the backend emits: nil, booleans,
+// integers, floats, strings, arrays and maps. Strings are decoded straight out of an
+// internal buffer, so apart from the resulting String nothing is allocated per value.
+public class MessagePackReader {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final InputStream in;
+    private byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    public MessagePackReader(InputStream in) {
+        this.in = in;
+    }
+
+    public boolean isNil() throws IOException {
+        require(1);
+        return (buffer[position] & 0xff) == 0xc0;
+    }
+
+    // Consumes a nil and returns true, or leaves anything else in place.
+    public boolean readNil() throws IOException {
+        if (isNil()) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    public int readArrayHeader() throws IOException {
+        int b = readByte();
+        if ((b & 0xf0) == 0x90) {
+            return b & 0x0f;
+        }
+        switch (b) {
+            case 0xdc:
+                return readUnsigned(2);
+            case 0xdd:
+                return readLength(4);
+            default:
+                throw unexpected("array", b);
+        }
+    }
+
+    public int readMapHeader() throws IOException {
+        int b = readByte();
+        if ((b & 0xf0) == 0x80) {
+            return b & 0x0f;
+        }
+        switch (b) {
+            case 0xde:
+                return readUnsigned(2);
+            case 0xdf:
+                return readLength(4);
+            default:
+                throw unexpected("map", b);
+        }
+    }
+
+    // Returns null for nil.
+    public String readString() throws IOException {
+        int b = readByte();
+        int length;
+        if ((b & 0xe0) == 0xa0) {
+            length = b & 0x1f;
+        } else if (b == 0xc0) {
+            return null;
+        } else if (b == 0xd9) {
+            length = readUnsigned(1);
+        } else if (b == 0xda) {
+            length = readUnsigned(2);
+        } else if (b == 0xdb) {
+            length = readLength(4);
+        } else {
+            throw unexpected("string", b);
+        }
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public long readLong() throws IOException {
+        int b = readByte();
+        if (b <= 0x7f) {
+            return b;
+        }
+        if (b >= 0xe0) {
+            return (byte) b;
+        }
+        switch (b) {
+            case 0xcc:
+                return readUnsigned(1);
+            case 0xcd:
+                return readUnsigned(2);
+            case 0xce:
+                return readSigned(4);
+            case 0xcf:
+            case 0xd3:
+                return readSigned(8);
+            case 0xd0:
+                return (byte) readUnsigned(1);
+            case 0xd1:
+                return (short) readUnsigned(2);
+            case 0xd2:
+                return readUnsigned(4);
+            case 0xca:
+                return (long) Float.intBitsToFloat(readUnsigned(4));
+            case 0xcb:
+                return (long) Double.longBitsToDouble(readSigned(8));
+            default:
+                throw unexpected("integer", b);
+        }
+    }
+
+    public int readInt() throws IOException {
+        return (int) readLong();
+    }
+
+    // Skips one complete value, including everything nested inside it.
+    public void skipValue() throws IOException {
+        int b = readByte();
+        if (b <= 0x7f || b >= 0xe0 || b == 0xc0 || b == 0xc2 || b == 0xc3) {
+            return;
+        }
+        if ((b & 0xe0) == 0xa0) {
+            skip(b & 0x1f);
+            return;
+        }
+        if ((b & 0xf0) == 0x90) {
+            skipValues(b & 0x0f);
+            return;
+        }
+        if ((b & 0xf0) == 0x80) {
+            skipValues(2 * (b & 0x0f));
+            return;
+        }
+        switch (b) {
+            case 0xcc: case 0xd0:
+                skip(1);
+                return;
+            case 0xcd: case 0xd1:
+                skip(2);
+                return;
+            case 0xca: case 0xce: case 0xd2:
+                skip(4);
+                return;
+            case 0xcb: case 0xcf: case 0xd3:
+                skip(8);
+                return;
+            case 0xc4: case 0xd9:
+                skip(readUnsigned(1));
+                return;
+            case 0xc5: case 0xda:
+                skip(readUnsigned(2));
+                return;
+            case 0xc6: case 0xdb:
+                skip(readLength(4));
+                return;
+            case 0xdc:
+                skipValues(readUnsigned(2));
+                return;
+            case 0xdd:
+                skipValues(readLength(4));
+                return;
+            case 0xde:
+                skipValues(2 * readUnsigned(2));
+                return;
+            case 0xdf:
+                skipValues(2L * readLength(4));
+                return;
+            default:
+                throw unexpected("value", b);
+        }
+    }
+
+    private void skipValues(long count) throws IOException {
+        for (long i = 0; i < count; i++) {
+            skipValue();
+        }
+    }
+
+    private void skip(int length) throws IOException {
+        while (length > 0) {
+            if (position == limit) {
+                require(1);
+            }
+            int n = Math.min(length, limit - position);
+            position += n;
+            length -= n;
+        }
+    }
+
+    private int readByte() throws IOException {
+        require(1);
+        return buffer[position++] & 0xff;
+    }
+
+    private int readUnsigned(int bytes) throws IOException {
+        return (int) readSigned(bytes) & (bytes == 4 ? -1 : (1 << (8 * bytes)) - 1);
+    }
+
+    // A 32-bit length or count; one of 2^31 or more would come back negative, and no
+    // body the app reads is anywhere near that long.
+    private int readLength(int bytes) throws IOException {
+        int length = readUnsigned(bytes);
+        if (length < 0) {
+            throw new IOException("MessagePack length " + (length & 0xffffffffL) + " is too large");
+        }
+        return length;
+    }
+
+    private long readSigned(int bytes) throws IOException {
+        require(bytes);
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << 8) | (buffer[position++] & 0xff);
+        }
+        return value;
+    }
+
+    // Makes sure at least count bytes are buffered, growing the buffer for long strings.
+    private void require(int count) throws IOException {
+        if (limit - position >= count) {
+            return;
+        }
+        if (count > buffer.length) {
+            byte[] grown = new byte[Math.max(count, buffer.length * 2)];
+            System.arraycopy(buffer, position, grown, 0, limit - position);
+            buffer = grown;
+        } else {
+            System.arraycopy(buffer, position, buffer, 0, limit - position);
+        }
+        limit -= position;
+        position = 0;
+        while (limit < count) {
+            int n = in.read(buffer, limit, buffer.length - limit);
+            if (n < 0) {
+                throw new EOFException("Truncated MessagePack body");
+            }
+            limit += n;
+        }
+    }
+
+    private static IOException unexpected(String expected, int b) {
+        return new IOException("Expected MessagePack " + expected + " but found 0x" + Integer.toHexString(b));
+    }
+}
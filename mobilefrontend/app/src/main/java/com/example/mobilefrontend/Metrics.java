@@ -0,0 +1,87 @@
+package com.example.mobilefrontend;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+// App-wide hot path timings. Call sites take System.nanoTime() deltas and record
+// them into these fixed histograms; the report is built only when someone asks.
+public final class Metrics {
+    // From issuing a request until its status line is in, connection setup included.
+    // HttpURLConnection does not say whether a pooled socket was reused, so DNS and
+    // connect time are not split out.
+    public static final Histogram TTFB = new Histogram("net.ttfb");
+    // Time blocked reading a response body, from the network or from the disk cache;
+    // decoding it is counted under PARSE
+    public static final Histogram DOWNLOAD = new Histogram("net.download");
+    public static final Histogram DISK_READ = new Histogram("cache.disk_read");
+    public static final Histogram PARSE = new Histogram("json.parse");
+    public static final Histogram BIND = new Histogram("list.bind");
+    public static final Histogram MARKDOWN_RENDER = new Histogram("markdown.render");
+    public static final Histogram SEARCH = new Histogram("search.query");
+    public static final Histogram RANK = new Histogram("foryou.rank");
+    public static final Histogram QUIZ_OPEN = new Histogram("quiz.open");
+    // From a pushed change being read off the event stream until it is on screen
+    public static final Histogram LIVE_DELIVERY = new Histogram("live.delivery");
+    public static final Histogram FIRST_CONTENT_GUIDES = new Histogram("ttfc.guides");
+    public static final Histogram FIRST_CONTENT_POSTS = new Histogram("ttfc.posts");
+    // From MainActivity.onCreate on a fresh launch until the first guide rows are shown
+    public static final Histogram LAUNCH_TO_FIRST_ROWS = new Histogram("startup.first_rows");
+
+    // Response body bytes as received and after content decoding
+    public static final AtomicLong BYTES_ON_WIRE = new AtomicLong();
+    public static final AtomicLong BYTES_DECODED = new AtomicLong();
+
+    private static final Histogram[] ALL = {
+            TTFB, DOWNLOAD, DISK_READ, PARSE, BIND, MARKDOWN_RENDER, SEARCH, RANK, QUIZ_OPEN,
+            LIVE_DELIVERY, FIRST_CONTENT_GUIDES, FIRST_CONTENT_POSTS, LAUNCH_TO_FIRST_ROWS,
+    };
+
+    // nanoTime of the launch being measured, 0 once recorded
+    private static volatile long launchStart;
+
+    private Metrics() {
+    }
+
+    public static void markLaunch() {
+        launchStart = System.nanoTime();
+    }
+
+    // Only the first call after markLaunch() counts; later tab switches are not startup.
+    public static void firstRowsShown() {
+        long start = launchStart;
+        if (start != 0) {
+            launchStart = 0;
+            LAUNCH_TO_FIRST_ROWS.record(System.nanoTime() - start);
+        }
+    }
+
+    public static String report() {
+        StringBuilder report = new StringBuilder();
+        for (Histogram histogram : ALL) {
+            report.append(histogram).append('\n');
+        }
+        report.append("bytes.wire=").append(BYTES_ON_WIRE.get())
+                .append(" bytes.decoded=").append(BYTES_DECODED.get()).append('\n');
+        return report.toString();
+    }
+
+    public static void dumpToFile(File file) throws IOException {
+        try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+            writer.write("# metrics dump " + System.currentTimeMillis() + "\n");
+            writer.write(report());
+        }
+    }
+
+    public static void reset() {
+        for (Histogram histogram : ALL) {
+            histogram.reset();
+        }
+        BYTES_ON_WIRE.set(0);
+        BYTES_DECODED.set(0);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.os.Bundle;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.Button;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+import android.widget.TextView;
+import android.widget.Toast;
+import androidx.fragment.app.Fragment;
+import java.io.File;
+
+// Debug-only screen listing the latency histograms, with buttons to refresh, reset
+// and dump them to a file that can be pulled with adb.
+public class MetricsFragment extends Fragment implements Refreshable {
+    private TextView reportTextView;
+
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        Context context = requireContext();
+        int padding = (int) (12 * getResources().getDisplayMetrics().density);
+
+        LinearLayout layout = new LinearLayout(context);
+        layout.setOrientation(LinearLayout.VERTICAL);
+        layout.setPadding(padding, padding, padding, padding);
+
+        LinearLayout buttons = new LinearLayout(context);
+        buttons.setOrientation(LinearLayout.HORIZONTAL);
+        buttons.addView(button(context, "Refresh", v -> refresh()));
+        buttons.addView(button(context, "Reset", v -> {
+            Metrics.reset();
+            refresh();
+        }));
+        buttons.addView(button(context, "Dump to file", v -> dump()));
+        layout.addView(buttons);
+
+        reportTextView = new TextView(context);
+        reportTextView.setTypeface(Typeface.MONOSPACE);
+        reportTextView.setTextIsSelectable(true);
+        ScrollView scrollView = new ScrollView(context);
+        scrollView.addView(reportTextView);
+        layout.addView(scrollView, new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        refresh();
+        return layout;
+    }
+
+    @Override
+    public void refresh() {
+        if (reportTextView != null) {
+            reportTextView.setText(Metrics.report());
+        }
+    }
+
+    private void dump() {
+        File dir = requireContext().getExternalFilesDir(null);
+        if (dir == null) {
+            dir = requireContext().getFilesDir();
+        }
+        File file = new File(dir, "metrics-" + System.currentTimeMillis() + ".txt");
+        try {
+            Metrics.dumpToFile(file);
+            AppLog.d("MetricsFragment", "Dumped metrics", "file", file);
+            Toast.makeText(requireContext(), "Saved " + file.getAbsolutePath(), Toast.LENGTH_LONG).show();
+        } catch (Exception e) {
+            AppLog.e("MetricsFragment", "Failed to dump metrics", e);
+            Toast.makeText(requireContext(), "Dump failed: " + e.getMessage(), Toast.LENGTH_LONG).show();
+        }
+    }
+
+    private static Button button(Context context, String text, View.OnClickListener listener) {
+        Button button = new Button(context);
+        button.setText(text);
+        button.setOnClickListener(listener);
+        return button;
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        reportTextView = null;
+    }
+}
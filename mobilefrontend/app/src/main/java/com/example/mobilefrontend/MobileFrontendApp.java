@@ -0,0 +1,12 @@
+package com.example.mobilefrontend;
+
+import android.app.Application;
+
+// Runs before any activity or worker, so everything the app logs reaches logcat.
+public class MobileFrontendApp extends Application {
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        AppLog.setSink(new LogcatSink());
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.mobilefrontend;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+// A sliding window of at most maxPages keyset pages. Pages pushed out of the head
+// leave only their start cursor behind, so they can be fetched again when the user
+// scrolls back up; pages pushed out of the tail are found again from the last id.
+public class PageWindow<T> {
+    public interface IdOf<T> {
+        int idOf(T item);
+    }
+
+    private final int maxPages;
+    private final IdOf<T> idOf;
+    private final List<List<T>> pages = new ArrayList<>();
+    private final List<Integer> startCursors = new ArrayList<>();
+    private final Deque<Integer> droppedCursors = new ArrayDeque<>();
+    private int size;
+    private boolean reachedEnd;
+
+    public PageWindow(int maxPages, IdOf<T> idOf) {
+        this.maxPages = maxPages;
+        this.idOf = idOf;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int pageCount() {
+        return pages.size();
+    }
+
+    public int startCursor(int pageIndex) {
+        return startCursors.get(pageIndex);
+    }
+
+    // A flat copy of the window, suitable for handing to a list differ.
+    public List<T> snapshot() {
+        List<T> items = new ArrayList<>(size);
+        for (List<T> page : pages) {
+            items.addAll(page);
+        }
+        return items;
+    }
+
+    public boolean hasNext() {
+        return !reachedEnd;
+    }
+
+    public boolean hasPrevious() {
+        return !droppedCursors.isEmpty();
+    }
+
+    public int nextCursor() {
+        if (pages.isEmpty()) {
+            return 0;
+        }
+        List<T> last = pages.get(pages.size() - 1);
+        return last.isEmpty() ? startCursors.get(pages.size() - 1) : idOf.idOf(last.get(last.size() - 1));
+    }
+
+    public int previousCursor() {
+        return droppedCursors.isEmpty() ? -1 : droppedCursors.peek();
+    }
+
+    // Adds a page at the tail and returns how many items were dropped from the head.
+    public int append(int cursor, List<T> page, int limit) {
+        reachedEnd = page.size() < limit;
+        if (page.isEmpty()) {
+            return 0;
+        }
+        pages.add(page);
+        startCursors.add(cursor);
+        size += page.size();
+        int dropped = 0;
+        while (pages.size() > maxPages) {
+            droppedCursors.push(startCursors.remove(0));
+            List<T> head = pages.remove(0);
+            size -= head.size();
+            dropped += head.size();
+        }
+        return dropped;
+    }
+
+    // Adds the most recently dropped page back at the head and returns how many items
+    // were dropped from the tail.
+    public int prepend(List<T> page) {
+        int cursor = droppedCursors.pop();
+        pages.add(0, page);
+        startCursors.add(0, cursor);
+        size += page.size();
+        int dropped = 0;
+        while (pages.size() > maxPages) {
+            startCursors.remove(startCursors.size() - 1);
+            List<T> tail = pages.remove(pages.size() - 1);
+            size -= tail.size();
+            dropped += tail.size();
+            reachedEnd = false;
+        }
+        return dropped;
+    }
+
+    // Swaps in a refetched copy of a page and returns the cursor the following page
+    // should be fetched from. The cursor may differ from the original one when an
+    // earlier page gained or lost items, which keeps the pages contiguous.
+    public int replace(int pageIndex, int cursor, List<T> page, int limit) {
+        if (pageIndex == pages.size() - 1) {
+            reachedEnd = page.size() < limit;
+        }
+        size += page.size() - pages.get(pageIndex).size();
+        pages.set(pageIndex, page);
+        startCursors.set(pageIndex, cursor);
+        return page.isEmpty() ? cursor : idOf.idOf(page.get(page.size() - 1));
+    }
+
+    // Patches in a pushed change and returns whether the window changed. Rows are in
+    // id order, so a row goes into the page whose id range covers it. One before the
+    // window is left for when that page is fetched again, and so is one past the last
+    // page until the end has been reached, since loadNext() will bring it.
+    public boolean upsert(T item) {
+        int id = idOf.idOf(item);
+        for (int p = pages.size() - 1; p >= 0; p--) {
+            if (id <= startCursors.get(p)) {
+                continue;
+            }
+            if (p == pages.size() - 1 && !reachedEnd && id > nextCursor()) {
+                return false;
+            }
+            List<T> page = pages.get(p);
+            int i = 0;
+            while (i < page.size() && idOf.idOf(page.get(i)) < id) {
+                i++;
+            }
+            if (i < page.size() && idOf.idOf(page.get(i)) == id) {
+                page.set(i, item);
+            } else {
+                page.add(i, item);
+                size++;
+            }
+            return true;
+        }
+        return false;
+    }
+
+    // Drops a row deleted on the server; its page keeps its start cursor, so paging
+    // around it is unaffected.
+    public boolean remove(int id) {
+        for (List<T> page : pages) {
+            for (int i = 0; i < page.size(); i++) {
+                if (idOf.idOf(page.get(i)) == id) {
+                    page.remove(i);
+                    size--;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public void clear() {
+        pages.clear();
+        startCursors.clear();
+        droppedCursors.clear();
+        size = 0;
+        reachedEnd = false;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.mobilefrontend;
+
+import androidx.lifecycle.LifecycleOwner;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayList;
+import java.util.List;
+
+// Feeds a PageWindow from a paged endpoint as the RecyclerView scrolls. A page is
+// requested once the last (or first) visible row is within prefetchDistance of the
+// window edge, so the next rows are usually bound before they scroll into view.
+public class PagedLoader<T> {
+    private static final String TAG = "PagedLoader";
+
+    public interface PageTask<T> {
+        int run(ApiClient apiClient, int cursor, int limit, ApiClient.BatchListener<T> listener) throws Exception;
+    }
+
+    public interface Sink<T> {
+        void submitList(List<T> items);
+    }
+
+    private interface PageConsumer<T> {
+        void accept(List<T> page);
+    }
+
+    public interface Listener {
+        void onPageLoaded(int windowSize);
+
+        void onError(Exception e);
+    }
+
+    private final String endpoint;
+    private final PageWindow<T> window;
+    private final int pageSize;
+    private final int prefetchDistance;
+    private final PageTask<T> task;
+    private final Sink<T> sink;
+    private final Listener listener;
+    private RequestDispatcher dispatcher;
+    private LifecycleOwner owner;
+    private boolean loading;
+    private boolean refreshing;
+    private boolean refreshPending;
+
+    public PagedLoader(String endpoint, PageWindow<T> window, int pageSize, int prefetchDistance,
+                       PageTask<T> task, Sink<T> sink, Listener listener) {
+        this.endpoint = endpoint;
+        this.window = window;
+        this.pageSize = pageSize;
+        this.prefetchDistance = prefetchDistance;
+        this.task = task;
+        this.sink = sink;
+        this.listener = listener;
+    }
+
+    public void attach(RecyclerView recyclerView, LifecycleOwner owner, RequestDispatcher dispatcher) {
+        this.owner = owner;
+        this.dispatcher = dispatcher;
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(RecyclerView recyclerView, int dx, int dy) {
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                if (layoutManager == null) {
+                    return;
+                }
+                // RecyclerView also reports (0, 0) after every layout, which covers a
+                // first page too short to fill the screen.
+                if (dy >= 0 && layoutManager.findLastVisibleItemPosition() >= window.size() - prefetchDistance) {
+                    loadNext();
+                } else if (dy < 0 && layoutManager.findFirstVisibleItemPosition() <= prefetchDistance) {
+                    loadPrevious();
+                }
+            }
+        });
+    }
+
+    public void loadNext() {
+        if (loading || refreshing || !window.hasNext()) {
+            return;
+        }
+        int cursor = window.nextCursor();
+        request(cursor, page -> {
+            window.append(cursor, page, pageSize);
+            sink.submitList(window.snapshot());
+        });
+    }
+
+    public void loadPrevious() {
+        if (loading || refreshing || !window.hasPrevious()) {
+            return;
+        }
+        int cursor = window.previousCursor();
+        request(cursor, page -> {
+            window.prepend(page);
+            sink.submitList(window.snapshot());
+        });
+    }
+
+    // Rereads every page in the window from the loader's source. It does not reach the
+    // server itself; callers run a sync first when they need the server's changes. Each
+    // page is chained from the last id of the refreshed page before it, so items that
+    // moved across a page boundary are neither lost nor duplicated. A refresh requested
+    // mid-load runs once that load finishes.
+    public void refresh() {
+        if (loading || refreshing) {
+            refreshPending = true;
+            return;
+        }
+        if (window.pageCount() == 0) {
+            window.clear();
+            loadNext();
+            return;
+        }
+        refreshing = true;
+        refreshPage(0, window.startCursor(0));
+    }
+
+    private void refreshPage(int index, int cursor) {
+        request(cursor, page -> {
+            int nextCursor = window.replace(index, cursor, page, pageSize);
+            sink.submitList(window.snapshot());
+            if (index + 1 < window.pageCount()) {
+                refreshPage(index + 1, nextCursor);
+            } else {
+                refreshing = false;
+            }
+        });
+    }
+
+    private void request(int cursor, PageConsumer<T> onPage) {
+        loading = true;
+        List<T> page = new ArrayList<>(pageSize);
+        dispatcher.stream(endpoint + "?cursor=" + cursor + "&limit=" + pageSize, owner,
+                (apiClient, batchListener) -> task.run(apiClient, cursor, pageSize, batchListener),
+                new RequestDispatcher.Callback<T>() {
+                    @Override
+                    public void onBatch(List<T> batch) {
+                        page.addAll(batch);
+                    }
+
+                    @Override
+                    public void onComplete(int total) {
+                        loading = false;
+                        if (AppLog.DEBUG_ENABLED) {
+                            AppLog.d(TAG, "Loaded page from " + endpoint, "cursor", cursor, "items", page.size());
+                        }
+                        onPage.accept(page);
+                        listener.onPageLoaded(window.size());
+                        if (refreshPending && !loading && !refreshing) {
+                            refreshPending = false;
+                            refresh();
+                        }
+                    }
+
+                    @Override
+                    public void onError(Exception e) {
+                        loading = false;
+                        refreshing = false;
+                        listener.onError(e);
+                    }
+                });
+    }
+}
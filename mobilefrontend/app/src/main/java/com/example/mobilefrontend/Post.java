@@ -4,13 +4,19 @@ public class Post {
     private int id;
     private String title;
     private String content;
+    private String summary;
     private int userId;
+    private String username;
+    private String updatedAt;
 
-    public Post(int id, String title, String content, int userId) {
+    public Post(int id, String title, String content, String summary, int userId, String username, String updatedAt) {
         this.id = id;
         this.title = title;
         this.content = content;
+        this.summary = summary;
         this.userId = userId;
+        this.username = username;
+        this.updatedAt = updatedAt;
     }
 
     public int getId() {
@@ -25,12 +31,27 @@ public class Post {
         return content;
     }
 
+    // Start of the content when the row came from a summary list, in which case
+    // content is null until the post itself is loaded
+    public String getSummary() {
+        return summary;
+    }
+
     public int getUserId() {
         return userId;
     }
 
+    // Author name from the included User, or null when the row came without it
+    public String getUsername() {
+        return username;
+    }
+
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
     @Override
     public String toString() {
-        return "Post{id=" + id + ", title='" + title + "', content='" + content + "', userId=" + userId + "}";
+        return "Post{id=" + id + ", title='" + title + "', content='" + content + "', summary='" + summary + "', userId=" + userId + ", username='" + username + "', updatedAt='" + updatedAt + "'}";
     }
 }
\ No newline at end of file
@@ -1,7 +1,6 @@
 package com.example.mobilefrontend;
 
 import android.os.Bundle;
-import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
@@ -9,120 +8,275 @@ import android.widget.ProgressBar;
 import android.widget.TextView;
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.AsyncListDiffer;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
-import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.io.IOException;
-import java.util.ArrayList;
+import androidx.swiperefreshlayout.widget.SwipeRefreshLayout;
 import java.util.List;
+import java.util.Objects;
 
-public class PostsFragment extends Fragment {
+public class PostsFragment extends Fragment implements Refreshable {
+    private static final int PAGE_SIZE = 30;
+    private static final int PREFETCH_DISTANCE = 10;
+    private static final int MAX_PAGES = 5;
+
+    private SwipeRefreshLayout swipeRefreshLayout;
     private RecyclerView recyclerView;
     private TextView emptyTextView;
     private ProgressBar progressBar;
     private PostAdapter adapter;
+    private DetailPrefetcher prefetcher;
+    // Outlives this fragment; holds the loaded pages and scroll position
+    private ListStateViewModel state;
+    private PageWindow<Post> window;
+    private PagedLoader<Post> loader;
+    private boolean syncing;
+    // nanoTime of onCreateView until the first non-empty page is shown, then 0
+    private long firstContentStart;
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
-        Log.d("PostsFragment", "onCreateView started");
+        AppLog.d("PostsFragment", "onCreateView started");
+        firstContentStart = System.nanoTime();
         View view = inflater.inflate(R.layout.fragment_list, container, false);
         recyclerView = view.findViewById(R.id.recyclerView);
         emptyTextView = view.findViewById(R.id.emptyTextView);
         progressBar = view.findViewById(R.id.progressBar);
 
         if (recyclerView == null) {
-            Log.e("PostsFragment", "RecyclerView is null");
+            AppLog.e("PostsFragment", "RecyclerView is null");
             return view;
         }
         if (emptyTextView == null) {
-            Log.e("PostsFragment", "EmptyTextView is null");
+            AppLog.e("PostsFragment", "EmptyTextView is null");
             return view;
         }
         if (progressBar == null) {
-            Log.e("PostsFragment", "ProgressBar is null");
+            AppLog.e("PostsFragment", "ProgressBar is null");
             return view;
         }
 
-        Log.d("PostsFragment", "Setting up RecyclerView");
+        AppLog.d("PostsFragment", "Setting up RecyclerView");
         recyclerView.setLayoutManager(new LinearLayoutManager(getContext()));
-        adapter = new PostAdapter(new ArrayList<>(), getParentFragmentManager());
+        state = new ViewModelProvider(requireActivity()).get("posts", ListStateViewModel.class);
+        window = state.getWindow(MAX_PAGES, Post::getId);
+        adapter = new PostAdapter(getParentFragmentManager());
         recyclerView.setAdapter(adapter);
+        prefetcher = new DetailPrefetcher(requireContext(), getViewLifecycleOwner(), adapter::itemIdAt);
+        prefetcher.attach(recyclerView);
+
+        // The list sits inside the layout, so tell the refresh layout when it can scroll up
+        swipeRefreshLayout = new SwipeRefreshLayout(requireContext());
+        swipeRefreshLayout.addView(view, new ViewGroup.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+        swipeRefreshLayout.setOnChildScrollUpCallback((parent, child) -> recyclerView.canScrollVertically(-1));
+        swipeRefreshLayout.setOnRefreshListener(this::refresh);
 
-        Log.d("PostsFragment", "Loading posts");
-        loadPosts();
-        Log.d("PostsFragment", "onCreateView finished");
-        return view;
+        AppLog.d("PostsFragment", "onCreateView finished");
+        return swipeRefreshLayout;
+    }
+
+    @Override
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        if (adapter != null) {
+            AppLog.d("PostsFragment", "Loading posts");
+            loadPosts();
+        }
+    }
+
+    // Always asks the server: sync reads are conditional GETs, so a refresh sees every
+    // change and an unchanged list costs a 304. A sync already running is joined
+    // rather than repeated.
+    @Override
+    public void refresh() {
+        if (loader != null) {
+            AppLog.d("PostsFragment", "Refreshing posts");
+            syncPosts(RequestDispatcher.Priority.USER_VISIBLE);
+        }
     }
 
     private void loadPosts() {
-        new Thread(() -> {
-            try {
-                Log.d("PostsFragment", "Fetching posts from API");
-                ApiClient apiClient = new ApiClient();
-                String response = apiClient.getPosts();
-                Log.d("PostsFragment", "API Response: " + response);
-                Gson gson = new Gson();
-                List<Post> posts = gson.fromJson(response, new TypeToken<List<Post>>(){}.getType());
-                if (posts == null) {
-                    Log.e("PostsFragment", "Parsed posts list is null");
-                    posts = new ArrayList<>();
-                }
-                for (Post post : posts) {
-                    if (post == null) {
-                        Log.e("PostsFragment", "Found null Post in parsed list");
-                    } else {
-                        Log.d("PostsFragment", "Post: id=" + post.getId() + ", title=" + post.getTitle() + ", content=" + post.getContent());
+        AppLog.d("PostsFragment", "Loading posts from local store");
+        LocalStore store = LocalStore.getInstance(requireContext());
+        loader = new PagedLoader<>("local /posts", window, PAGE_SIZE, PREFETCH_DISTANCE,
+                (apiClient, cursor, limit, listener) -> {
+                    List<Post> page = store.postsPage(cursor, limit);
+                    listener.onBatch(page);
+                    return page.size();
+                },
+                adapter::submitList,
+                new PagedLoader.Listener() {
+                    @Override
+                    public void onPageLoaded(int windowSize) {
+                        showWindow(windowSize);
                     }
-                }
-                List<Post> finalPosts = posts;
-                getActivity().runOnUiThread(() -> {
-                    progressBar.setVisibility(View.GONE);
-                    if (finalPosts.isEmpty()) {
-                        Log.d("PostsFragment", "No posts available");
+
+                    @Override
+                    public void onError(Exception e) {
+                        AppLog.e("PostsFragment", "Error loading posts", e);
+                        if (window.size() > 0) {
+                            return;
+                        }
+                        progressBar.setVisibility(View.GONE);
                         recyclerView.setVisibility(View.GONE);
                         emptyTextView.setVisibility(View.VISIBLE);
-                        emptyTextView.setText("No posts available");
-                    } else {
-                        Log.d("PostsFragment", "Setting posts in adapter");
-                        adapter.setPosts(finalPosts);
-                        recyclerView.setVisibility(View.VISIBLE);
-                        emptyTextView.setVisibility(View.GONE);
+                        emptyTextView.setText("Error loading posts: " + e.getMessage());
                     }
                 });
-            } catch (Exception e) { // Changed from IOException to Exception
-                e.printStackTrace();
-                Log.e("PostsFragment", "Error loading posts: " + e.getMessage());
-                getActivity().runOnUiThread(() -> {
-                    progressBar.setVisibility(View.GONE);
-                    recyclerView.setVisibility(View.GONE);
-                    emptyTextView.setVisibility(View.VISIBLE);
-                    emptyTextView.setText("Error loading posts: " + e.getMessage());
-                });
+        loader.attach(recyclerView, getViewLifecycleOwner(), RequestDispatcher.getInstance(requireContext()));
+        LiveUpdates live = LiveUpdates.getInstance(requireContext());
+        live.observe(getViewLifecycleOwner(), this::onLiveEvents);
+        if (window.size() > 0) {
+            // Back on this tab: redraw what is already loaded and put the scroll back
+            adapter.submitList(window.snapshot());
+            recyclerView.getLayoutManager().onRestoreInstanceState(state.getScrollState());
+            showWindow(window.size());
+        } else {
+            loader.loadNext();
+        }
+        if (window.size() == 0) {
+            syncPosts(RequestDispatcher.Priority.USER_VISIBLE);
+        } else if (state.isStale() && !live.canResume()) {
+            // Rows are already on screen, so catching up must not hold up their loads.
+            // Once the event stream has been followed, reopening it brings the changes.
+            syncPosts(RequestDispatcher.Priority.MAINTENANCE);
+        }
+    }
+
+    // Pushed changes, at most once a frame. The store already has them, so only the
+    // loaded pages are patched; rows outside them are current when paged in.
+    private void onLiveEvents(List<LiveEvent> events) {
+        boolean changed = false;
+        boolean added = false;
+        for (LiveEvent event : events) {
+            if (LiveEvent.RESYNC.equals(event.getKind())) {
+                syncPosts(RequestDispatcher.Priority.MAINTENANCE);
+            } else if (LiveEvent.POST.equals(event.getKind())) {
+                if (event.isDelete()) {
+                    changed |= window.remove(event.getId());
+                } else if (event.getPost() != null) {
+                    changed |= window.upsert(event.getPost());
+                    added = true;
+                }
+            }
+        }
+        if (changed) {
+            adapter.submitList(window.snapshot());
+            showWindow(window.size());
+        } else if (added && window.size() == 0) {
+            loader.refresh();
+        }
+    }
+
+    private void showWindow(int windowSize) {
+        if (windowSize == 0 && syncing) {
+            // Nothing stored yet; keep the spinner until the first sync lands
+            return;
+        }
+        progressBar.setVisibility(View.GONE);
+        if (windowSize == 0) {
+            AppLog.d("PostsFragment", "No posts available");
+            recyclerView.setVisibility(View.GONE);
+            emptyTextView.setVisibility(View.VISIBLE);
+            emptyTextView.setText("No posts available");
+        } else {
+            recyclerView.setVisibility(View.VISIBLE);
+            emptyTextView.setVisibility(View.GONE);
+            recyclerView.post(() -> prefetcher.prefetchVisible(recyclerView));
+            if (firstContentStart != 0) {
+                Metrics.FIRST_CONTENT_POSTS.record(System.nanoTime() - firstContentStart);
+                firstContentStart = 0;
             }
-        }).start();
+        }
+    }
+
+    private void syncPosts(RequestDispatcher.Priority priority) {
+        SyncManager syncManager = new SyncManager(requireContext());
+        if (syncing) {
+            if (priority == RequestDispatcher.Priority.USER_VISIBLE) {
+                syncManager.prioritizePosts();
+            }
+            return;
+        }
+        syncing = true;
+        syncManager.syncPosts(priority, getViewLifecycleOwner(), new RequestDispatcher.Callback<Post>() {
+            @Override
+            public void onBatch(List<Post> batch) {
+            }
+
+            @Override
+            public void onComplete(int changed) {
+                syncing = false;
+                state.markSynced();
+                swipeRefreshLayout.setRefreshing(false);
+                AppLog.d("PostsFragment", "Synced posts", "changed", changed);
+                if (changed > 0 || window.size() == 0) {
+                    loader.refresh();
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                syncing = false;
+                swipeRefreshLayout.setRefreshing(false);
+                AppLog.e("PostsFragment", "Error syncing posts", e);
+                if (window.size() > 0) {
+                    return;
+                }
+                progressBar.setVisibility(View.GONE);
+                recyclerView.setVisibility(View.GONE);
+                emptyTextView.setVisibility(View.VISIBLE);
+                emptyTextView.setText("Error loading posts: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (recyclerView != null && recyclerView.getLayoutManager() != null) {
+            state.setScrollState(recyclerView.getLayoutManager().onSaveInstanceState());
+        }
     }
 }
 
 class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder> {
-    private List<Post> posts;
+    private static final DiffUtil.ItemCallback<Post> DIFF_CALLBACK = new DiffUtil.ItemCallback<Post>() {
+        @Override
+        public boolean areItemsTheSame(Post oldItem, Post newItem) {
+            return oldItem.getId() == newItem.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(Post oldItem, Post newItem) {
+            return Objects.equals(oldItem.getTitle(), newItem.getTitle())
+                    && Objects.equals(oldItem.getSummary(), newItem.getSummary());
+        }
+    };
+
+    private final AsyncListDiffer<Post> differ = new AsyncListDiffer<>(this, DIFF_CALLBACK);
     private FragmentManager fragmentManager;
 
-    public PostAdapter(List<Post> posts, FragmentManager fragmentManager) {
-        this.posts = posts != null ? posts : new ArrayList<>();
+    public PostAdapter(FragmentManager fragmentManager) {
         this.fragmentManager = fragmentManager;
-        Log.d("PostAdapter", "Adapter initialized with " + this.posts.size() + " items");
     }
 
-    public void setPosts(List<Post> posts) {
-        this.posts = posts != null ? posts : new ArrayList<>();
-        Log.d("PostAdapter", "setPosts called with " + this.posts.size() + " items: " + this.posts.toString());
-        notifyDataSetChanged();
+    // The diff runs on a background thread; only rows whose id or content changed
+    // are inserted, removed, moved or rebound.
+    public void submitList(List<Post> posts) {
+        differ.submitList(posts);
+    }
+
+    // DetailLoader id of the row at position.
+    public String itemIdAt(int position) {
+        return "post:" + differ.getCurrentList().get(position).getId();
     }
 
     @Override
     public PostViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
-        Log.d("PostAdapter", "onCreateViewHolder called");
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(android.R.layout.simple_list_item_1, parent, false);
         return new PostViewHolder(view);
@@ -130,10 +284,15 @@ class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder> {
 
     @Override
     public void onBindViewHolder(PostViewHolder holder, int position) {
-        Log.d("PostAdapter", "onBindViewHolder called for position " + position);
-        Post post = posts.get(position);
+        long start = System.nanoTime();
+        bindPost(holder, position);
+        Metrics.BIND.record(System.nanoTime() - start);
+    }
+
+    private void bindPost(PostViewHolder holder, int position) {
+        Post post = differ.getCurrentList().get(position);
         if (post == null) {
-            Log.e("PostAdapter", "Post at position " + position + " is null");
+            AppLog.e("PostAdapter", "Null post", "position", position);
             holder.textView.setText("Error: Post not available");
             return;
         }
@@ -141,12 +300,13 @@ class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder> {
         holder.textView.setText(title);
         holder.itemView.setOnClickListener(v -> {
             if (fragmentManager == null) {
-                Log.e("PostAdapter", "FragmentManager is null");
+                AppLog.e("PostAdapter", "FragmentManager is null");
                 return;
             }
-            Log.d("PostAdapter", "Post clicked at position " + position + ": " + title);
-            String content = post.getContent() != null ? post.getContent() : "No Content";
-            DetailFragment detailFragment = DetailFragment.newInstance(title, content);
+            AppLog.d("PostAdapter", "Post clicked", "id", post.getId());
+            // List rows only carry a summary; the detail screen loads the content
+            DetailFragment detailFragment = DetailFragment.newInstance("post:" + post.getId(), title,
+                    post.getContent());
             fragmentManager
                     .beginTransaction()
                     .replace(R.id.fragment_container, detailFragment)
@@ -157,9 +317,7 @@ class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder> {
 
     @Override
     public int getItemCount() {
-        int count = posts.size();
-        Log.d("PostAdapter", "getItemCount: " + count);
-        return count;
+        return differ.getCurrentList().size();
     }
 
     static class PostViewHolder extends RecyclerView.ViewHolder {
@@ -168,7 +326,6 @@ class PostAdapter extends RecyclerView.Adapter<PostAdapter.PostViewHolder> {
         PostViewHolder(View itemView) {
             super(itemView);
             textView = itemView.findViewById(android.R.id.text1);
-            Log.d("PostAdapter", "PostViewHolder created, textView: " + (textView != null));
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,214 @@
+package com.example.mobilefrontend;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+// The Linux quiz question bank, read from the binary index QuizBankWriter (under
+// tools/) builds out of linuxGuide's linux_quiz_questions.json. The index is
+// memory-mapped, so opening it reads a header and nothing else; questions are fixed
+// size records addressed by index, answer flags are bitmasks, and strings are decoded
+// only when shown. Sampling and scoring read the mapped records directly and allocate
+// nothing. Plain Java; QuizBankLoader gets the index out of the APK for the app.
+//
+// Layout, big-endian:
+//   header     magic, version, question/topic/string counts, then the offsets below
+//   topics     per topic: name string, first posting, posting count
+//   postings   question indices grouped by topic
+//   questions  RECORD_SIZE bytes each, see the R_ offsets
+//   strings    stringCount + 1 offsets into the string data, then UTF-8 bytes
+public class QuizBank {
+    static final String ASSET_NAME = "quiz.bin";
+    static final int MAGIC = 0x515A4231; // "QZB1"
+    static final int VERSION = 1;
+    static final int MAX_ANSWERS = 6;
+    static final int MAX_TOPICS = 32;
+    static final int NO_STRING = -1;
+    static final int FLAG_MULTIPLE = 1;
+
+    static final int H_QUESTION_COUNT = 8;
+    static final int H_TOPIC_COUNT = 12;
+    static final int H_STRING_COUNT = 16;
+    static final int H_TOPICS = 20;
+    static final int H_POSTINGS = 24;
+    static final int H_QUESTIONS = 28;
+    static final int H_STRING_OFFSETS = 32;
+    static final int H_STRING_DATA = 36;
+    static final int HEADER_SIZE = 40;
+    static final int TOPIC_SIZE = 12;
+
+    static final int R_ID = 0;
+    static final int R_QUESTION = 4;
+    static final int R_DESCRIPTION = 8;
+    static final int R_EXPLANATION = 12;
+    static final int R_TIP = 16;
+    static final int R_TOPICS = 20;
+    static final int R_DIFFICULTY = 24;
+    static final int R_ANSWER_COUNT = 25;
+    static final int R_CORRECT = 26;
+    static final int R_FLAGS = 27;
+    static final int R_ANSWERS = 28;
+    static final int RECORD_SIZE = R_ANSWERS + 4 * MAX_ANSWERS;
+
+    // Stored as one byte per question
+    public static final int EASY = 0;
+    public static final int MEDIUM = 1;
+    public static final int HARD = 2;
+    public static final int ANY = -1;
+
+    private final ByteBuffer buffer;
+    private final int questionCount;
+    private final int topicCount;
+    private final int topics;
+    private final int postings;
+    private final int questions;
+    private final int stringOffsets;
+    private final int stringData;
+
+    QuizBank(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a version " + VERSION + " quiz index");
+        }
+        questionCount = buffer.getInt(H_QUESTION_COUNT);
+        topicCount = buffer.getInt(H_TOPIC_COUNT);
+        topics = buffer.getInt(H_TOPICS);
+        postings = buffer.getInt(H_POSTINGS);
+        questions = buffer.getInt(H_QUESTIONS);
+        stringOffsets = buffer.getInt(H_STRING_OFFSETS);
+        stringData = buffer.getInt(H_STRING_DATA);
+    }
+
+    // Maps the index read-only; the mapping stays valid after the file is closed.
+    public static QuizBank open(File file) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+            return new QuizBank(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public int size() {
+        return questionCount;
+    }
+
+    public int topicCount() {
+        return topicCount;
+    }
+
+    public String topicName(int topic) {
+        return string(buffer.getInt(topics + topic * TOPIC_SIZE));
+    }
+
+    // Fills out with up to out.length distinct questions of the topic (or ANY) and
+    // difficulty (or ANY), picked uniformly at random, and returns how many it found.
+    public int sample(int topic, int difficulty, Random random, int[] out) {
+        int first = 0;
+        int count = questionCount;
+        if (topic != ANY) {
+            first = buffer.getInt(topics + topic * TOPIC_SIZE + 4);
+            count = buffer.getInt(topics + topic * TOPIC_SIZE + 8);
+        }
+        // Reservoir sampling over the candidates that match
+        int seen = 0;
+        for (int i = 0; i < count; i++) {
+            int question = topic == ANY ? i : buffer.getInt(postings + (first + i) * 4);
+            if (difficulty != ANY && difficulty(question) != difficulty) {
+                continue;
+            }
+            if (seen < out.length) {
+                out[seen] = question;
+            } else {
+                int slot = random.nextInt(seen + 1);
+                if (slot < out.length) {
+                    out[slot] = question;
+                }
+            }
+            seen++;
+        }
+        int found = Math.min(seen, out.length);
+        // The reservoir keeps the first picks in bank order; shuffle what was found
+        for (int i = found - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = out[i];
+            out[i] = out[j];
+            out[j] = swap;
+        }
+        return found;
+    }
+
+    public int id(int question) {
+        return buffer.getInt(record(question) + R_ID);
+    }
+
+    public String question(int question) {
+        return string(buffer.getInt(record(question) + R_QUESTION));
+    }
+
+    public String description(int question) {
+        return string(buffer.getInt(record(question) + R_DESCRIPTION));
+    }
+
+    public String explanation(int question) {
+        return string(buffer.getInt(record(question) + R_EXPLANATION));
+    }
+
+    public String tip(int question) {
+        return string(buffer.getInt(record(question) + R_TIP));
+    }
+
+    public int difficulty(int question) {
+        return buffer.get(record(question) + R_DIFFICULTY);
+    }
+
+    public int answerCount(int question) {
+        return buffer.get(record(question) + R_ANSWER_COUNT);
+    }
+
+    public String answer(int question, int answer) {
+        return string(buffer.getInt(record(question) + R_ANSWERS + answer * 4));
+    }
+
+    // Bit i set when answer i is correct.
+    public int correctMask(int question) {
+        return buffer.get(record(question) + R_CORRECT) & 0xFF;
+    }
+
+    public boolean isMultipleChoice(int question) {
+        return (buffer.get(record(question) + R_FLAGS) & FLAG_MULTIPLE) != 0;
+    }
+
+    // chosenMask has bit i set for each answer picked; only the exact set is correct.
+    public boolean isCorrect(int question, int chosenMask) {
+        return chosenMask == correctMask(question);
+    }
+
+    public int score(int[] questions, int[] chosenMasks, int count) {
+        int correct = 0;
+        for (int i = 0; i < count; i++) {
+            if (isCorrect(questions[i], chosenMasks[i])) {
+                correct++;
+            }
+        }
+        return correct;
+    }
+
+    private int record(int question) {
+        return questions + question * RECORD_SIZE;
+    }
+
+    private String string(int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+        int start = buffer.getInt(stringOffsets + index * 4);
+        int end = buffer.getInt(stringOffsets + (index + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        ByteBuffer view = buffer.duplicate();
+        view.position(stringData + start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.RejectedExecutionException;
+
+// Opens the app's one QuizBank. The index asset is stored compressed, so it cannot be
+// mapped from the APK itself; the first open copies it out, on a RequestDispatcher
+// worker like any other load the screen is waiting for.
+public final class QuizBankLoader {
+    private static final String TAG = "QuizBankLoader";
+
+    private static final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private static QuizBank instance;
+
+    public interface Callback {
+        void onOpened(QuizBank bank);
+
+        void onError(Exception e);
+    }
+
+    private QuizBankLoader() {
+    }
+
+    // Delivers on the main thread.
+    public static void open(Context context, Callback callback) {
+        synchronized (QuizBankLoader.class) {
+            if (instance != null) {
+                callback.onOpened(instance);
+                return;
+            }
+        }
+        Context appContext = context.getApplicationContext();
+        try {
+            RequestDispatcher.getInstance(appContext).execute(RequestDispatcher.Priority.USER_VISIBLE, () -> {
+                try {
+                    QuizBank bank;
+                    synchronized (QuizBankLoader.class) {
+                        if (instance == null) {
+                            long start = System.nanoTime();
+                            instance = QuizBank.open(extract(appContext));
+                            Metrics.QUIZ_OPEN.record(System.nanoTime() - start);
+                            AppLog.d(TAG, "Opened quiz index", "questions", instance.size());
+                        }
+                        bank = instance;
+                    }
+                    mainHandler.post(() -> callback.onOpened(bank));
+                } catch (IOException e) {
+                    AppLog.e(TAG, "Opening quiz index failed", e);
+                    mainHandler.post(() -> callback.onError(e));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            AppLog.w(TAG, "Request queue full, not opening", "error", e.getMessage());
+            callback.onError(e);
+        }
+    }
+
+    // The copy is named after the app version and replaced on upgrade.
+    private static File extract(Context context) throws IOException {
+        File dir = context.getNoBackupFilesDir();
+        File file = new File(dir, "quiz-" + BuildConfig.VERSION_CODE + ".bin");
+        if (file.isFile()) {
+            return file;
+        }
+        File[] stale = dir.listFiles((d, name) -> name.startsWith("quiz-") && name.endsWith(".bin"));
+        if (stale != null) {
+            for (File old : stale) {
+                old.delete();
+            }
+        }
+        File tmp = new File(dir, file.getName() + ".tmp");
+        try (InputStream in = context.getAssets().open(QuizBank.ASSET_NAME); OutputStream out = new FileOutputStream(tmp)) {
+            byte[] chunk = new byte[16 * 1024];
+            int n;
+            while ((n = in.read(chunk)) != -1) {
+                out.write(chunk, 0, n);
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            throw new IOException("Could not move " + tmp + " into place");
+        }
+        return file;
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.util.TypedValue;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ArrayAdapter;
+import android.widget.Button;
+import android.widget.CheckBox;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+import android.widget.Spinner;
+import android.widget.TextView;
+import androidx.fragment.app.Fragment;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+// Linux quiz rounds from the question bank bundled with the app, so it works offline.
+// A round is a few random questions, optionally from one topic and difficulty; each
+// answer is checked on the spot and the round ends with a score.
+public class QuizFragment extends Fragment {
+    private static final int ROUND_SIZE = 10;
+    private static final String[] DIFFICULTIES = {"Any difficulty", "Easy", "Medium", "Hard"};
+
+    // The round in progress, kept while the tab is switched away from
+    public static class Round extends ViewModel {
+        int[] questions = new int[0];
+        int[] chosen = new int[0];
+        int position;
+        boolean checked;
+        final Random random = new Random();
+        // Sampling buffer, reused for every round
+        final int[] sample = new int[ROUND_SIZE];
+    }
+
+    private Round round;
+    private QuizBank bank;
+    private Spinner topicSpinner;
+    private Spinner difficultySpinner;
+    private TextView statusTextView;
+    private TextView questionTextView;
+    private LinearLayout answersLayout;
+    private TextView feedbackTextView;
+    private Button actionButton;
+    private final List<CheckBox> answerBoxes = new ArrayList<>();
+
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        Context context = requireContext();
+        round = new ViewModelProvider(requireActivity()).get("quiz", Round.class);
+        int padding = (int) (12 * getResources().getDisplayMetrics().density);
+
+        LinearLayout layout = new LinearLayout(context);
+        layout.setOrientation(LinearLayout.VERTICAL);
+        layout.setPadding(padding, padding / 2, padding, padding);
+
+        LinearLayout setupRow = new LinearLayout(context);
+        setupRow.setOrientation(LinearLayout.HORIZONTAL);
+        topicSpinner = new Spinner(context);
+        setupRow.addView(topicSpinner, new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1));
+        difficultySpinner = new Spinner(context);
+        ArrayAdapter<String> difficulties = new ArrayAdapter<>(context, android.R.layout.simple_spinner_item,
+                DIFFICULTIES);
+        difficulties.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+        difficultySpinner.setAdapter(difficulties);
+        setupRow.addView(difficultySpinner, new LinearLayout.LayoutParams(0, ViewGroup.LayoutParams.WRAP_CONTENT, 1));
+        Button startButton = new Button(context);
+        startButton.setText("New round");
+        startButton.setOnClickListener(v -> startRound());
+        setupRow.addView(startButton);
+        layout.addView(setupRow);
+
+        statusTextView = new TextView(context);
+        statusTextView.setPadding(0, padding, 0, padding / 2);
+        layout.addView(statusTextView);
+        questionTextView = new TextView(context);
+        questionTextView.setTextSize(TypedValue.COMPLEX_UNIT_SP, 18);
+        layout.addView(questionTextView);
+        answersLayout = new LinearLayout(context);
+        answersLayout.setOrientation(LinearLayout.VERTICAL);
+        answersLayout.setPadding(0, padding / 2, 0, padding / 2);
+        layout.addView(answersLayout);
+        feedbackTextView = new TextView(context);
+        feedbackTextView.setPadding(0, 0, 0, padding / 2);
+        layout.addView(feedbackTextView);
+        actionButton = new Button(context);
+        actionButton.setOnClickListener(v -> onAction());
+        layout.addView(actionButton, new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+
+        ScrollView scrollView = new ScrollView(context);
+        scrollView.addView(layout);
+        return scrollView;
+    }
+
+    @Override
+    public void onViewCreated(View view, Bundle savedInstanceState) {
+        super.onViewCreated(view, savedInstanceState);
+        statusTextView.setText(getString(R.string.rendering_content));
+        actionButton.setVisibility(View.GONE);
+        QuizBankLoader.open(requireContext(), new QuizBankLoader.Callback() {
+            @Override
+            public void onOpened(QuizBank opened) {
+                if (statusTextView == null) {
+                    return;
+                }
+                bank = opened;
+                List<String> topics = new ArrayList<>();
+                topics.add("All topics");
+                for (int topic = 0; topic < bank.topicCount(); topic++) {
+                    topics.add(bank.topicName(topic));
+                }
+                ArrayAdapter<String> adapter = new ArrayAdapter<>(requireContext(),
+                        android.R.layout.simple_spinner_item, topics);
+                adapter.setDropDownViewResource(android.R.layout.simple_spinner_dropdown_item);
+                topicSpinner.setAdapter(adapter);
+                if (round.questions.length == 0) {
+                    startRound();
+                } else {
+                    show();
+                }
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (statusTextView != null) {
+                    statusTextView.setText("Error loading quiz: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    private void startRound() {
+        if (bank == null) {
+            return;
+        }
+        // Position 0 of each spinner is "any"
+        int topic = topicSpinner.getSelectedItemPosition() - 1;
+        int difficulty = difficultySpinner.getSelectedItemPosition() - 1;
+        int found = bank.sample(topic, difficulty, round.random, round.sample);
+        round.questions = Arrays.copyOf(round.sample, found);
+        round.chosen = new int[found];
+        round.position = 0;
+        round.checked = false;
+        show();
+    }
+
+    private void show() {
+        answersLayout.removeAllViews();
+        answerBoxes.clear();
+        feedbackTextView.setText("");
+        int total = round.questions.length;
+        if (total == 0) {
+            statusTextView.setText("No questions for that topic and difficulty");
+            questionTextView.setText("");
+            actionButton.setVisibility(View.GONE);
+            return;
+        }
+        actionButton.setVisibility(View.VISIBLE);
+        if (round.position == total) {
+            int score = bank.score(round.questions, round.chosen, total);
+            statusTextView.setText("Round complete");
+            questionTextView.setText("You got " + score + " of " + total + " right");
+            actionButton.setText("Play again");
+            return;
+        }
+
+        int question = round.questions[round.position];
+        boolean multiple = bank.isMultipleChoice(question);
+        statusTextView.setText("Question " + (round.position + 1) + " of " + total
+                + (multiple ? " · select all that apply" : ""));
+        questionTextView.setText(bank.question(question));
+        for (int answer = 0; answer < bank.answerCount(question); answer++) {
+            int bit = 1 << answer;
+            CheckBox box = new CheckBox(requireContext());
+            box.setText(bank.answer(question, answer));
+            box.setChecked((round.chosen[round.position] & bit) != 0);
+            box.setEnabled(!round.checked);
+            box.setOnCheckedChangeListener((button, isChecked) -> {
+                if (isChecked) {
+                    round.chosen[round.position] = multiple ? round.chosen[round.position] | bit : bit;
+                } else {
+                    round.chosen[round.position] &= ~bit;
+                }
+                if (isChecked && !multiple) {
+                    for (CheckBox other : answerBoxes) {
+                        if (other != button) {
+                            other.setChecked(false);
+                        }
+                    }
+                }
+            });
+            answerBoxes.add(box);
+            answersLayout.addView(box);
+        }
+        if (round.checked) {
+            showFeedback(question);
+        } else {
+            actionButton.setText("Check");
+        }
+    }
+
+    private void onAction() {
+        if (round.position == round.questions.length) {
+            startRound();
+        } else if (!round.checked) {
+            round.checked = true;
+            for (CheckBox box : answerBoxes) {
+                box.setEnabled(false);
+            }
+            showFeedback(round.questions[round.position]);
+        } else {
+            round.position++;
+            round.checked = false;
+            show();
+        }
+    }
+
+    private void showFeedback(int question) {
+        StringBuilder feedback = new StringBuilder();
+        if (bank.isCorrect(question, round.chosen[round.position])) {
+            feedback.append("Correct!");
+        } else {
+            feedback.append("Not quite. The answer is:");
+            int correct = bank.correctMask(question);
+            for (int answer = 0; answer < bank.answerCount(question); answer++) {
+                if ((correct & (1 << answer)) != 0) {
+                    feedback.append("\n• ").append(bank.answer(question, answer));
+                }
+            }
+        }
+        String explanation = bank.explanation(question);
+        if (explanation != null) {
+            feedback.append("\n\n").append(explanation);
+        }
+        String tip = bank.tip(question);
+        if (tip != null) {
+            feedback.append("\n\nTip: ").append(tip);
+        }
+        feedbackTextView.setText(feedback);
+        actionButton.setText(round.position == round.questions.length - 1 ? "See score" : "Next");
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        answerBoxes.clear();
+        statusTextView = null;
+    }
+}
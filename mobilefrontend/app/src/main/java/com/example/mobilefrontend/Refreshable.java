@@ -0,0 +1,5 @@
+package com.example.mobilefrontend;
+
+public interface Refreshable {
+    void refresh();
+}
@@ -0,0 +1,329 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// App-wide pipeline for API loads: one in-flight request per key shared by every
+// subscriber, and callbacks on the main thread. Work is classed by Priority and each
+// class has its own bounded pool, so prefetching and maintenance never take a worker
+// that something on screen is waiting for.
+public class RequestDispatcher {
+    private static final String TAG = "RequestDispatcher";
+
+    private static RequestDispatcher instance;
+
+    public enum Priority {
+        // Something on screen is waiting for it
+        USER_VISIBLE(3, 32, Process.THREAD_PRIORITY_BACKGROUND + Process.THREAD_PRIORITY_MORE_FAVORABLE),
+        // Might be shown next; dropped when the queue is full
+        PREFETCH(2, 16, Process.THREAD_PRIORITY_BACKGROUND),
+        // Refreshes nobody is looking at yet
+        MAINTENANCE(1, 8, Process.THREAD_PRIORITY_LOWEST);
+
+        final int poolSize;
+        final int queueCapacity;
+        final int threadPriority;
+
+        Priority(int poolSize, int queueCapacity, int threadPriority) {
+            this.poolSize = poolSize;
+            this.queueCapacity = queueCapacity;
+            this.threadPriority = threadPriority;
+        }
+    }
+
+    public interface StreamTask<T> {
+        int run(ApiClient apiClient, ApiClient.BatchListener<T> listener) throws Exception;
+    }
+
+    public interface Callback<T> {
+        void onBatch(List<T> batch);
+
+        void onComplete(int total);
+
+        void onError(Exception e);
+    }
+
+    private final Context context;
+    // Created by the first request, on its worker, so the disk cache directory is not
+    // touched on the main thread while the first screen is coming up
+    private volatile ApiClient apiClient;
+    private final Object apiClientLock = new Object();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final Map<String, Call<?>> inFlight = new HashMap<>();
+    private final Map<Priority, ThreadPoolExecutor> executors = new EnumMap<>(Priority.class);
+
+    private RequestDispatcher(Context context) {
+        this.context = context;
+        for (Priority priority : Priority.values()) {
+            AtomicInteger threadCount = new AtomicInteger();
+            String name = "api-" + priority.name().toLowerCase(Locale.ROOT) + "-";
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(priority.poolSize, priority.poolSize, 30,
+                    TimeUnit.SECONDS, new ArrayBlockingQueue<>(priority.queueCapacity),
+                    runnable -> new Thread(() -> {
+                        Process.setThreadPriority(priority.threadPriority);
+                        runnable.run();
+                    }, name + threadCount.incrementAndGet()));
+            executor.allowCoreThreadTimeOut(true);
+            executors.put(priority, executor);
+        }
+    }
+
+    public static synchronized RequestDispatcher getInstance(Context context) {
+        if (instance == null) {
+            instance = new RequestDispatcher(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    public ApiClient getApiClient() {
+        ApiClient current = apiClient;
+        if (current == null) {
+            synchronized (apiClientLock) {
+                current = apiClient;
+                if (current == null) {
+                    current = new ApiClient(new ResponseCache(new File(context.getCacheDir(), "api")));
+                    apiClient = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public <T> Subscription<T> stream(String key, LifecycleOwner owner, StreamTask<T> task, Callback<T> callback) {
+        return stream(key, Priority.USER_VISIBLE, owner, task, callback);
+    }
+
+    // Must be called on the main thread. If a request for the same key is already
+    // running, the caller joins it and first receives the batches delivered so far;
+    // if it is still queued at a lower priority, it is moved up to this one. The
+    // subscription is cancelled automatically when the owner is destroyed, and a
+    // request nobody subscribes to any more is cancelled, queued or not. An owner that
+    // is already destroyed would never call back, so nothing is started for it.
+    @SuppressWarnings("unchecked")
+    public <T> Subscription<T> stream(String key, Priority priority, LifecycleOwner owner, StreamTask<T> task,
+                                      Callback<T> callback) {
+        Subscription<T> subscription;
+        if (owner != null && owner.getLifecycle().getCurrentState() == Lifecycle.State.DESTROYED) {
+            subscription = new Subscription<>(new Call<>(key, priority), callback);
+            subscription.cancelled = true;
+            AppLog.d(TAG, "Owner already destroyed, not started", "key", key);
+            return subscription;
+        }
+        synchronized (this) {
+            Call<T> call = (Call<T>) inFlight.get(key);
+            boolean coalesced = call != null;
+            if (!coalesced) {
+                call = new Call<>(key, priority);
+                inFlight.put(key, call);
+            } else {
+                promote(call, priority);
+            }
+            subscription = new Subscription<>(call, callback);
+            call.subscribers.add(subscription);
+            for (List<T> batch : call.delivered) {
+                subscription.postBatch(batch);
+            }
+            if (coalesced) {
+                AppLog.d(TAG, "Coalesced request", "key", key);
+            } else {
+                start(call, task);
+            }
+        }
+        if (owner != null) {
+            owner.getLifecycle().addObserver(subscription);
+        }
+        return subscription;
+    }
+
+    // One-off background work that is not an API load but belongs to the same class,
+    // such as opening a local index for the screen being shown. Throws
+    // RejectedExecutionException when that class's queue is full.
+    public void execute(Priority priority, Runnable work) {
+        executors.get(priority).execute(work);
+    }
+
+    // Moves a request that is still queued up to priority, for when something on
+    // screen starts waiting for work that was started in the background.
+    public synchronized void promote(String key, Priority priority) {
+        Call<?> call = inFlight.get(key);
+        if (call != null) {
+            promote(call, priority);
+        }
+    }
+
+    private <T> void promote(Call<T> call, Priority priority) {
+        if (priority.ordinal() < call.priority.ordinal() && !call.started.get()) {
+            AppLog.d(TAG, "Promoted request", "key", call.key, "priority", priority);
+            call.priority = priority;
+            start(call, call.task);
+        }
+    }
+
+    // A promoted call is submitted again at its new priority; whichever copy reaches
+    // a worker first runs it and the other returns at once.
+    private <T> void start(Call<T> call, StreamTask<T> task) {
+        call.task = task;
+        Future<?> previous = call.future;
+        try {
+            call.future = executors.get(call.priority).submit(() -> run(call, task));
+        } catch (RejectedExecutionException e) {
+            if (previous != null) {
+                // Still queued where it was
+                return;
+            }
+            AppLog.w(TAG, "Request queue full, rejecting", "key", call.key);
+            inFlight.remove(call.key);
+            for (Subscription<T> subscription : call.subscribers) {
+                subscription.postError(e);
+            }
+            return;
+        }
+        if (previous != null) {
+            previous.cancel(false);
+        }
+    }
+
+    private <T> void run(Call<T> call, StreamTask<T> task) {
+        if (!call.started.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            int total = task.run(getApiClient(), batch -> {
+                synchronized (RequestDispatcher.this) {
+                    if (call.cancelled) {
+                        throw new CancellationException(call.key);
+                    }
+                    call.delivered.add(batch);
+                    for (Subscription<T> subscription : call.subscribers) {
+                        subscription.postBatch(batch);
+                    }
+                }
+            });
+            synchronized (this) {
+                finish(call);
+                for (Subscription<T> subscription : call.subscribers) {
+                    subscription.postComplete(total);
+                }
+            }
+        } catch (CancellationException e) {
+            AppLog.d(TAG, "Request cancelled", "key", call.key);
+        } catch (Exception e) {
+            AppLog.e(TAG, "Request failed: " + call.key, e);
+            synchronized (this) {
+                finish(call);
+                for (Subscription<T> subscription : call.subscribers) {
+                    subscription.postError(e);
+                }
+            }
+        }
+    }
+
+    private void finish(Call<?> call) {
+        if (inFlight.get(call.key) == call) {
+            inFlight.remove(call.key);
+        }
+    }
+
+    private synchronized void unsubscribe(Subscription<?> subscription) {
+        Call<?> call = subscription.call;
+        call.subscribers.remove(subscription);
+        if (call.subscribers.isEmpty() && !call.cancelled) {
+            call.cancelled = true;
+            finish(call);
+            if (call.future != null) {
+                call.future.cancel(true);
+            }
+            AppLog.d(TAG, "No subscribers left, cancelled", "key", call.key);
+        }
+    }
+
+    private static class Call<T> {
+        final String key;
+        final List<Subscription<T>> subscribers = new ArrayList<>();
+        final List<List<T>> delivered = new ArrayList<>();
+        final AtomicBoolean started = new AtomicBoolean();
+        volatile boolean cancelled;
+        Priority priority;
+        StreamTask<T> task;
+        Future<?> future;
+
+        Call(String key, Priority priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+    }
+
+    public class Subscription<T> implements DefaultLifecycleObserver {
+        private final Call<T> call;
+        private final Callback<T> callback;
+        // Only read and written on the main thread, so delivery after cancel() is impossible.
+        private boolean cancelled;
+
+        Subscription(Call<T> call, Callback<T> callback) {
+            this.call = call;
+            this.callback = callback;
+        }
+
+        public void cancel() {
+            if (cancelled) {
+                return;
+            }
+            cancelled = true;
+            unsubscribe(this);
+        }
+
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public void onDestroy(LifecycleOwner owner) {
+            owner.getLifecycle().removeObserver(this);
+            cancel();
+        }
+
+        void postBatch(List<T> batch) {
+            mainHandler.post(() -> {
+                if (!cancelled) {
+                    callback.onBatch(batch);
+                }
+            });
+        }
+
+        void postComplete(int total) {
+            mainHandler.post(() -> {
+                if (!cancelled) {
+                    callback.onComplete(total);
+                }
+            });
+        }
+
+        void postError(Exception e) {
+            mainHandler.post(() -> {
+                if (!cancelled) {
+                    callback.onError(e);
+                }
+            });
+        }
+    }
+}
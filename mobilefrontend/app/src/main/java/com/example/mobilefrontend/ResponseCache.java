@@ -0,0 +1,313 @@
+package com.example.mobilefrontend;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Two-tier cache for list responses: decoded lists in a byte-bounded memory LRU,
+// raw response bodies in the app cache dir, also LRU and byte-bounded. Each body is
+// stored in one file behind a header with its ETag/Last-Modified validators and media
+// type, so replacing an entry is a single rename and a reader can never pair a body
+// with another response's validators. Nothing here is served without asking the
+// server: ApiClient sends the validators on every read and replays the body on 304.
+// Plain Java only, so the JVM load test can use ApiClient as the app does.
+public class ResponseCache {
+    private static final String TAG = "ResponseCache";
+    private static final int DEFAULT_MEMORY_BYTES = 4 * 1024 * 1024;
+    private static final long DEFAULT_DISK_BYTES = 8 * 1024 * 1024;
+
+    private final File dir;
+    // Access-ordered, so iteration starts at the least recently used entry
+    private final LinkedHashMap<String, Entry> memory = new LinkedHashMap<>(16, 0.75f, true);
+    private final int memoryBytes;
+    private int memoryUsed;
+    private final long diskBytes;
+    private final Object diskLock = new Object();
+
+    private final AtomicInteger revalidations = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    public ResponseCache(File dir) {
+        this(dir, DEFAULT_MEMORY_BYTES);
+    }
+
+    public ResponseCache(File dir, int memoryBytes) {
+        this(dir, memoryBytes, DEFAULT_DISK_BYTES);
+    }
+
+    public ResponseCache(File dir, int memoryBytes, long diskBytes) {
+        this.dir = dir;
+        this.memoryBytes = memoryBytes;
+        this.diskBytes = diskBytes;
+        if (dir != null && !dir.isDirectory() && !dir.mkdirs()) {
+            AppLog.e(TAG, "Could not create cache dir", "dir", dir);
+        }
+    }
+
+    static class Validators {
+        final String etag;
+        final String lastModified;
+        // Media type of the stored body, so a disk replay picks the right decoder
+        final String contentType;
+
+        Validators(String etag, String lastModified, String contentType) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.contentType = contentType;
+        }
+    }
+
+    static class Entry {
+        final List<?> items;
+        final int bytes;
+        volatile Validators validators;
+
+        Entry(List<?> items, int bytes, Validators validators) {
+            this.items = items;
+            this.bytes = bytes;
+            this.validators = validators;
+        }
+    }
+
+    synchronized Entry getMemory(String url) {
+        return memory.get(url);
+    }
+
+    synchronized void putMemory(String url, List<?> items, int bytes, Validators validators) {
+        Entry previous = memory.put(url, new Entry(Collections.unmodifiableList(items), bytes, validators));
+        memoryUsed += bytes - (previous != null ? previous.bytes : 0);
+        Iterator<Entry> eldest = memory.values().iterator();
+        while (memoryUsed > memoryBytes && eldest.hasNext()) {
+            memoryUsed -= eldest.next().bytes;
+            eldest.remove();
+        }
+    }
+
+    // The stored copy of a response, positioned at the start of its body, or null if
+    // there is none. Its validators come from the same file as the body, so the two
+    // always belong to the same response.
+    StoredBody openBody(String url) {
+        if (dir == null) {
+            return null;
+        }
+        File file = entryFile(url);
+        RandomAccessFile in = null;
+        try {
+            in = new RandomAccessFile(file, "r");
+            if (!url.equals(in.readUTF())) {
+                in.close();
+                return null;
+            }
+            Validators validators = new Validators(emptyToNull(in.readUTF()), emptyToNull(in.readUTF()),
+                    emptyToNull(in.readUTF()));
+            int bytes = (int) Math.min(Integer.MAX_VALUE, in.length() - in.getFilePointer());
+            // Disk eviction goes by modification time, so a read counts as a use
+            file.setLastModified(System.currentTimeMillis());
+            return new StoredBody(new BufferedInputStream(Channels.newInputStream(in.getChannel())), validators,
+                    bytes);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            AppLog.w(TAG, "Dropping unreadable cache entry", "url", url);
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+            file.delete();
+            return null;
+        }
+    }
+
+    static class StoredBody extends FilterInputStream {
+        final Validators validators;
+        final int bytes;
+
+        StoredBody(InputStream body, Validators validators, int bytes) {
+            super(body);
+            this.validators = validators;
+            this.bytes = bytes;
+        }
+    }
+
+    // Wraps a network body so every byte read is also written to a temp file behind a
+    // header holding the validators. The copy only replaces the cached entry, in one
+    // rename, once commit() is called after a full decode.
+    BodyWriter newBodyWriter(String url, Validators validators, InputStream source) {
+        if (dir == null) {
+            return new BodyWriter(url, source, null, null);
+        }
+        File tmp = null;
+        try {
+            tmp = File.createTempFile("entry", ".tmp", dir);
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)));
+            out.writeUTF(url);
+            out.writeUTF(nullToEmpty(validators.etag));
+            out.writeUTF(nullToEmpty(validators.lastModified));
+            out.writeUTF(nullToEmpty(validators.contentType));
+            return new BodyWriter(url, source, tmp, out);
+        } catch (IOException e) {
+            AppLog.e(TAG, "Disk cache unavailable", e);
+            if (tmp != null) {
+                tmp.delete();
+            }
+            return new BodyWriter(url, source, null, null);
+        }
+    }
+
+    class BodyWriter extends FilterInputStream {
+        private final String url;
+        private final File tmp;
+        private OutputStream out;
+        private int bytes;
+
+        BodyWriter(String url, InputStream source, File tmp, OutputStream out) {
+            super(source);
+            this.url = url;
+            this.tmp = tmp;
+            this.out = out;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                write(new byte[] {(byte) b}, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                write(buffer, offset, n);
+            }
+            return n;
+        }
+
+        private void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            if (out == null) {
+                return;
+            }
+            try {
+                out.write(buffer, offset, length);
+            } catch (IOException e) {
+                AppLog.e(TAG, "Dropping disk copy of " + url, e);
+                abandon();
+            }
+        }
+
+        int getBytes() {
+            return bytes;
+        }
+
+        void commit() {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.close();
+                out = null;
+                if (tmp.renameTo(entryFile(url))) {
+                    trimDisk();
+                } else {
+                    tmp.delete();
+                }
+            } catch (IOException e) {
+                abandon();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            abandon();
+            super.close();
+        }
+
+        private void abandon() {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.close();
+            } catch (IOException ignored) {
+            }
+            out = null;
+            tmp.delete();
+        }
+    }
+
+    // Least recently used first, until the directory is back under diskBytes.
+    private void trimDisk() {
+        synchronized (diskLock) {
+            File[] files = dir.listFiles();
+            if (files == null) {
+                return;
+            }
+            long total = 0;
+            for (File file : files) {
+                total += file.length();
+            }
+            if (total <= diskBytes) {
+                return;
+            }
+            Arrays.sort(files, (a, b) -> Long.compare(a.lastModified(), b.lastModified()));
+            for (File file : files) {
+                if (total <= diskBytes) {
+                    break;
+                }
+                total -= file.length();
+                file.delete();
+            }
+        }
+    }
+
+    private File entryFile(String url) {
+        return new File(dir, Integer.toHexString(url.hashCode()) + ".entry");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+
+    void recordRevalidation() {
+        revalidations.incrementAndGet();
+    }
+
+    void recordMiss() {
+        misses.incrementAndGet();
+    }
+
+    public int getRevalidationCount() {
+        return revalidations.get();
+    }
+
+    public int getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ResponseCache{revalidations=" + revalidations.get() + ", misses=" + misses.get() + "}";
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.EditText;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+import androidx.fragment.app.Fragment;
+import androidx.fragment.app.FragmentManager;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+
+// Search-as-you-type over everything synced so far. Each keystroke cancels the query
+// still running for the previous one, so only the latest text is ever answered.
+public class SearchFragment extends Fragment {
+    private static final int MAX_RESULTS = 50;
+
+    private TextView statusTextView;
+    private SearchResultAdapter adapter;
+    private Future<?> pendingSearch;
+
+    @Override
+    public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
+        Context context = requireContext();
+        int padding = (int) (12 * getResources().getDisplayMetrics().density);
+
+        LinearLayout layout = new LinearLayout(context);
+        layout.setOrientation(LinearLayout.VERTICAL);
+
+        EditText queryEditText = new EditText(context);
+        queryEditText.setHint("Search guides and posts");
+        queryEditText.setSingleLine(true);
+        layout.addView(queryEditText);
+
+        statusTextView = new TextView(context);
+        statusTextView.setPadding(padding, padding / 2, padding, padding / 2);
+        statusTextView.setVisibility(View.GONE);
+        layout.addView(statusTextView);
+
+        RecyclerView recyclerView = new RecyclerView(context);
+        recyclerView.setLayoutManager(new LinearLayoutManager(context));
+        adapter = new SearchResultAdapter(this::open);
+        recyclerView.setAdapter(adapter);
+        layout.addView(recyclerView, new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT, ViewGroup.LayoutParams.MATCH_PARENT));
+
+        queryEditText.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+            }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                search(s.toString());
+            }
+        });
+        return layout;
+    }
+
+    private void search(String query) {
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+        }
+        pendingSearch = SearchIndex.getInstance(requireContext()).search(query, MAX_RESULTS, new SearchIndex.Callback() {
+            @Override
+            public void onResults(String query, List<SearchIndex.Result> results) {
+                if (statusTextView == null) {
+                    return;
+                }
+                adapter.setResults(results);
+                boolean empty = results.isEmpty() && !query.trim().isEmpty();
+                statusTextView.setVisibility(empty ? View.VISIBLE : View.GONE);
+                statusTextView.setText(empty ? "No matches for \"" + query.trim() + "\"" : "");
+            }
+
+            @Override
+            public void onError(Exception e) {
+                if (statusTextView != null) {
+                    statusTextView.setVisibility(View.VISIBLE);
+                    statusTextView.setText("Search failed: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    // The detail screen loads the text itself, from the store or the server.
+    private void open(SearchIndex.Result result) {
+        String prefix = LocalStore.GUIDES.equals(result.table) ? "guide:" : "post:";
+        String title = result.title != null ? result.title : "No Title";
+        FragmentManager fragmentManager = getParentFragmentManager();
+        fragmentManager
+                .beginTransaction()
+                .replace(R.id.fragment_container, DetailFragment.newInstance(prefix + result.id, title, null))
+                .addToBackStack(null)
+                .commit();
+    }
+
+    @Override
+    public void onDestroyView() {
+        super.onDestroyView();
+        if (pendingSearch != null) {
+            pendingSearch.cancel(true);
+            pendingSearch = null;
+        }
+        statusTextView = null;
+    }
+}
+
+class SearchResultAdapter extends RecyclerView.Adapter<SearchResultAdapter.ResultViewHolder> {
+    interface OnResultClickListener {
+        void onResultClick(SearchIndex.Result result);
+    }
+
+    private final OnResultClickListener listener;
+    private List<SearchIndex.Result> results = new ArrayList<>();
+
+    SearchResultAdapter(OnResultClickListener listener) {
+        this.listener = listener;
+    }
+
+    // Results change wholesale with every keystroke, so there is nothing to diff.
+    void setResults(List<SearchIndex.Result> results) {
+        this.results = results;
+        notifyDataSetChanged();
+    }
+
+    @Override
+    public ResultViewHolder onCreateViewHolder(ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(android.R.layout.simple_list_item_2, parent, false);
+        ResultViewHolder holder = new ResultViewHolder(view);
+        view.setOnClickListener(v -> {
+            int position = holder.getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION) {
+                listener.onResultClick(results.get(position));
+            }
+        });
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(ResultViewHolder holder, int position) {
+        SearchIndex.Result result = results.get(position);
+        holder.titleTextView.setText(result.title != null ? result.title : "No Title");
+        holder.kindTextView.setText(LocalStore.GUIDES.equals(result.table) ? "Guide" : "Post");
+    }
+
+    @Override
+    public int getItemCount() {
+        return results.size();
+    }
+
+    static class ResultViewHolder extends RecyclerView.ViewHolder {
+        TextView titleTextView;
+        TextView kindTextView;
+
+        ResultViewHolder(View itemView) {
+            super(itemView);
+            titleTextView = itemView.findViewById(android.R.id.text1);
+            kindTextView = itemView.findViewById(android.R.id.text2);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+// Search-as-you-type over the FTS index LocalStore keeps up to date as guides and
+// posts are synced. Every word typed is matched as a prefix and queries run on one
+// background thread. FTS4 has no rank function and the framework SQLite cannot
+// register one, so every match is ranked here with SearchRanking's score of its
+// matchinfo() blob; the scan reads only docid and matchinfo, and titles are looked up
+// for the winners alone. No query touches the network.
+public class SearchIndex {
+    private static final String TAG = "SearchIndex";
+    // Only a guard against runaway scans: a one-letter prefix over the whole corpus
+    // stays well below it, so matches are not cut before they are ranked
+    private static final int MAX_CANDIDATES = 50_000;
+
+    private static SearchIndex instance;
+
+    public interface Callback {
+        void onResults(String query, List<Result> results);
+
+        void onError(Exception e);
+    }
+
+    public static class Result {
+        public final String table;
+        public final int id;
+        public final String title;
+        final double score;
+
+        Result(String table, int id, String title, double score) {
+            this.table = table;
+            this.id = id;
+            this.title = title;
+            this.score = score;
+        }
+    }
+
+    private final LocalStore store;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(() -> {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+        runnable.run();
+    }, "search"));
+
+    private SearchIndex(Context context) {
+        store = LocalStore.getInstance(context);
+    }
+
+    public static synchronized SearchIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new SearchIndex(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    // Delivers on the main thread. Callers typing ahead should cancel the previous
+    // future; a query cancelled on the main thread never calls back, even when it had
+    // already finished.
+    public Future<?> search(String query, int limit, Callback callback) {
+        Query task = new Query(query, limit, callback);
+        executor.execute(task);
+        return task;
+    }
+
+    // Runs on the calling thread.
+    public List<Result> search(String query, int limit) {
+        String match = SearchRanking.toMatchQuery(query);
+        if (match.isEmpty()) {
+            return Collections.emptyList();
+        }
+        long start = System.nanoTime();
+        SearchRanking.TopK best = new SearchRanking.TopK(limit);
+        try (Cursor c = store.getReadableDatabase().rawQuery("SELECT docid, matchinfo(search, 'pcnx') "
+                + "FROM search WHERE search MATCH ? LIMIT ?", new String[] {match, Integer.toString(MAX_CANDIDATES)})) {
+            int candidates = 0;
+            while (c.moveToNext()) {
+                best.offer(c.getLong(0), SearchRanking.score(c.getBlob(1)));
+                candidates++;
+            }
+            if (candidates >= MAX_CANDIDATES) {
+                AppLog.w(TAG, "Candidates capped, ranked a subset", "query", match);
+            }
+        }
+        long[] docIds = best.docIds();
+        double[] scores = best.scores();
+        Map<Long, String> titles = titles(docIds);
+        List<Result> results = new ArrayList<>(docIds.length);
+        for (int i = 0; i < docIds.length; i++) {
+            long docId = docIds[i];
+            results.add(new Result(LocalStore.tableOf(docId), LocalStore.idOf(docId), titles.get(docId), scores[i]));
+        }
+        Metrics.SEARCH.record(System.nanoTime() - start);
+        return results;
+    }
+
+    private Map<Long, String> titles(long[] docIds) {
+        Map<Long, String> titles = new HashMap<>();
+        if (docIds.length == 0) {
+            return titles;
+        }
+        StringBuilder sql = new StringBuilder("SELECT docid, title FROM search WHERE docid IN (");
+        String[] args = new String[docIds.length];
+        for (int i = 0; i < docIds.length; i++) {
+            sql.append(i == 0 ? "?" : ",?");
+            args[i] = Long.toString(docIds[i]);
+        }
+        try (Cursor c = store.getReadableDatabase().rawQuery(sql.append(')').toString(), args)) {
+            while (c.moveToNext()) {
+                titles.put(c.getLong(0), c.getString(1));
+            }
+        }
+        return titles;
+    }
+
+    // FutureTask stops recording cancel() once it has run, so a query cancelled
+    // between finishing and its callback reaching the main thread would still deliver.
+    // The flag here is set either way and checked by the posted callback.
+    private class Query extends FutureTask<List<Result>> {
+        private final String query;
+        private final Callback callback;
+        private volatile boolean cancelled;
+
+        Query(String query, int limit, Callback callback) {
+            super(() -> search(query, limit));
+            this.query = query;
+            this.callback = callback;
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            cancelled = true;
+            return super.cancel(mayInterruptIfRunning);
+        }
+
+        @Override
+        protected void done() {
+            if (cancelled) {
+                return;
+            }
+            try {
+                List<Result> results = get();
+                mainHandler.post(() -> {
+                    if (!cancelled) {
+                        callback.onResults(query, results);
+                    }
+                });
+            } catch (ExecutionException e) {
+                Exception error = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                AppLog.e(TAG, "Search failed", error);
+                mainHandler.post(() -> {
+                    if (!cancelled) {
+                        callback.onError(error);
+                    }
+                });
+            } catch (InterruptedException | CancellationException e) {
+                // Cancelled; nobody is waiting for the results
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.mobilefrontend;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Locale;
+import java.util.PriorityQueue;
+
+// The query side of SearchIndex that needs no database: turning typed text into an
+// FTS4 MATCH expression, scoring a row from its matchinfo(search, 'pcnx') blob with a
+// BM25-style formula that counts title hits above body hits, and keeping the best
+// few rows of a scan. Plain Java, so the bench harness can check it on the JVM.
+public final class SearchRanking {
+    public static final double TITLE_WEIGHT = 3.0;
+    public static final double BODY_WEIGHT = 1.0;
+    private static final double K1 = 1.2;
+
+    private SearchRanking() {
+    }
+
+    // "chmod perm" becomes "chmod* perm*": every word must match as a prefix.
+    public static String toMatchQuery(String query) {
+        StringBuilder match = new StringBuilder();
+        int length = query.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(query.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && Character.isLetterOrDigit(query.charAt(i))) {
+                i++;
+            }
+            if (i > start) {
+                if (match.length() > 0) {
+                    match.append(' ');
+                }
+                match.append(query.substring(start, i).toLowerCase(Locale.ROOT)).append('*');
+            }
+        }
+        return match.toString();
+    }
+
+    // matchinfo 'pcnx': phrase count, column count, row count, then per phrase and
+    // column the hits in this row, hits in all rows and rows with a hit.
+    public static double score(byte[] matchinfo) {
+        ByteBuffer info = ByteBuffer.wrap(matchinfo).order(ByteOrder.nativeOrder());
+        int phrases = info.getInt(0);
+        int columns = info.getInt(4);
+        int rows = info.getInt(8);
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                int offset = 12 + 12 * (phrase * columns + column);
+                int hits = info.getInt(offset);
+                if (hits == 0) {
+                    continue;
+                }
+                int rowsWithHit = info.getInt(offset + 8);
+                double idf = Math.log(1 + (rows - rowsWithHit + 0.5) / (rowsWithHit + 0.5));
+                double weight = column == 0 ? TITLE_WEIGHT : BODY_WEIGHT;
+                score += weight * idf * hits * (K1 + 1) / (hits + K1);
+            }
+        }
+        return score;
+    }
+
+    // The limit highest-scoring rows offered so far, in a min-heap so each offer is
+    // O(log limit) however many rows match. Ties go to the lower docid.
+    public static class TopK {
+        private final int limit;
+        private final PriorityQueue<long[]> heap;
+
+        public TopK(int limit) {
+            this.limit = limit;
+            // Each element is {docId, Double.doubleToLongBits(score)}; worst at the head
+            this.heap = new PriorityQueue<>(Math.max(1, limit), (a, b) -> {
+                int byScore = Double.compare(Double.longBitsToDouble(a[1]), Double.longBitsToDouble(b[1]));
+                return byScore != 0 ? byScore : Long.compare(b[0], a[0]);
+            });
+        }
+
+        public void offer(long docId, double score) {
+            if (limit <= 0) {
+                return;
+            }
+            long[] candidate = {docId, Double.doubleToLongBits(score)};
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (heap.comparator().compare(candidate, heap.peek()) > 0) {
+                heap.poll();
+                heap.add(candidate);
+            }
+        }
+
+        // Best first.
+        public long[] docIds() {
+            long[] ids = new long[heap.size()];
+            PriorityQueue<long[]> drain = new PriorityQueue<>(heap);
+            for (int i = ids.length - 1; i >= 0; i--) {
+                ids[i] = drain.poll()[0];
+            }
+            return ids;
+        }
+
+        public double[] scores() {
+            double[] scores = new double[heap.size()];
+            PriorityQueue<long[]> drain = new PriorityQueue<>(heap);
+            for (int i = scores.length - 1; i >= 0; i--) {
+                scores[i] = Double.longBitsToDouble(drain.poll()[1]);
+            }
+            return scores;
+        }
+    }
+}
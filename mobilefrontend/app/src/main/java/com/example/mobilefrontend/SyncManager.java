@@ -0,0 +1,104 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import androidx.lifecycle.LifecycleOwner;
+
+// Pulls rows changed since the last sync into the LocalStore. The watermark is the
+// newest updatedAt seen and only advances once a sync has run to completion, so an
+// interrupted sync is simply repeated. Callbacks report how many rows were new or
+// changed, letting callers skip a re-query when nothing moved. Only summaries are
+// synced; DetailLoader fills in the full text of items as they are opened.
+public class SyncManager {
+    private static final String GUIDES_KEY = "sync /guides";
+    private static final String POSTS_KEY = "sync /posts";
+    private static final Object GUIDES_LOCK = new Object();
+    private static final Object POSTS_LOCK = new Object();
+
+    private final RequestDispatcher dispatcher;
+    private final LocalStore store;
+    private final DetailLoader details;
+
+    public SyncManager(Context context) {
+        this.dispatcher = RequestDispatcher.getInstance(context);
+        this.store = LocalStore.getInstance(context);
+        this.details = DetailLoader.getInstance(context);
+    }
+
+    public void syncGuides(RequestDispatcher.Priority priority, LifecycleOwner owner,
+                           RequestDispatcher.Callback<Guide> callback) {
+        dispatcher.stream(GUIDES_KEY, priority, owner, this::syncGuidesNow, callback);
+    }
+
+    public void syncPosts(RequestDispatcher.Priority priority, LifecycleOwner owner,
+                          RequestDispatcher.Callback<Post> callback) {
+        dispatcher.stream(POSTS_KEY, priority, owner, this::syncPostsNow, callback);
+    }
+
+    // For a pull-to-refresh that finds a background sync still queued.
+    public void prioritizeGuides() {
+        dispatcher.promote(GUIDES_KEY, RequestDispatcher.Priority.USER_VISIBLE);
+    }
+
+    public void prioritizePosts() {
+        dispatcher.promote(POSTS_KEY, RequestDispatcher.Priority.USER_VISIBLE);
+    }
+
+    // The blocking syncs behind the above, also run by SyncWorker. A sync started while
+    // another of the same table runs waits for it and then finds little left to do.
+    public int syncGuidesNow(ApiClient apiClient, ApiClient.BatchListener<Guide> listener) throws Exception {
+        synchronized (GUIDES_LOCK) {
+            Watermark watermark = new Watermark(store.getWatermark(LocalStore.GUIDES));
+            apiClient.streamGuideSummariesUpdatedSince(watermark.since, batch -> {
+                store.upsertGuides(batch);
+                for (Guide guide : batch) {
+                    details.evict("guide:" + guide.getId());
+                    watermark.offer(guide.getUpdatedAt());
+                }
+                listener.onBatch(batch);
+            });
+            store.setWatermark(LocalStore.GUIDES, watermark.newest);
+            return watermark.changed;
+        }
+    }
+
+    public int syncPostsNow(ApiClient apiClient, ApiClient.BatchListener<Post> listener) throws Exception {
+        synchronized (POSTS_LOCK) {
+            Watermark watermark = new Watermark(store.getWatermark(LocalStore.POSTS));
+            apiClient.streamPostSummariesUpdatedSince(watermark.since, batch -> {
+                store.upsertPosts(batch);
+                for (Post post : batch) {
+                    details.evict("post:" + post.getId());
+                    watermark.offer(post.getUpdatedAt());
+                }
+                listener.onBatch(batch);
+            });
+            store.setWatermark(LocalStore.POSTS, watermark.newest);
+            return watermark.changed;
+        }
+    }
+
+    // updatedAt values are ISO-8601 UTC strings from the backend, so they order lexically.
+    private static class Watermark {
+        final String since;
+        String newest;
+        int changed;
+
+        Watermark(String since) {
+            this.since = since;
+            this.newest = since;
+        }
+
+        void offer(String updatedAt) {
+            if (updatedAt == null) {
+                changed++;
+                return;
+            }
+            if (since == null || updatedAt.compareTo(since) > 0) {
+                changed++;
+            }
+            if (newest == null || updatedAt.compareTo(newest) > 0) {
+                newest = updatedAt;
+            }
+        }
+    }
+}
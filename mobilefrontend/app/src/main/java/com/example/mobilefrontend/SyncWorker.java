@@ -0,0 +1,65 @@
+package com.example.mobilefrontend;
+
+import android.content.Context;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingPeriodicWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.PeriodicWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import java.util.concurrent.TimeUnit;
+
+// Keeps LocalStore current while the app is not on screen, so opening a tab rarely
+// has anything to catch up on. WorkManager runs it when the device is online with a
+// healthy battery, outlives the process and backs off after failures; none of it
+// goes through RequestDispatcher, so it never takes a worker from a foreground load.
+//
+// Comments are deliberately left out. CommentThreads holds them in memory for the
+// life of the process only, so a job that usually runs with no process alive has no
+// threads to refresh. Each thread is paged in, then polled, while its detail screen
+// is open.
+public class SyncWorker extends Worker {
+    private static final String TAG = "SyncWorker";
+    private static final String WORK_NAME = "sync";
+    private static final long INTERVAL_HOURS = 3;
+
+    public SyncWorker(Context context, WorkerParameters params) {
+        super(context, params);
+    }
+
+    // Safe to call on every start; an already scheduled sync is kept as it is.
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .setRequiresBatteryNotLow(true)
+                .build();
+        PeriodicWorkRequest request = new PeriodicWorkRequest.Builder(SyncWorker.class, INTERVAL_HOURS, TimeUnit.HOURS)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 10, TimeUnit.MINUTES)
+                .build();
+        WorkManager.getInstance(context).enqueueUniquePeriodicWork(WORK_NAME, ExistingPeriodicWorkPolicy.KEEP, request);
+    }
+
+    @Override
+    public Result doWork() {
+        Context context = getApplicationContext();
+        SyncManager syncManager = new SyncManager(context);
+        ApiClient apiClient = RequestDispatcher.getInstance(context).getApiClient();
+        try {
+            int guides = syncManager.syncGuidesNow(apiClient, batch -> {
+            });
+            if (isStopped()) {
+                return Result.retry();
+            }
+            int posts = syncManager.syncPostsNow(apiClient, batch -> {
+            });
+            AppLog.i(TAG, "Synced " + guides + " guides, " + posts + " posts");
+            return Result.success();
+        } catch (Exception e) {
+            AppLog.w(TAG, "Sync failed, will retry", "error", e.getMessage());
+            return Result.retry();
+        }
+    }
+}
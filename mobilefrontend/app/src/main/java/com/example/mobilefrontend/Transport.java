@@ -0,0 +1,25 @@
+package com.example.mobilefrontend;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+// The HTTP layer under ApiClient. Implementations own connection pooling and content
+// decoding; callers always get the decoded body and must close the response so the
+// connection can go back to the pool.
+public interface Transport {
+    Response get(String url, Map<String, String> headers) throws IOException;
+
+    interface Response extends Closeable {
+        int getCode();
+
+        String getHeader(String name);
+
+        InputStream getBody() throws IOException;
+
+        // Drops the connection instead of draining it back into the pool, for a body
+        // that never ends. May be called from another thread to unblock a read.
+        void abort();
+    }
+}
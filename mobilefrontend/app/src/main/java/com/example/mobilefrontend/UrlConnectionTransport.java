@@ -0,0 +1,185 @@
+package com.example.mobilefrontend;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URL;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+// HttpURLConnection keeps idle keep-alive connections in a per-process pool, but only
+// hands a connection back once its body has been read to the end and closed, and
+// never after disconnect(). Responses here therefore drain what the caller left
+// unread on close and only disconnect when something went wrong. Bodies are requested
+// gzipped and inflated transparently.
+public class UrlConnectionTransport implements Transport {
+    private static final String TAG = "UrlConnectionTransport";
+    public static final int DEFAULT_CONNECT_TIMEOUT_MS = 10 * 1000;
+    public static final int DEFAULT_READ_TIMEOUT_MS = 20 * 1000;
+    private static final int MAX_IDLE_CONNECTIONS = 5;
+    private static final int BUFFER_SIZE = 16 * 1024;
+    // Leftovers beyond this are not worth reading just to keep the socket
+    private static final int MAX_DRAIN_BYTES = 64 * 1024;
+
+    static {
+        System.setProperty("http.keepAlive", "true");
+        System.setProperty("http.maxConnections", String.valueOf(MAX_IDLE_CONNECTIONS));
+    }
+
+    private final int connectTimeoutMs;
+    private final int readTimeoutMs;
+
+    public UrlConnectionTransport() {
+        this(DEFAULT_CONNECT_TIMEOUT_MS, DEFAULT_READ_TIMEOUT_MS);
+    }
+
+    public UrlConnectionTransport(int connectTimeoutMs, int readTimeoutMs) {
+        this.connectTimeoutMs = connectTimeoutMs;
+        this.readTimeoutMs = readTimeoutMs;
+    }
+
+    @Override
+    public Response get(String urlString, Map<String, String> headers) throws IOException {
+        URL url = URI.create(urlString).toURL();
+        HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+        try {
+            conn.setRequestMethod("GET");
+            conn.setConnectTimeout(connectTimeoutMs);
+            conn.setReadTimeout(readTimeoutMs);
+            conn.setRequestProperty("Accept-Encoding", "gzip");
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                conn.setRequestProperty(header.getKey(), header.getValue());
+            }
+
+            long start = System.nanoTime();
+            int code = conn.getResponseCode();
+            Metrics.TTFB.record(System.nanoTime() - start);
+            return new UrlConnectionResponse(conn, code);
+        } catch (IOException e) {
+            conn.disconnect();
+            throw e;
+        }
+    }
+
+    private static class UrlConnectionResponse implements Response {
+        private final HttpURLConnection conn;
+        private final int code;
+        private DrainingInputStream body;
+
+        UrlConnectionResponse(HttpURLConnection conn, int code) {
+            this.conn = conn;
+            this.code = code;
+        }
+
+        @Override
+        public int getCode() {
+            return code;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return conn.getHeaderField(name);
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                InputStream raw = code >= 400 ? conn.getErrorStream() : conn.getInputStream();
+                if (raw == null) {
+                    raw = new ByteArrayInputStream(new byte[0]);
+                }
+                CountingInputStream wire = new CountingInputStream(raw, Metrics.BYTES_ON_WIRE);
+                InputStream decoded = "gzip".equalsIgnoreCase(conn.getHeaderField("Content-Encoding"))
+                        ? new GZIPInputStream(wire, BUFFER_SIZE)
+                        : new BufferedInputStream(wire, BUFFER_SIZE);
+                body = new DrainingInputStream(new CountingInputStream(decoded, Metrics.BYTES_DECODED));
+            }
+            return body;
+        }
+
+        @Override
+        public void abort() {
+            conn.disconnect();
+        }
+
+        @Override
+        public void close() {
+            if (body == null) {
+                // Nothing was read; a 304 has no body, anything else cannot be reused
+                if (code != HttpURLConnection.HTTP_NOT_MODIFIED) {
+                    conn.disconnect();
+                }
+                return;
+            }
+            try {
+                body.close();
+                if (!body.drained) {
+                    conn.disconnect();
+                }
+            } catch (IOException e) {
+                AppLog.d(TAG, "Dropping connection", "error", e.getMessage());
+                conn.disconnect();
+            }
+        }
+    }
+
+    private static class DrainingInputStream extends FilterInputStream {
+        boolean drained;
+        private boolean closed;
+
+        DrainingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                byte[] scratch = new byte[1024];
+                int total = 0;
+                int n;
+                while (total <= MAX_DRAIN_BYTES && (n = in.read(scratch)) >= 0) {
+                    total += n;
+                }
+                drained = total <= MAX_DRAIN_BYTES;
+            } finally {
+                super.close();
+            }
+        }
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private final AtomicLong counter;
+
+        CountingInputStream(InputStream in, AtomicLong counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counter.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                counter.addAndGet(n);
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+#!/bin/sh
+# Rebuilds the app's quiz index from the web app's question bank. Needs a JDK and the
+# Gson jar the app uses:
+#   GSON_JAR=/path/to/gson.jar tools/quiz-bank.sh [questions.json] [out.bin]
+set -e
+here=$(cd "$(dirname "$0")" && pwd)
+root="$here/.."
+app="$root/mobilefrontend/app/src/main/java/com/example/mobilefrontend"
+out="$here/build/classes"
+: "${GSON_JAR:?set GSON_JAR to the gson jar}"
+
+rm -rf "$out" && mkdir -p "$out"
+# QuizBank is plain Java, so the writer compiles against the app's copy of the format
+javac -encoding UTF-8 -d "$out" -cp "$GSON_JAR" "$app/QuizBank.java" $(find "$here/src/main/java" -name '*.java')
+exec java -cp "$out:$GSON_JAR" com.example.mobilefrontend.QuizBankWriter \
+    "${1:-$root/linuxGuide/public/linux_quiz_questions.json}" \
+    "${2:-$root/mobilefrontend/app/src/main/assets/quiz.bin}"
@@ -0,0 +1,203 @@
+package com.example.mobilefrontend;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Builds the index QuizBank reads from the quiz JSON the web app uses. Runs on the JVM
+// at build time and is kept out of the app's sources; it shares QuizBank's package
+// for the format constants. Rebuild the committed asset with:
+//
+//   GSON_JAR=/path/to/gson.jar tools/quiz-bank.sh
+//
+// Tags become topics. Answers keep their a-f order with the empty ones dropped, and
+// their correct flags become one bitmask. Every string is stored once however many
+// questions share it.
+public final class QuizBankWriter {
+    private static final String LETTERS = "abcdef";
+
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final Map<String, Integer> topicIndex = new LinkedHashMap<>();
+    private final List<List<Integer>> topicQuestions = new ArrayList<>();
+    private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+    private int questionCount;
+
+    private QuizBankWriter() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: QuizBankWriter <questions.json> <out.bin>");
+            System.exit(2);
+        }
+        QuizBankWriter writer = new QuizBankWriter();
+        try (Reader in = new InputStreamReader(new FileInputStream(args[0]), StandardCharsets.UTF_8)) {
+            for (JsonElement element : JsonParser.parseReader(in).getAsJsonArray()) {
+                writer.add(element.getAsJsonObject());
+            }
+        }
+        File out = new File(args[1]);
+        try (OutputStream stream = new FileOutputStream(out)) {
+            writer.write(stream);
+        }
+        System.out.println(writer.questionCount + " questions, " + writer.topicIndex.size() + " topics, "
+                + writer.strings.size() + " strings: " + new File(args[0]).length() + " -> " + out.length() + " bytes");
+    }
+
+    private void add(JsonObject question) throws IOException {
+        int index = questionCount++;
+        int topicMask = 0;
+        JsonArray tags = question.has("tags") && question.get("tags").isJsonArray()
+                ? question.getAsJsonArray("tags") : new JsonArray();
+        for (JsonElement tag : tags) {
+            int topic = topic(text(tag.getAsJsonObject(), "name"));
+            topicQuestions.get(topic).add(index);
+            topicMask |= 1 << topic;
+        }
+
+        JsonObject answers = question.getAsJsonObject("answers");
+        JsonObject correct = question.getAsJsonObject("correct_answers");
+        int[] answerStrings = new int[QuizBank.MAX_ANSWERS];
+        int answerCount = 0;
+        int correctMask = 0;
+        for (int i = 0; i < LETTERS.length(); i++) {
+            String key = "answer_" + LETTERS.charAt(i);
+            String answer = text(answers, key);
+            if (answer == null) {
+                continue;
+            }
+            if ("true".equals(text(correct, key + "_correct"))) {
+                correctMask |= 1 << answerCount;
+            }
+            answerStrings[answerCount++] = string(answer);
+        }
+        for (int i = answerCount; i < QuizBank.MAX_ANSWERS; i++) {
+            answerStrings[i] = QuizBank.NO_STRING;
+        }
+
+        DataOutputStream out = new DataOutputStream(records);
+        out.writeInt(question.get("id").getAsInt());
+        out.writeInt(string(text(question, "question")));
+        out.writeInt(string(text(question, "description")));
+        out.writeInt(string(text(question, "explanation")));
+        out.writeInt(string(text(question, "tip")));
+        out.writeInt(topicMask);
+        out.writeByte(difficulty(text(question, "difficulty")));
+        out.writeByte(answerCount);
+        out.writeByte(correctMask);
+        out.writeByte("true".equals(text(question, "multiple_correct_answers")) ? QuizBank.FLAG_MULTIPLE : 0);
+        for (int answer : answerStrings) {
+            out.writeInt(answer);
+        }
+    }
+
+    private void write(OutputStream stream) throws IOException {
+        int topicCount = topicIndex.size();
+        int postingCount = 0;
+        for (List<Integer> questions : topicQuestions) {
+            postingCount += questions.size();
+        }
+        ByteArrayOutputStream stringBytes = new ByteArrayOutputStream();
+        int[] stringOffsets = new int[strings.size() + 1];
+        int i = 0;
+        for (String value : strings.keySet()) {
+            stringOffsets[i++] = stringBytes.size();
+            stringBytes.write(value.getBytes(StandardCharsets.UTF_8));
+        }
+        stringOffsets[i] = stringBytes.size();
+
+        int topics = QuizBank.HEADER_SIZE;
+        int postings = topics + topicCount * QuizBank.TOPIC_SIZE;
+        int questions = postings + postingCount * 4;
+        int offsets = questions + records.size();
+        int data = offsets + stringOffsets.length * 4;
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(QuizBank.MAGIC);
+        out.writeInt(QuizBank.VERSION);
+        out.writeInt(questionCount);
+        out.writeInt(topicCount);
+        out.writeInt(strings.size());
+        out.writeInt(topics);
+        out.writeInt(postings);
+        out.writeInt(questions);
+        out.writeInt(offsets);
+        out.writeInt(data);
+        int first = 0;
+        for (Map.Entry<String, Integer> topic : topicIndex.entrySet()) {
+            out.writeInt(strings.get(topic.getKey()));
+            out.writeInt(first);
+            out.writeInt(topicQuestions.get(topic.getValue()).size());
+            first += topicQuestions.get(topic.getValue()).size();
+        }
+        for (List<Integer> topicPostings : topicQuestions) {
+            for (int question : topicPostings) {
+                out.writeInt(question);
+            }
+        }
+        records.writeTo(out);
+        for (int offset : stringOffsets) {
+            out.writeInt(offset);
+        }
+        stringBytes.writeTo(out);
+        out.flush();
+    }
+
+    private int topic(String name) {
+        Integer topic = topicIndex.get(name);
+        if (topic == null) {
+            if (topicIndex.size() == QuizBank.MAX_TOPICS) {
+                throw new IllegalStateException("More than " + QuizBank.MAX_TOPICS + " topics");
+            }
+            string(name);
+            topic = topicIndex.size();
+            topicIndex.put(name, topic);
+            topicQuestions.add(new ArrayList<>());
+        }
+        return topic;
+    }
+
+    private int string(String value) {
+        if (value == null) {
+            return QuizBank.NO_STRING;
+        }
+        Integer index = strings.get(value);
+        if (index == null) {
+            index = strings.size();
+            strings.put(value, index);
+        }
+        return index;
+    }
+
+    private static int difficulty(String value) {
+        switch (value == null ? "" : value.toLowerCase(Locale.ROOT)) {
+            case "easy":
+                return QuizBank.EASY;
+            case "hard":
+                return QuizBank.HARD;
+            default:
+                return QuizBank.MEDIUM;
+        }
+    }
+
+    private static String text(JsonObject object, String key) {
+        JsonElement value = object.get(key);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+}